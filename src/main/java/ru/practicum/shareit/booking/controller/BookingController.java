@@ -1,10 +1,14 @@
 package ru.practicum.shareit.booking.controller;
 
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.booking.dto.BookingDtoIn;
 import ru.practicum.shareit.booking.dto.BookingDtoOut;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.common.CursorPage;
+import ru.practicum.shareit.common.SharerUser;
+import ru.practicum.shareit.user.model.User;
 
 import javax.validation.Valid;
 import javax.validation.constraints.NotNull;
@@ -14,6 +18,7 @@ import java.util.List;
 @RestController
 @RequestMapping(path = "/bookings")
 public class BookingController {
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
 
     private final BookingService bookingService;
 
@@ -22,38 +27,53 @@ public class BookingController {
     }
 
     @PostMapping
-    public BookingDtoOut add(@RequestHeader("X-Sharer-User-Id") Long userId,
+    public BookingDtoOut add(@SharerUser User user,
                              @NotNull @Valid @RequestBody BookingDtoIn bookingDtoIn) {
-        return bookingService.add(userId, bookingDtoIn);
+        return bookingService.add(user, bookingDtoIn);
     }
 
     @PatchMapping("/{id}")
-    public BookingDtoOut update(@RequestHeader("X-Sharer-User-Id") Long userId,
+    public BookingDtoOut update(@SharerUser User user,
                                 @PathVariable Long id,
                                 @RequestParam boolean approved) {
-        return bookingService.update(userId, id, approved);
+        return bookingService.update(user, id, approved);
     }
 
     @GetMapping("/{id}")
-    public BookingDtoOut findById(@RequestHeader("X-Sharer-User-Id") Long userId,
+    public BookingDtoOut findById(@SharerUser User user,
                                   @PathVariable Long id) {
-        return bookingService.findById(userId, id);
+        return bookingService.findById(user, id);
     }
 
     @GetMapping
-    public List<BookingDtoOut> findAllByUserId(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                               @RequestParam(defaultValue = "ALL") String state,
-                                               @RequestParam(defaultValue = "0") int from,
-                                               @RequestParam(defaultValue = "10") int size) {
-        return bookingService.findAllByUserId(userId, state, from, size);
+    public ResponseEntity<List<BookingDtoOut>> findAllByUserId(@SharerUser User user,
+                                                               @RequestParam(defaultValue = "ALL") String state,
+                                                               @RequestParam(defaultValue = "0") int from,
+                                                               @RequestParam(defaultValue = "10") int size,
+                                                               @RequestParam(required = false) String cursor) {
+        if (cursor == null) {
+            return ResponseEntity.ok(bookingService.findAllByUserId(user, state, from, size));
+        }
+        return toResponse(bookingService.findAllByUserId(user, state, cursor, size));
     }
 
     @GetMapping("/owner")
-    public List<BookingDtoOut> findAllByOwnerId(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                                @RequestParam(defaultValue = "ALL") String state,
-                                                @RequestParam(defaultValue = "0") int from,
-                                                @RequestParam(defaultValue = "10") int size) {
-        return bookingService.findAllByOwnerId(userId, state, from, size);
+    public ResponseEntity<List<BookingDtoOut>> findAllByOwnerId(@SharerUser User user,
+                                                                @RequestParam(defaultValue = "ALL") String state,
+                                                                @RequestParam(defaultValue = "0") int from,
+                                                                @RequestParam(defaultValue = "10") int size,
+                                                                @RequestParam(required = false) String cursor) {
+        if (cursor == null) {
+            return ResponseEntity.ok(bookingService.findAllByOwnerId(user, state, from, size));
+        }
+        return toResponse(bookingService.findAllByOwnerId(user, state, cursor, size));
     }
 
+    private ResponseEntity<List<BookingDtoOut>> toResponse(CursorPage<BookingDtoOut> page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getContent());
+    }
 }
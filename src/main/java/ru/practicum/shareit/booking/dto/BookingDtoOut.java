@@ -2,8 +2,8 @@ package ru.practicum.shareit.booking.dto;
 
 import lombok.*;
 import ru.practicum.shareit.booking.model.BookingStatus;
-import ru.practicum.shareit.item.model.Item;
-import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.item.dto.ItemShortDto;
+import ru.practicum.shareit.user.dto.UserShortDto;
 
 import java.time.LocalDateTime;
 
@@ -17,6 +17,6 @@ public class BookingDtoOut {
     private LocalDateTime start;
     private LocalDateTime end;
     private BookingStatus status;
-    private User booker;
-    private Item item;
+    private UserShortDto booker;
+    private ItemShortDto item;
 }
@@ -0,0 +1,13 @@
+package ru.practicum.shareit.booking.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.practicum.shareit.booking.dto.BookingDtoOut;
+
+@Getter
+@AllArgsConstructor
+public class BookingChangedEvent {
+    private final Long ownerId;
+    private final Long bookerId;
+    private final BookingDtoOut booking;
+}
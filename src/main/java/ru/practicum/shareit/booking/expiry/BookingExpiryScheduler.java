@@ -0,0 +1,112 @@
+package ru.practicum.shareit.booking.expiry;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.index.BookingIntervalIndex;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.outbox.model.DomainEventType;
+import ru.practicum.shareit.outbox.service.OutboxWriter;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.booking.expiry.enabled", havingValue = "true", matchIfMissing = true)
+public class BookingExpiryScheduler {
+    private final BookingRepository bookingRepository;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final OutboxWriter outboxWriter;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxBatches;
+    private final Counter expired;
+    private final DistributionSummary expiredPerRun;
+
+    public BookingExpiryScheduler(BookingRepository bookingRepository, BookingIntervalIndex bookingIntervalIndex,
+                                  OutboxWriter outboxWriter, PlatformTransactionManager transactionManager,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${shareit.booking.expiry.batch-size:500}") int batchSize,
+                                  @Value("${shareit.booking.expiry.max-batches:20}") int maxBatches) {
+        if (batchSize <= 0 || maxBatches <= 0) {
+            throw new IllegalArgumentException("Размер и количество пакетов должны быть больше 0");
+        }
+        this.bookingRepository = bookingRepository;
+        this.bookingIntervalIndex = bookingIntervalIndex;
+        this.outboxWriter = outboxWriter;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxBatches = maxBatches;
+        this.expired = Counter.builder("bookings.expired")
+                .description("Бронирования, переведённые из WAITING в EXPIRED")
+                .register(meterRegistry);
+        this.expiredPerRun = DistributionSummary.builder("bookings.expiry.run.rows")
+                .description("Количество бронирований, просроченных за один запуск")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking.expiry.interval:PT1M}")
+    public int expireStale() {
+        LocalDateTime now = LocalDateTime.now();
+        int total = 0;
+        for (int batch = 0; batch < maxBatches; batch++) {
+            Integer processed = transactionTemplate.execute(status -> expireBatch(now));
+            if (processed == null || processed == 0) {
+                break;
+            }
+            total += processed;
+            if (processed < batchSize) {
+                break;
+            }
+        }
+        expired.increment(total);
+        expiredPerRun.record(total);
+        if (total > 0) {
+            log.info("Просрочено {} бронирований в статусе WAITING с началом до {}", total, now);
+        }
+        return total;
+    }
+
+    private int expireBatch(LocalDateTime now) {
+        List<Booking> stale = bookingRepository.findAllByStatusAndStartBefore(BookingStatus.WAITING, now,
+                PageRequest.of(0, batchSize, Sort.by("start", "id")));
+        if (stale.isEmpty()) {
+            return 0;
+        }
+        List<Long> ids = stale.stream()
+                .map(Booking::getId)
+                .collect(Collectors.toList());
+        int updated = bookingRepository.updateStatusByIdIn(ids, BookingStatus.WAITING, BookingStatus.EXPIRED);
+        List<Booking> transitioned = stale;
+        if (updated < stale.size()) {
+            Set<Long> expiredIds = new HashSet<>(bookingRepository.findIdsByIdInAndStatus(ids,
+                    BookingStatus.EXPIRED));
+            transitioned = stale.stream()
+                    .filter(booking -> expiredIds.contains(booking.getId()))
+                    .collect(Collectors.toList());
+        }
+        for (Booking booking : transitioned) {
+            booking.setStatus(BookingStatus.EXPIRED);
+            outboxWriter.append(DomainEventType.BOOKING_EXPIRED, booking.getId(),
+                    BookingMapper.toDtoOutToItem(booking));
+        }
+        bookingIntervalIndex.releaseAfterCommit(transitioned);
+        return updated;
+    }
+}
@@ -0,0 +1,109 @@
+package ru.practicum.shareit.booking.index;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.Duration;
+import java.util.Collection;
+
+@Component
+public class BookingIntervalIndex {
+    private final BookingRepository bookingRepository;
+    private final Cache<Long, BookingIntervalTree> trees;
+
+    public BookingIntervalIndex(BookingRepository bookingRepository, MeterRegistry meterRegistry,
+                                @Value("${shareit.booking.interval-index.max-items:10000}") long maxItems,
+                                @Value("${shareit.booking.interval-index.ttl:5m}") Duration ttl) {
+        this.bookingRepository = bookingRepository;
+        this.trees = Caffeine.newBuilder()
+                .maximumSize(maxItems)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, trees, "booking-intervals");
+    }
+
+    public boolean tryReserve(Booking booking) {
+        Long itemId = booking.getItem().getId();
+        BookingIntervalTree tree = trees.get(itemId, this::load);
+        boolean conflict;
+        synchronized (tree) {
+            tree.remove(booking.getId(), booking.getStart());
+            conflict = tree.overlaps(booking.getStart(), booking.getEnd());
+            if (!conflict) {
+                tree.insert(booking.getId(), booking.getStart(), booking.getEnd());
+            }
+        }
+        if (!conflict) {
+            invalidateOnRollback(itemId);
+            return true;
+        }
+        if (bookingRepository.existsByItem_IdAndIdNotAndStatusInAndStartBeforeAndEndAfter(itemId, booking.getId(),
+                BookingStatus.ACTIVE, booking.getEnd(), booking.getStart())) {
+            return false;
+        }
+        trees.invalidate(itemId);
+        return true;
+    }
+
+    public void release(Booking booking) {
+        remove(booking);
+        invalidateOnRollback(booking.getItem().getId());
+    }
+
+    public void releaseAfterCommit(Collection<Booking> bookings) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            bookings.forEach(this::remove);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                bookings.forEach(BookingIntervalIndex.this::remove);
+            }
+        });
+    }
+
+    public void invalidate(Long itemId) {
+        trees.invalidate(itemId);
+    }
+
+    private void remove(Booking booking) {
+        BookingIntervalTree tree = trees.getIfPresent(booking.getItem().getId());
+        if (tree != null) {
+            synchronized (tree) {
+                tree.remove(booking.getId(), booking.getStart());
+            }
+        }
+    }
+
+    private BookingIntervalTree load(Long itemId) {
+        BookingIntervalTree tree = new BookingIntervalTree();
+        for (Booking booking : bookingRepository.findAllByItem_IdAndStatusIn(itemId, BookingStatus.ACTIVE)) {
+            tree.insert(booking.getId(), booking.getStart(), booking.getEnd());
+        }
+        return tree;
+    }
+
+    private void invalidateOnRollback(Long itemId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        trees.invalidate(itemId);
+                    }
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package ru.practicum.shareit.booking.index;
+
+import java.time.LocalDateTime;
+
+public class BookingIntervalTree {
+    private Node root;
+    private int size;
+
+    public int size() {
+        return size;
+    }
+
+    public boolean overlaps(LocalDateTime start, LocalDateTime end) {
+        Node node = root;
+        while (node != null) {
+            if (node.start.isBefore(end) && start.isBefore(node.end)) {
+                return true;
+            }
+            if (node.left != null && node.left.maxEnd.isAfter(start)) {
+                node = node.left;
+            } else {
+                node = node.right;
+            }
+        }
+        return false;
+    }
+
+    public void insert(Long id, LocalDateTime start, LocalDateTime end) {
+        root = insert(root, id, start, end);
+    }
+
+    public void remove(Long id, LocalDateTime start) {
+        root = remove(root, id, start);
+    }
+
+    private Node insert(Node node, Long id, LocalDateTime start, LocalDateTime end) {
+        if (node == null) {
+            size++;
+            return new Node(id, start, end);
+        }
+        int cmp = compare(id, start, node);
+        if (cmp < 0) {
+            node.left = insert(node.left, id, start, end);
+        } else if (cmp > 0) {
+            node.right = insert(node.right, id, start, end);
+        } else {
+            node.end = end;
+        }
+        return balance(node);
+    }
+
+    private Node remove(Node node, Long id, LocalDateTime start) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = compare(id, start, node);
+        if (cmp < 0) {
+            node.left = remove(node.left, id, start);
+        } else if (cmp > 0) {
+            node.right = remove(node.right, id, start);
+        } else {
+            size--;
+            if (node.left == null) {
+                return node.right;
+            }
+            if (node.right == null) {
+                return node.left;
+            }
+            Node min = node.right;
+            while (min.left != null) {
+                min = min.left;
+            }
+            min.right = removeMin(node.right);
+            min.left = node.left;
+            return balance(min);
+        }
+        return balance(node);
+    }
+
+    private Node removeMin(Node node) {
+        if (node.left == null) {
+            return node.right;
+        }
+        node.left = removeMin(node.left);
+        return balance(node);
+    }
+
+    private int compare(Long id, LocalDateTime start, Node node) {
+        int cmp = start.compareTo(node.start);
+        return cmp != 0 ? cmp : id.compareTo(node.id);
+    }
+
+    private Node balance(Node node) {
+        update(node);
+        int factor = height(node.left) - height(node.right);
+        if (factor > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        if (factor < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    private Node rotateRight(Node node) {
+        Node pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private Node rotateLeft(Node node) {
+        Node pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private void update(Node node) {
+        node.height = 1 + Math.max(height(node.left), height(node.right));
+        node.maxEnd = node.end;
+        if (node.left != null && node.left.maxEnd.isAfter(node.maxEnd)) {
+            node.maxEnd = node.left.maxEnd;
+        }
+        if (node.right != null && node.right.maxEnd.isAfter(node.maxEnd)) {
+            node.maxEnd = node.right.maxEnd;
+        }
+    }
+
+    private int height(Node node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private static class Node {
+        private final Long id;
+        private final LocalDateTime start;
+        private LocalDateTime end;
+        private LocalDateTime maxEnd;
+        private int height = 1;
+        private Node left;
+        private Node right;
+
+        Node(Long id, LocalDateTime start, LocalDateTime end) {
+            this.id = id;
+            this.start = start;
+            this.end = end;
+            this.maxEnd = end;
+        }
+    }
+}
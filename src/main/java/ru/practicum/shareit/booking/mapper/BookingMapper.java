@@ -4,8 +4,11 @@ import lombok.experimental.UtilityClass;
 import ru.practicum.shareit.booking.dto.BookingDtoIn;
 import ru.practicum.shareit.booking.dto.BookingDtoOut;
 import ru.practicum.shareit.booking.dto.BookingDtoOutToItem;
+import ru.practicum.shareit.booking.dto.BookingView;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.dto.ItemShortDto;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.dto.UserShortDto;
 
 @UtilityClass
 public class BookingMapper {
@@ -15,8 +18,19 @@ public class BookingMapper {
                 .start(booking.getStart())
                 .end(booking.getEnd())
                 .status(booking.getStatus())
-                .booker(booking.getBooker())
-                .item(booking.getItem())
+                .booker(new UserShortDto(booking.getBooker().getId(), booking.getBooker().getName()))
+                .item(new ItemShortDto(booking.getItem().getId(), booking.getItem().getName()))
+                .build();
+    }
+
+    public static BookingDtoOut toDtoOut(BookingView bookingView) {
+        return BookingDtoOut.builder()
+                .id(bookingView.getId())
+                .start(bookingView.getStart())
+                .end(bookingView.getEnd())
+                .status(bookingView.getStatus())
+                .booker(new UserShortDto(bookingView.getBookerId(), bookingView.getBookerName()))
+                .item(new ItemShortDto(bookingView.getItemId(), bookingView.getItemName()))
                 .build();
     }
 
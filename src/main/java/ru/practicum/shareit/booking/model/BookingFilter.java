@@ -0,0 +1,41 @@
+package ru.practicum.shareit.booking.model;
+
+import lombok.Builder;
+import lombok.Getter;
+import ru.practicum.shareit.common.SeekCursor;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.Set;
+
+@Getter
+@Builder
+public class BookingFilter {
+    @Builder.Default
+    private Set<BookingStatus> statuses = EnumSet.allOf(BookingStatus.class);
+    @Builder.Default
+    private LocalDateTime startAfter = SeekCursor.MIN_MOMENT;
+    @Builder.Default
+    private LocalDateTime startBefore = SeekCursor.MAX_MOMENT;
+    @Builder.Default
+    private LocalDateTime endAfter = SeekCursor.MIN_MOMENT;
+    @Builder.Default
+    private LocalDateTime endBefore = SeekCursor.MAX_MOMENT;
+
+    public static BookingFilter of(State state, LocalDateTime now) {
+        switch (state) {
+            case CURRENT:
+                return BookingFilter.builder().startBefore(now).endAfter(now).build();
+            case PAST:
+                return BookingFilter.builder().endBefore(now).build();
+            case FUTURE:
+                return BookingFilter.builder().startAfter(now).build();
+            case WAITING:
+                return BookingFilter.builder().statuses(EnumSet.of(BookingStatus.WAITING)).build();
+            case REJECTED:
+                return BookingFilter.builder().statuses(EnumSet.of(BookingStatus.REJECTED)).build();
+            default:
+                return BookingFilter.builder().build();
+        }
+    }
+}
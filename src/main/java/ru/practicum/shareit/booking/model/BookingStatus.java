@@ -1,8 +1,13 @@
 package ru.practicum.shareit.booking.model;
 
+import java.util.List;
+
 public enum BookingStatus {
     WAITING,
     APPROVED,
     REJECTED,
-    CANCELED
+    CANCELED,
+    EXPIRED;
+
+    public static final List<BookingStatus> ACTIVE = List.of(WAITING, APPROVED);
 }
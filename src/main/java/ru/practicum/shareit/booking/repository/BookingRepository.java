@@ -2,49 +2,93 @@ package ru.practicum.shareit.booking.repository;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.booking.dto.BookingView;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingFilter;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.common.SeekCursor;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface BookingRepository extends JpaRepository<Booking, Long> {
-    List<Booking> findAllByBooker(User booker, Pageable pageable);
-
-    List<Booking> findAllByBookerAndStartBeforeAndEndAfter(User booker, LocalDateTime start, LocalDateTime end, Pageable pageable);
-
-    List<Booking> findAllByBookerAndEndBefore(User booker, LocalDateTime end, Pageable pageable);
-
-    List<Booking> findAllByBookerAndStartAfter(User booker, LocalDateTime start, Pageable pageable);
-
-    List<Booking> findAllByBookerAndStatus(User booker, BookingStatus status, Pageable pageable);
-
-    List<Booking> findAllByItem_Owner(User owner, Pageable pageable);
-
-    List<Booking> findAllByItem_OwnerAndStartBeforeAndEndAfter(User owner, LocalDateTime start, LocalDateTime end,
-                                                               Pageable pageable);
-
-    List<Booking> findAllByItem_OwnerAndEndBefore(User owner, LocalDateTime end, Pageable pageable);
-
-    List<Booking> findAllByItem_OwnerAndStartAfter(User owner, LocalDateTime start, Pageable pageable);
-
-    List<Booking> findAllByItem_OwnerAndStatus(User owner, BookingStatus status, Pageable pageable);
-
-    Booking findFirstBookingByItemAndStartBeforeAndStatus(Item item, LocalDateTime start, BookingStatus status,
-                                                          Sort sort);
-
-    Booking findFirstBookingByItemAndStartAfterAndStatus(Item item, LocalDateTime start, BookingStatus status,
-                                                         Sort sort);
-
-    List<Booking> findAllByItemInAndStartBeforeAndStatus(List<Item> items, LocalDateTime start, BookingStatus status,
-                                                         Sort sort);
-
-    List<Booking> findAllByItemInAndStartAfterAndStatus(List<Item> items, LocalDateTime start, BookingStatus status,
-                                                        Sort sort);
+    String VIEW_SELECT = "SELECT new ru.practicum.shareit.booking.dto.BookingView(b.id, b.start, b.end, b.status, "
+            + "bk.id, bk.name, i.id, i.name) FROM Booking b JOIN b.booker bk JOIN b.item i ";
+    String FILTER = "b.status IN :#{#filter.statuses} "
+            + "AND b.start > :#{#filter.startAfter} AND b.start < :#{#filter.startBefore} "
+            + "AND b.end > :#{#filter.endAfter} AND b.end < :#{#filter.endBefore} ";
+    String SEEK = "(b.start < :#{#cursor.moment} OR (b.start = :#{#cursor.moment} AND b.id < :#{#cursor.id})) ";
+
+    @Override
+    @EntityGraph("Booking.itemAndBooker")
+    Optional<Booking> findById(Long id);
+
+    @Query("SELECT b.item.id FROM Booking b WHERE b.id = :id")
+    Optional<Long> findItemIdById(@Param("id") Long id);
+
+    @Query("SELECT DISTINCT b.item.id FROM Booking b WHERE b.booker.id = :bookerId")
+    List<Long> findItemIdsByBookerId(@Param("bookerId") Long bookerId);
+
+    List<Booking> findAllByItem_IdAndStatusIn(Long itemId, Collection<BookingStatus> statuses);
+
+    List<Booking> findAllByItem_IdAndStatusInAndStartBeforeAndEndAfterOrderByStartAsc(Long itemId,
+                                                                                   Collection<BookingStatus> statuses,
+                                                                                   LocalDateTime end,
+                                                                                   LocalDateTime start);
+
+    boolean existsByItem_IdAndIdNotAndStatusInAndStartBeforeAndEndAfter(Long itemId, Long id,
+                                                                        Collection<BookingStatus> statuses,
+                                                                        LocalDateTime end, LocalDateTime start);
+
+    List<Booking> findAllByStatusAndStartBefore(BookingStatus status, LocalDateTime start, Pageable pageable);
+
+    @Query("SELECT b.id FROM Booking b WHERE b.id IN :ids AND b.status = :status")
+    List<Long> findIdsByIdInAndStatus(@Param("ids") Collection<Long> ids, @Param("status") BookingStatus status);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Booking b SET b.status = :to, b.version = b.version + 1 WHERE b.id IN :ids AND b.status = :from")
+    int updateStatusByIdIn(@Param("ids") Collection<Long> ids, @Param("from") BookingStatus from,
+                           @Param("to") BookingStatus to);
+
+    @Query(value = "SELECT * FROM (SELECT b.*, ROW_NUMBER() OVER (PARTITION BY b.item_id "
+            + "ORDER BY b.start_date DESC, b.id DESC) AS rn FROM bookings b "
+            + "WHERE b.item_id IN (:itemIds) AND b.start_date < :now AND b.status = 'APPROVED') ranked "
+            + "WHERE ranked.rn = 1", nativeQuery = true)
+    List<Booking> findLastApprovedByItemIdIn(@Param("itemIds") List<Long> itemIds, @Param("now") LocalDateTime now);
+
+    @Query(value = "SELECT * FROM (SELECT b.*, ROW_NUMBER() OVER (PARTITION BY b.item_id "
+            + "ORDER BY b.start_date ASC, b.id ASC) AS rn FROM bookings b "
+            + "WHERE b.item_id IN (:itemIds) AND b.start_date > :now AND b.status = 'APPROVED') ranked "
+            + "WHERE ranked.rn = 1", nativeQuery = true)
+    List<Booking> findNextApprovedByItemIdIn(@Param("itemIds") List<Long> itemIds, @Param("now") LocalDateTime now);
+
+    @Query(VIEW_SELECT + "WHERE b.booker = :booker AND " + FILTER + "ORDER BY b.start DESC, b.id DESC")
+    List<BookingView> findViewsByBooker(@Param("booker") User booker, @Param("filter") BookingFilter filter,
+                                        Pageable pageable);
+
+    @Query(VIEW_SELECT + "WHERE i.owner = :owner AND " + FILTER + "ORDER BY b.start DESC, b.id DESC")
+    List<BookingView> findViewsByOwner(@Param("owner") User owner, @Param("filter") BookingFilter filter,
+                                       Pageable pageable);
+
+    @Query(VIEW_SELECT + "WHERE b.booker = :booker AND " + FILTER + "AND " + SEEK
+            + "ORDER BY b.start DESC, b.id DESC")
+    List<BookingView> findViewsByBookerAfterCursor(@Param("booker") User booker,
+                                                   @Param("filter") BookingFilter filter,
+                                                   @Param("cursor") SeekCursor cursor, Pageable pageable);
+
+    @Query(VIEW_SELECT + "WHERE i.owner = :owner AND " + FILTER + "AND " + SEEK
+            + "ORDER BY b.start DESC, b.id DESC")
+    List<BookingView> findViewsByOwnerAfterCursor(@Param("owner") User owner, @Param("filter") BookingFilter filter,
+                                                  @Param("cursor") SeekCursor cursor, Pageable pageable);
 
     Optional<Booking> findFirstBookingByItemAndBookerAndStatusAndEndBefore(Item item, User booker, BookingStatus status,
                                                                            LocalDateTime end, Sort sort);
@@ -2,17 +2,23 @@ package ru.practicum.shareit.booking.service;
 
 import ru.practicum.shareit.booking.dto.BookingDtoIn;
 import ru.practicum.shareit.booking.dto.BookingDtoOut;
+import ru.practicum.shareit.common.CursorPage;
+import ru.practicum.shareit.user.model.User;
 
 import java.util.List;
 
 public interface BookingService {
-    BookingDtoOut add(Long userId, BookingDtoIn bookingDtoIn);
+    BookingDtoOut add(User user, BookingDtoIn bookingDtoIn);
 
-    BookingDtoOut update(Long userId, Long id, boolean approved);
+    BookingDtoOut update(User user, Long id, boolean approved);
 
-    BookingDtoOut findById(Long userId, Long id);
+    BookingDtoOut findById(User user, Long id);
 
-    List<BookingDtoOut> findAllByUserId(Long userId, String state, int from, int size);
+    List<BookingDtoOut> findAllByUserId(User user, String state, int from, int size);
 
-    List<BookingDtoOut> findAllByOwnerId(Long ownerId, String state, int from, int size);
+    List<BookingDtoOut> findAllByOwnerId(User owner, String state, int from, int size);
+
+    CursorPage<BookingDtoOut> findAllByUserId(User user, String state, String cursor, int size);
+
+    CursorPage<BookingDtoOut> findAllByOwnerId(User owner, String state, String cursor, int size);
 }
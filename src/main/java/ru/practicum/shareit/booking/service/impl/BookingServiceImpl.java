@@ -1,31 +1,41 @@
 package ru.practicum.shareit.booking.service.impl;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
+import org.springframework.retry.annotation.Backoff;
+import org.springframework.retry.annotation.Retryable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.dto.BookingDtoIn;
 import ru.practicum.shareit.booking.dto.BookingDtoOut;
+import ru.practicum.shareit.booking.dto.BookingView;
+import ru.practicum.shareit.booking.event.BookingChangedEvent;
 import ru.practicum.shareit.booking.exception.BookingNotFoundException;
 import ru.practicum.shareit.booking.exception.BookingValidationException;
+import ru.practicum.shareit.booking.index.BookingIntervalIndex;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingFilter;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.model.State;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.common.CursorPage;
+import ru.practicum.shareit.common.SeekCursor;
+import ru.practicum.shareit.common.StripedLock;
+import ru.practicum.shareit.item.cache.ItemCache;
 import ru.practicum.shareit.item.exception.ItemNotFoundException;
 import ru.practicum.shareit.item.exception.ItemValidationException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
-import ru.practicum.shareit.user.exception.UserNotFoundException;
+import ru.practicum.shareit.outbox.model.DomainEventType;
+import ru.practicum.shareit.outbox.service.OutboxWriter;
 import ru.practicum.shareit.user.model.User;
-import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 import java.util.stream.Collectors;
@@ -34,29 +44,34 @@ import java.util.stream.Collectors;
 @Service
 public class BookingServiceImpl implements BookingService {
     private final BookingRepository bookingRepository;
-    private final UserRepository userRepository;
     private final ItemRepository itemRepository;
-    private final Sort byStartDESC = Sort.by(Sort.Direction.DESC, "start");
-
-    public BookingServiceImpl(BookingRepository bookingRepository, UserRepository userRepository,
-                              ItemRepository itemRepository) {
+    private final ItemCache itemCache;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final StripedLock itemLocks;
+    private final ApplicationEventPublisher eventPublisher;
+    private final OutboxWriter outboxWriter;
+
+    public BookingServiceImpl(BookingRepository bookingRepository, ItemRepository itemRepository, ItemCache itemCache,
+                              BookingIntervalIndex bookingIntervalIndex, StripedLock itemLocks,
+                              ApplicationEventPublisher eventPublisher, OutboxWriter outboxWriter) {
         this.bookingRepository = bookingRepository;
-        this.userRepository = userRepository;
         this.itemRepository = itemRepository;
+        this.itemCache = itemCache;
+        this.bookingIntervalIndex = bookingIntervalIndex;
+        this.itemLocks = itemLocks;
+        this.eventPublisher = eventPublisher;
+        this.outboxWriter = outboxWriter;
     }
 
     @Transactional
     @Override
-    public BookingDtoOut add(Long userId, BookingDtoIn bookingDtoIn) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new UserNotFoundException(String.format("Пользователь с id %d не найден", userId)));
-
+    public BookingDtoOut add(User user, BookingDtoIn bookingDtoIn) {
         Item item = itemRepository.findById(bookingDtoIn.getItemId())
                 .orElseThrow(() -> new ItemNotFoundException(String.format("Вещь с id %d не найдена", bookingDtoIn.getItemId())));
         if (!item.getAvailable()) {
             throw new ItemValidationException(String.format("Вещь с id %d не доступна для бронирования", item.getId()));
         }
-        if (item.getOwner().getId().equals(userId)) {
+        if (item.getOwner().getId().equals(user.getId())) {
             throw new ItemNotFoundException("Владелец вещи не может оформлять её бронирование");
         }
         if (bookingDtoIn.getStart().isAfter(bookingDtoIn.getEnd())) {
@@ -65,23 +80,36 @@ public class BookingServiceImpl implements BookingService {
         if (bookingDtoIn.getStart().equals(bookingDtoIn.getEnd())) {
             throw new BookingValidationException("Дата начала и окончания бронирования совпадают");
         }
+        itemLocks.lockUntilTransactionCompletes(item.getId());
         Booking booking = BookingMapper.toBooking(bookingDtoIn);
         booking.setBooker(user);
         booking.setItem(item);
         booking.setStatus(BookingStatus.WAITING);
-        return BookingMapper.toDtoOut(bookingRepository.save(booking));
+        Booking savedBooking = bookingRepository.save(booking);
+        if (!bookingIntervalIndex.tryReserve(savedBooking)) {
+            throw new BookingValidationException(String.format("Вещь с id %d уже забронирована на это время", item.getId()));
+        }
+        itemCache.evictBookings(item.getId());
+        BookingDtoOut bookingDtoOut = BookingMapper.toDtoOut(savedBooking);
+        outboxWriter.append(DomainEventType.BOOKING_CREATED, savedBooking.getId(), bookingDtoOut);
+        eventPublisher.publishEvent(new BookingChangedEvent(item.getOwner().getId(), user.getId(), bookingDtoOut));
+        return bookingDtoOut;
     }
 
+    @Retryable(value = OptimisticLockingFailureException.class,
+            maxAttemptsExpression = "${shareit.booking.retry.max-attempts:3}",
+            backoff = @Backoff(delayExpression = "${shareit.booking.retry.delay:50}",
+                    multiplierExpression = "${shareit.booking.retry.multiplier:2}"))
     @Transactional
     @Override
-    public BookingDtoOut update(Long userId, Long id, boolean approved) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new UserNotFoundException(String.format("Пользователь с id %d не найден", userId)));
-
+    public BookingDtoOut update(User user, Long id, boolean approved) {
+        Long itemId = bookingRepository.findItemIdById(id)
+                .orElseThrow(() -> new BookingNotFoundException(String.format("Бронирование с id %d не найдено", id)));
+        itemLocks.lockUntilTransactionCompletes(itemId);
         Booking booking = bookingRepository.findById(id)
                 .orElseThrow(() -> new BookingNotFoundException(String.format("Бронирование с id %d не найдено", id)));
 
-        if (!Objects.equals(booking.getItem().getOwner().getId(), userId)) {
+        if (!Objects.equals(booking.getItem().getOwner().getId(), user.getId())) {
             throw new BookingNotFoundException("Подтверждать или отклонять бронирование может только владелец вещи");
         }
 
@@ -95,19 +123,27 @@ public class BookingServiceImpl implements BookingService {
             booking.setStatus(BookingStatus.REJECTED);
         }
 
-        return BookingMapper.toDtoOut(bookingRepository.save(booking));
+        Booking savedBooking = bookingRepository.save(booking);
+        if (savedBooking.getStatus() == BookingStatus.REJECTED) {
+            bookingIntervalIndex.release(savedBooking);
+        }
+        itemCache.evictBookings(booking.getItem().getId());
+        BookingDtoOut bookingDtoOut = BookingMapper.toDtoOut(savedBooking);
+        outboxWriter.append(approved ? DomainEventType.BOOKING_APPROVED : DomainEventType.BOOKING_REJECTED,
+                savedBooking.getId(), bookingDtoOut);
+        eventPublisher.publishEvent(new BookingChangedEvent(user.getId(), savedBooking.getBooker().getId(),
+                bookingDtoOut));
+        return bookingDtoOut;
     }
 
     @Transactional(readOnly = true)
     @Override
-    public BookingDtoOut findById(Long userId, Long id) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new UserNotFoundException(String.format("Пользователь с id %d не найден", userId)));
-
+    public BookingDtoOut findById(User user, Long id) {
         Booking booking = bookingRepository.findById(id)
                 .orElseThrow(() -> new BookingNotFoundException(String.format("Бронирование с id %d не найдено", id)));
 
-        if (!booking.getBooker().getId().equals(userId) && !booking.getItem().getOwner().getId().equals(userId)) {
+        if (!booking.getBooker().getId().equals(user.getId())
+                && !booking.getItem().getOwner().getId().equals(user.getId())) {
             throw new BookingNotFoundException("Просмотреть информацию о бронировании может только автор или владелец вещи");
         }
 
@@ -116,48 +152,25 @@ public class BookingServiceImpl implements BookingService {
 
     @Transactional(readOnly = true)
     @Override
-    public List<BookingDtoOut> findAllByUserId(Long userId, String stateIn, int from, int size) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new UserNotFoundException(String.format("Пользователь с id %d не найден", userId)));
+    public List<BookingDtoOut> findAllByUserId(User user, String stateIn, int from, int size) {
+        BookingFilter filter = BookingFilter.of(toState(stateIn), LocalDateTime.now());
+        Pageable pageable = toPageable(from, size);
 
-        State state;
-        try {
-            state = State.valueOf(stateIn);
-        } catch (IllegalArgumentException e) {
-            throw new BookingValidationException(String.format("Unknown state: %s", stateIn));
-        }
+        List<BookingView> result = bookingRepository.findViewsByBooker(user, filter, pageable);
 
-        if (from < 0) {
-            throw new BookingValidationException("Минимальное значение записи, с которой можно получить данные равно 0");
-        }
-        if (size <= 0) {
-            throw new BookingValidationException("Количество записей на странице должно быть больше 0");
-        }
+        return result
+                .stream()
+                .map(BookingMapper::toDtoOut)
+                .collect(Collectors.toList());
+    }
 
-        Pageable pageable = PageRequest.of(from > 0 ? from / size : 0, size, byStartDESC);
-
-        List<Booking> result = new ArrayList<>();
-        switch (state) {
-            case ALL:
-                result = bookingRepository.findAllByBooker(user, pageable);
-                break;
-            case CURRENT:
-                result = bookingRepository.findAllByBookerAndStartBeforeAndEndAfter(user, LocalDateTime.now(),
-                        LocalDateTime.now(), pageable);
-                break;
-            case PAST:
-                result = bookingRepository.findAllByBookerAndEndBefore(user, LocalDateTime.now(), pageable);
-                break;
-            case FUTURE:
-                result = bookingRepository.findAllByBookerAndStartAfter(user, LocalDateTime.now(), pageable);
-                break;
-            case WAITING:
-                result = bookingRepository.findAllByBookerAndStatus(user, BookingStatus.WAITING, pageable);
-                break;
-            case REJECTED:
-                result = bookingRepository.findAllByBookerAndStatus(user, BookingStatus.REJECTED, pageable);
-                break;
-        }
+    @Transactional(readOnly = true)
+    @Override
+    public List<BookingDtoOut> findAllByOwnerId(User owner, String stateIn, int from, int size) {
+        BookingFilter filter = BookingFilter.of(toState(stateIn), LocalDateTime.now());
+        Pageable pageable = toPageable(from, size);
+
+        List<BookingView> result = bookingRepository.findViewsByOwner(owner, filter, pageable);
 
         return result
                 .stream()
@@ -167,53 +180,61 @@ public class BookingServiceImpl implements BookingService {
 
     @Transactional(readOnly = true)
     @Override
-    public List<BookingDtoOut> findAllByOwnerId(Long ownerId, String stateIn, int from, int size) {
-        User owner = userRepository.findById(ownerId)
-                .orElseThrow(() -> new UserNotFoundException(String.format("Пользователь с id %d не найден", ownerId)));
+    public CursorPage<BookingDtoOut> findAllByUserId(User user, String stateIn, String cursor, int size) {
+        BookingFilter filter = BookingFilter.of(toState(stateIn), LocalDateTime.now());
+        checkSize(size);
+
+        List<BookingView> result = bookingRepository.findViewsByBookerAfterCursor(user, filter,
+                SeekCursor.decode(cursor), PageRequest.of(0, size + 1));
+
+        return toCursorPage(result, size);
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public CursorPage<BookingDtoOut> findAllByOwnerId(User owner, String stateIn, String cursor, int size) {
+        BookingFilter filter = BookingFilter.of(toState(stateIn), LocalDateTime.now());
+        checkSize(size);
 
-        State state;
+        List<BookingView> result = bookingRepository.findViewsByOwnerAfterCursor(owner, filter,
+                SeekCursor.decode(cursor), PageRequest.of(0, size + 1));
+
+        return toCursorPage(result, size);
+    }
+
+    private State toState(String stateIn) {
         try {
-            state = State.valueOf(stateIn);
+            return State.valueOf(stateIn);
         } catch (IllegalArgumentException e) {
             throw new BookingValidationException(String.format("Unknown state: %s", stateIn));
         }
+    }
 
+    private Pageable toPageable(int from, int size) {
         if (from < 0) {
             throw new BookingValidationException("Минимальное значение записи, с которой можно получить данные равно 0");
         }
+        checkSize(size);
+        return PageRequest.of(from > 0 ? from / size : 0, size);
+    }
+
+    private void checkSize(int size) {
         if (size <= 0) {
             throw new BookingValidationException("Количество записей на странице должно быть больше 0");
         }
+    }
 
-        Pageable pageable = PageRequest.of(from > 0 ? from / size : 0, size, byStartDESC);
-
-        List<Booking> result = new ArrayList<>();
-        switch (state) {
-            case ALL:
-                result = bookingRepository.findAllByItem_Owner(owner, pageable);
-                break;
-            case CURRENT:
-                result = bookingRepository.findAllByItem_OwnerAndStartBeforeAndEndAfter(owner, LocalDateTime.now(),
-                        LocalDateTime.now(), pageable);
-                break;
-            case PAST:
-                result = bookingRepository.findAllByItem_OwnerAndEndBefore(owner, LocalDateTime.now(), pageable);
-                break;
-            case FUTURE:
-                result = bookingRepository.findAllByItem_OwnerAndStartAfter(owner, LocalDateTime.now(), pageable);
-                break;
-            case WAITING:
-                result = bookingRepository.findAllByItem_OwnerAndStatus(owner, BookingStatus.WAITING, pageable);
-                break;
-            case REJECTED:
-                result = bookingRepository.findAllByItem_OwnerAndStatus(owner, BookingStatus.REJECTED, pageable);
-                break;
+    private CursorPage<BookingDtoOut> toCursorPage(List<BookingView> bookings, int size) {
+        String nextCursor = null;
+        if (bookings.size() > size) {
+            bookings = bookings.subList(0, size);
+            BookingView last = bookings.get(size - 1);
+            nextCursor = new SeekCursor(last.getStart(), last.getId()).encode();
         }
-
-        return result
+        List<BookingDtoOut> content = bookings
                 .stream()
                 .map(BookingMapper::toDtoOut)
                 .collect(Collectors.toList());
+        return new CursorPage<>(content, nextCursor);
     }
-
 }
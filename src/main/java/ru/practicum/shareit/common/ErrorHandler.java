@@ -1,13 +1,17 @@
 package ru.practicum.shareit.common;
 
 import org.springframework.context.support.DefaultMessageSourceResolvable;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.MissingRequestHeaderException;
+import org.springframework.web.bind.MissingServletRequestParameterException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 import ru.practicum.shareit.booking.exception.BookingNotFoundException;
 import ru.practicum.shareit.booking.exception.BookingValidationException;
 import ru.practicum.shareit.item.exception.ItemNotFoundException;
@@ -18,11 +22,14 @@ import ru.practicum.shareit.user.exception.UserAlreadyExistException;
 import ru.practicum.shareit.user.exception.UserNotFoundException;
 
 import javax.validation.ConstraintViolationException;
+import java.sql.SQLException;
 import java.util.List;
 import java.util.stream.Collectors;
 
 @RestControllerAdvice
 public class ErrorHandler {
+    private static final String BOOKING_OVERLAP_CONSTRAINT = "bookings_item_no_overlap";
+    private static final String EXCLUSION_VIOLATION = "23P01";
 
     @ExceptionHandler
     @ResponseStatus(HttpStatus.BAD_REQUEST)
@@ -95,12 +102,33 @@ public class ErrorHandler {
         return new ErrorResponse(e.getMessage());
     }
 
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ErrorResponse handleMissingServletRequestParameterException(final MissingServletRequestParameterException e) {
+        return new ErrorResponse(e.getMessage());
+    }
+
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ErrorResponse handleMethodArgumentTypeMismatchException(final MethodArgumentTypeMismatchException e) {
+        return new ErrorResponse(String.format("Некорректное значение параметра %s: %s", e.getName(), e.getValue()));
+    }
+
     @ExceptionHandler
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public ErrorResponse handleOptimisticLockingFailureException(final OptimisticLockingFailureException e) {
         return new ErrorResponse(e.getMessage());
     }
 
+    @ExceptionHandler
+    public ResponseEntity<ErrorResponse> handleDataIntegrityViolationException(final DataIntegrityViolationException e) {
+        if (isBookingOverlap(e)) {
+            return new ResponseEntity<>(handleBookingValidationException(
+                    new BookingValidationException("Вещь уже забронирована на это время")), HttpStatus.BAD_REQUEST);
+        }
+        return new ResponseEntity<>(handleThrowable(e), HttpStatus.INTERNAL_SERVER_ERROR);
+    }
+
     @ExceptionHandler
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public ErrorResponse handleIllegalArgumentException(final IllegalArgumentException e) {
@@ -114,4 +142,18 @@ public class ErrorHandler {
         return new ErrorResponse("Произошла непредвиденная ошибка.");
     }
 
+    private boolean isBookingOverlap(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof org.hibernate.exception.ConstraintViolationException
+                    && BOOKING_OVERLAP_CONSTRAINT.equals(
+                    ((org.hibernate.exception.ConstraintViolationException) cause).getConstraintName())) {
+                return true;
+            }
+            if (cause instanceof SQLException && EXCLUSION_VIOLATION.equals(((SQLException) cause).getSQLState())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
 }
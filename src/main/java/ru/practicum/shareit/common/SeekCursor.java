@@ -0,0 +1,48 @@
+package ru.practicum.shareit.common;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+@Getter
+@EqualsAndHashCode
+public class SeekCursor {
+    public static final LocalDateTime MIN_MOMENT = LocalDateTime.of(1970, 1, 1, 0, 0);
+    public static final LocalDateTime MAX_MOMENT = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+    private static final String SEPARATOR = "|";
+
+    private final LocalDateTime moment;
+    private final Long id;
+
+    public SeekCursor(LocalDateTime moment, Long id) {
+        this.moment = moment;
+        this.id = id;
+    }
+
+    public static SeekCursor first() {
+        return new SeekCursor(MAX_MOMENT, Long.MAX_VALUE);
+    }
+
+    public static SeekCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return first();
+        }
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = value.indexOf(SEPARATOR);
+            return new SeekCursor(LocalDateTime.parse(value.substring(0, separator)),
+                    Long.parseLong(value.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new IllegalArgumentException(String.format("Некорректный курсор: %s", cursor));
+        }
+    }
+
+    public String encode() {
+        String value = moment + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,53 @@
+package ru.practicum.shareit.common;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.MissingRequestHeaderException;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+import ru.practicum.shareit.user.cache.UserCache;
+import ru.practicum.shareit.user.exception.UserNotFoundException;
+import ru.practicum.shareit.user.model.User;
+
+@Component
+public class SharerUserArgumentResolver implements HandlerMethodArgumentResolver {
+    public static final String HEADER = "X-Sharer-User-Id";
+    private static final String ATTRIBUTE = SharerUserArgumentResolver.class.getName() + ".USER";
+
+    private final UserCache userCache;
+
+    public SharerUserArgumentResolver(UserCache userCache) {
+        this.userCache = userCache;
+    }
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return parameter.hasParameterAnnotation(SharerUser.class) && User.class.equals(parameter.getParameterType());
+    }
+
+    @Override
+    public Object resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+                                  NativeWebRequest webRequest, WebDataBinderFactory binderFactory) throws Exception {
+        User user = (User) webRequest.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (user != null) {
+            return user;
+        }
+        String header = webRequest.getHeader(HEADER);
+        if (header == null) {
+            throw new MissingRequestHeaderException(HEADER, parameter);
+        }
+        long userId;
+        try {
+            userId = Long.parseLong(header.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(String.format("Некорректный id пользователя: %s", header));
+        }
+        user = userCache.findById(userId)
+                .orElseThrow(() -> new UserNotFoundException(String.format("Пользователь с id %d не найден", userId)));
+        webRequest.setAttribute(ATTRIBUTE, user, RequestAttributes.SCOPE_REQUEST);
+        return user;
+    }
+}
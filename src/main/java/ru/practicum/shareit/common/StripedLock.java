@@ -0,0 +1,50 @@
+package ru.practicum.shareit.common;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Component
+public class StripedLock {
+    private final Lock[] stripes;
+    private final int mask;
+
+    public StripedLock(@Value("${shareit.lock.stripes:64}") int stripes) {
+        if (stripes <= 0) {
+            throw new IllegalArgumentException("Количество блокировок должно быть больше 0");
+        }
+        int size = Integer.highestOneBit(stripes);
+        if (size < stripes) {
+            size <<= 1;
+        }
+        this.stripes = new Lock[size];
+        for (int i = 0; i < size; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+        this.mask = size - 1;
+    }
+
+    public Lock get(Object key) {
+        int hash = key.hashCode();
+        hash ^= hash >>> 16;
+        return stripes[hash & mask];
+    }
+
+    public void lockUntilTransactionCompletes(Object key) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Блокировка до завершения транзакции требует активной транзакции");
+        }
+        Lock lock = get(key);
+        lock.lock();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                lock.unlock();
+            }
+        });
+    }
+}
@@ -0,0 +1,21 @@
+package ru.practicum.shareit.common;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+    private final SharerUserArgumentResolver sharerUserArgumentResolver;
+
+    public WebConfig(SharerUserArgumentResolver sharerUserArgumentResolver) {
+        this.sharerUserArgumentResolver = sharerUserArgumentResolver;
+    }
+
+    @Override
+    public void addArgumentResolvers(List<HandlerMethodArgumentResolver> resolvers) {
+        resolvers.add(sharerUserArgumentResolver);
+    }
+}
@@ -0,0 +1,220 @@
+package ru.practicum.shareit.item.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.dto.BookingDtoOutToItem;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.mapper.CommentMapper;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Component
+public class ItemCache {
+    private final ItemRepository itemRepository;
+    private final BookingRepository bookingRepository;
+    private final CommentRepository commentRepository;
+    private final Cache<Long, CachedItem> items;
+    private final Cache<Long, OwnerBookings> bookings;
+    private final Sort byCreatedASC = Sort.by(Sort.Direction.ASC, "created");
+
+    public ItemCache(ItemRepository itemRepository, BookingRepository bookingRepository,
+                     CommentRepository commentRepository, MeterRegistry meterRegistry,
+                     @Value("${shareit.cache.items.max-size:10000}") long maxSize,
+                     @Value("${shareit.cache.items.ttl:10m}") Duration ttl) {
+        this.itemRepository = itemRepository;
+        this.bookingRepository = bookingRepository;
+        this.commentRepository = commentRepository;
+        this.items = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.bookings = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new UntilNextBooking(ttl))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, items, "items");
+        CaffeineCacheMetrics.monitor(meterRegistry, bookings, "item-bookings");
+    }
+
+    public Optional<ItemDto> findById(Long id, Long viewerId) {
+        CachedItem cachedItem = items.getIfPresent(id);
+        if (cachedItem == null) {
+            Optional<Item> loaded = itemRepository.findById(id);
+            if (loaded.isEmpty()) {
+                return Optional.empty();
+            }
+            cachedItem = load(loaded.get());
+            items.put(id, cachedItem);
+        }
+
+        ItemDto itemDto = copy(cachedItem.getItem());
+        if (Objects.equals(cachedItem.getOwnerId(), viewerId)) {
+            OwnerBookings ownerBookings = bookings.get(id, this::loadBookings);
+            itemDto.setLastBooking(copy(ownerBookings.getLastBooking()));
+            itemDto.setNextBooking(copy(ownerBookings.getNextBooking()));
+        }
+        return Optional.of(itemDto);
+    }
+
+    public void evict(Long id) {
+        invalidate(List.of(id), true);
+    }
+
+    public void evictBookings(Long id) {
+        invalidate(List.of(id), false);
+    }
+
+    public void evictCommentedBy(Long authorId) {
+        invalidate(commentRepository.findItemIdsByAuthorId(authorId), true);
+    }
+
+    public void evictUser(Long userId) {
+        Set<Long> ids = new HashSet<>(itemRepository.findIdsByOwnerId(userId));
+        ids.addAll(commentRepository.findItemIdsByAuthorId(userId));
+        invalidate(ids, true);
+        invalidate(bookingRepository.findItemIdsByBookerId(userId), false);
+    }
+
+    private void invalidate(Collection<Long> ids, boolean withItem) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        if (withItem) {
+            items.invalidateAll(ids);
+        }
+        bookings.invalidateAll(ids);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (withItem) {
+                        items.invalidateAll(ids);
+                    }
+                    bookings.invalidateAll(ids);
+                }
+            });
+        }
+    }
+
+    private CachedItem load(Item item) {
+        ItemDto itemDto = ItemMapper.toDto(item);
+        itemDto.setComments(commentRepository.findAllByItem(item, byCreatedASC)
+                .stream()
+                .map(CommentMapper::toDto)
+                .collect(Collectors.toList()));
+        return new CachedItem(item.getOwner().getId(), itemDto);
+    }
+
+    private OwnerBookings loadBookings(Long id) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Booking> lastBookings = bookingRepository.findLastApprovedByItemIdIn(List.of(id), now);
+        List<Booking> nextBookings = bookingRepository.findNextApprovedByItemIdIn(List.of(id), now);
+        return new OwnerBookings(
+                lastBookings.isEmpty() ? null : BookingMapper.toDtoOutToItem(lastBookings.get(0)),
+                nextBookings.isEmpty() ? null : BookingMapper.toDtoOutToItem(nextBookings.get(0)));
+    }
+
+    private ItemDto copy(ItemDto itemDto) {
+        return ItemDto.builder()
+                .id(itemDto.getId())
+                .name(itemDto.getName())
+                .description(itemDto.getDescription())
+                .available(itemDto.getAvailable())
+                .requestId(itemDto.getRequestId())
+                .comments(itemDto.getComments()
+                        .stream()
+                        .map(comment -> CommentDto.builder()
+                                .id(comment.getId())
+                                .text(comment.getText())
+                                .authorName(comment.getAuthorName())
+                                .created(comment.getCreated())
+                                .build())
+                        .collect(Collectors.toList()))
+                .build();
+    }
+
+    private BookingDtoOutToItem copy(BookingDtoOutToItem booking) {
+        if (booking == null) {
+            return null;
+        }
+        return BookingDtoOutToItem.builder()
+                .id(booking.getId())
+                .start(booking.getStart())
+                .end(booking.getEnd())
+                .status(booking.getStatus())
+                .bookerId(booking.getBookerId())
+                .build();
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static class CachedItem {
+        private final Long ownerId;
+        private final ItemDto item;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static class OwnerBookings {
+        private final BookingDtoOutToItem lastBooking;
+        private final BookingDtoOutToItem nextBooking;
+    }
+
+    private static class UntilNextBooking implements Expiry<Long, OwnerBookings> {
+        private final Duration ttl;
+
+        UntilNextBooking(Duration ttl) {
+            this.ttl = ttl;
+        }
+
+        @Override
+        public long expireAfterCreate(Long id, OwnerBookings ownerBookings, long currentTime) {
+            Duration lifetime = ttl;
+            if (ownerBookings.getNextBooking() != null) {
+                Duration untilNext = Duration.between(LocalDateTime.now(), ownerBookings.getNextBooking().getStart());
+                if (untilNext.compareTo(lifetime) < 0) {
+                    lifetime = untilNext.isNegative() ? Duration.ZERO : untilNext;
+                }
+            }
+            return lifetime.toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(Long id, OwnerBookings ownerBookings, long currentTime, long currentDuration) {
+            return expireAfterCreate(id, ownerBookings, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(Long id, OwnerBookings ownerBookings, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
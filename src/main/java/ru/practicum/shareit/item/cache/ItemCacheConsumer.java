@@ -0,0 +1,45 @@
+package ru.practicum.shareit.item.cache;
+
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.outbox.bus.EventConsumer;
+import ru.practicum.shareit.outbox.model.DomainEventType;
+import ru.practicum.shareit.outbox.model.OutboxEvent;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+@Component
+public class ItemCacheConsumer implements EventConsumer {
+    private static final Set<DomainEventType> BOOKING_EVENTS = EnumSet.of(DomainEventType.BOOKING_CREATED,
+            DomainEventType.BOOKING_APPROVED, DomainEventType.BOOKING_REJECTED, DomainEventType.BOOKING_EXPIRED);
+
+    private final ItemCache itemCache;
+    private final BookingRepository bookingRepository;
+    private final CommentRepository commentRepository;
+
+    public ItemCacheConsumer(ItemCache itemCache, BookingRepository bookingRepository,
+                             CommentRepository commentRepository) {
+        this.itemCache = itemCache;
+        this.bookingRepository = bookingRepository;
+        this.commentRepository = commentRepository;
+    }
+
+    @Override
+    public String getName() {
+        return "item-cache";
+    }
+
+    @Override
+    public void accept(OutboxEvent event) {
+        Long id = event.getAggregateId();
+        if (BOOKING_EVENTS.contains(event.getType())) {
+            bookingRepository.findItemIdById(id).ifPresent(itemCache::evictBookings);
+        } else if (event.getType() == DomainEventType.COMMENT_CREATED) {
+            commentRepository.findItemIdById(id).ifPresent(itemCache::evict);
+        } else if (event.getType() == DomainEventType.USER_UPDATED) {
+            itemCache.evictCommentedBy(id);
+        }
+    }
+}
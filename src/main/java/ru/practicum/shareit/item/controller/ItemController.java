@@ -1,13 +1,18 @@
 package ru.practicum.shareit.item.controller;
 
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.common.SharerUser;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.TimeSlotDto;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.model.User;
 
 import javax.validation.Valid;
 import javax.validation.constraints.NotNull;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Validated
@@ -21,48 +26,67 @@ public class ItemController {
     }
 
     @GetMapping
-    public List<ItemDto> findAllByUserId(@RequestHeader("X-Sharer-User-Id") Long userId,
+    public List<ItemDto> findAllByUserId(@SharerUser User user,
                                          @RequestParam(defaultValue = "0") int from,
                                          @RequestParam(defaultValue = "10") int size) {
-        return itemService.findAllByUserId(userId, from, size);
+        return itemService.findAllByUserId(user, from, size);
     }
 
     @GetMapping("/{id}")
-    public ItemDto findById(@RequestHeader("X-Sharer-User-Id") Long userId,
+    public ItemDto findById(@SharerUser User user,
                             @PathVariable Long id) {
-        return itemService.findById(userId, id);
+        return itemService.findById(user, id);
     }
 
     @PostMapping
-    public ItemDto add(@RequestHeader("X-Sharer-User-Id") Long userId,
+    public ItemDto add(@SharerUser User user,
                        @NotNull @Valid @RequestBody ItemDto itemDto) {
-        return itemService.add(userId, itemDto);
+        return itemService.add(user, itemDto);
     }
 
     @DeleteMapping("/{id}")
-    public void remove(@RequestHeader("X-Sharer-User-Id") Long userId,
+    public void remove(@SharerUser User user,
                        @PathVariable Long id) {
-        itemService.remove(userId, id);
+        itemService.remove(user, id);
     }
 
     @PatchMapping("/{id}")
-    public ItemDto update(@RequestHeader("X-Sharer-User-Id") Long userId,
+    public ItemDto update(@SharerUser User user,
                           @PathVariable Long id,
                           @NotNull @RequestBody ItemDto itemDto) {
-        return itemService.update(userId, id, itemDto);
+        return itemService.update(user, id, itemDto);
     }
 
     @GetMapping("/search")
     public List<ItemDto> search(@RequestParam(defaultValue = "") String text,
+                                @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                LocalDateTime start,
+                                @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                LocalDateTime end,
                                 @RequestParam(defaultValue = "0") int from,
                                 @RequestParam(defaultValue = "10") int size) {
-        return itemService.search(text, from, size);
+        return itemService.search(text, start, end, from, size);
+    }
+
+    @GetMapping("/search/suggest")
+    public List<String> suggest(@RequestParam(defaultValue = "") String prefix,
+                                @RequestParam(defaultValue = "10") int size) {
+        return itemService.suggest(prefix, size);
+    }
+
+    @GetMapping("/{id}/availability")
+    public List<TimeSlotDto> findAvailability(@PathVariable Long id,
+                                              @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                              LocalDateTime from,
+                                              @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                              LocalDateTime to) {
+        return itemService.findAvailability(id, from, to);
     }
 
     @PostMapping("/{itemId}/comment")
-    public CommentDto addComment(@RequestHeader("X-Sharer-User-Id") Long userId,
+    public CommentDto addComment(@SharerUser User user,
                                  @PathVariable Long itemId,
                                  @NotNull @Valid @RequestBody CommentDto commentDto) {
-        return itemService.addComment(userId, itemId, commentDto);
+        return itemService.addComment(user, itemId, commentDto);
     }
 }
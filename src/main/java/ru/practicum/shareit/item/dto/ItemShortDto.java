@@ -0,0 +1,13 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.*;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ItemShortDto {
+    private Long id;
+    private String name;
+}
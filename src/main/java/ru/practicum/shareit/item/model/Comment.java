@@ -8,6 +8,7 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "comments")
+@NamedEntityGraph(name = "Comment.author", attributeNodes = @NamedAttributeNode("author"))
 @Setter
 @Getter
 @Builder
@@ -22,11 +23,11 @@ public class Comment {
     @Column(name = "text", nullable = false)
     String text;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "item_id")
     Item item;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "author_id", nullable = false)
     User author;
 
@@ -1,14 +1,26 @@
 package ru.practicum.shareit.item.repository;
 
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 
 import java.util.List;
+import java.util.Optional;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
+    @EntityGraph("Comment.author")
     List<Comment> findAllByItem(Item item, Sort sort);
 
+    @EntityGraph("Comment.author")
     List<Comment> findAllByItemIn(List<Item> items, Sort sort);
+
+    @Query("SELECT c.item.id FROM Comment c WHERE c.id = :id")
+    Optional<Long> findItemIdById(@Param("id") Long id);
+
+    @Query("SELECT DISTINCT c.item.id FROM Comment c WHERE c.author.id = :authorId")
+    List<Long> findItemIdsByAuthorId(@Param("authorId") Long authorId);
 }
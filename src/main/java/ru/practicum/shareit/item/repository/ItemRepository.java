@@ -3,20 +3,38 @@ package ru.practicum.shareit.item.repository;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.model.Request;
 import ru.practicum.shareit.user.model.User;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
     List<Item> findAllByOwner(User owner, Pageable pageable);
 
+    @Query("SELECT i.id FROM Item i WHERE i.owner.id = :ownerId")
+    List<Long> findIdsByOwnerId(@Param("ownerId") Long ownerId);
+
     List<Item> findAllByNameContainingIgnoreCaseOrDescriptionContainingIgnoreCaseAndAvailable(String name, String desc,
                                                                                               boolean available,
                                                                                               Pageable pageable);
 
+    @Query("SELECT i FROM Item i WHERE i.available = TRUE "
+            + "AND (UPPER(i.name) LIKE UPPER(CONCAT('%', :#{escape(#text)}, '%')) ESCAPE :#{escapeCharacter()} "
+            + "OR UPPER(i.description) LIKE UPPER(CONCAT('%', :#{escape(#text)}, '%')) ESCAPE :#{escapeCharacter()}) "
+            + "AND NOT EXISTS (SELECT b.id FROM Booking b WHERE b.item = i AND b.status = :status "
+            + "AND b.start < :end AND b.end > :start)")
+    List<Item> searchFreeInPeriod(@Param("text") String text, @Param("start") LocalDateTime start,
+                                  @Param("end") LocalDateTime end, @Param("status") BookingStatus status,
+                                  Pageable pageable);
+
     List<Item> findAllByRequestIn(List<Request> requests, Sort sort);
 
     List<Item> findAllByRequest(Request request, Sort sort);
+
+    List<Item> findAllByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
 }
@@ -0,0 +1,63 @@
+package ru.practicum.shareit.item.search;
+
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.cache.ItemCache;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.outbox.bus.EventConsumer;
+import ru.practicum.shareit.outbox.model.DomainEventType;
+import ru.practicum.shareit.outbox.model.OutboxEvent;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.EnumSet;
+import java.util.Optional;
+import java.util.Set;
+
+@Component
+public class ItemIndexConsumer implements EventConsumer {
+    private static final Set<DomainEventType> ITEM_EVENTS = EnumSet.of(DomainEventType.ITEM_CREATED,
+            DomainEventType.ITEM_UPDATED, DomainEventType.ITEM_DELETED);
+
+    private final ItemRepository itemRepository;
+    private final ItemSearchEngine itemSearchEngine;
+    private final ItemNameSuggester itemNameSuggester;
+    private final ItemTokenIndex itemTokenIndex;
+    private final ItemCache itemCache;
+    private final EntityManagerFactory entityManagerFactory;
+
+    public ItemIndexConsumer(ItemRepository itemRepository, ItemSearchEngine itemSearchEngine,
+                             ItemNameSuggester itemNameSuggester, ItemTokenIndex itemTokenIndex,
+                             ItemCache itemCache, EntityManagerFactory entityManagerFactory) {
+        this.itemRepository = itemRepository;
+        this.itemSearchEngine = itemSearchEngine;
+        this.itemNameSuggester = itemNameSuggester;
+        this.itemTokenIndex = itemTokenIndex;
+        this.itemCache = itemCache;
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @Override
+    public String getName() {
+        return "item-index";
+    }
+
+    @Override
+    public void accept(OutboxEvent event) {
+        if (!ITEM_EVENTS.contains(event.getType())) {
+            return;
+        }
+        Long id = event.getAggregateId();
+        entityManagerFactory.getCache().evict(Item.class, id);
+        Optional<Item> item = itemRepository.findById(id);
+        if (item.isPresent()) {
+            itemSearchEngine.index(item.get());
+            itemNameSuggester.index(item.get());
+            itemTokenIndex.index(item.get());
+        } else {
+            itemSearchEngine.remove(id);
+            itemNameSuggester.remove(id);
+            itemTokenIndex.remove(id);
+        }
+        itemCache.evict(id);
+    }
+}
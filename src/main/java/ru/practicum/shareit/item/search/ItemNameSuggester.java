@@ -0,0 +1,120 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+@Slf4j
+@Component
+public class ItemNameSuggester {
+    private static final int BATCH_SIZE = 1000;
+    private static final Comparator<Entry> ENTRY_ORDER = Comparator.comparing((Entry entry) -> entry.token)
+            .thenComparingLong(entry -> entry.itemId);
+
+    private final ItemRepository itemRepository;
+    private final NavigableSet<Entry> entries = new ConcurrentSkipListSet<>(ENTRY_ORDER);
+    private final Map<Long, Suggestion> suggestions = new ConcurrentHashMap<>();
+
+    public ItemNameSuggester(ItemRepository itemRepository) {
+        this.itemRepository = itemRepository;
+    }
+
+    @PostConstruct
+    public synchronized void rebuild() {
+        entries.clear();
+        suggestions.clear();
+        long lastId = 0;
+        List<Item> batch = itemRepository.findAllByIdGreaterThanOrderByIdAsc(lastId, PageRequest.of(0, BATCH_SIZE));
+        while (!batch.isEmpty()) {
+            for (Item item : batch) {
+                put(item);
+                lastId = item.getId();
+            }
+            batch = itemRepository.findAllByIdGreaterThanOrderByIdAsc(lastId, PageRequest.of(0, BATCH_SIZE));
+        }
+        log.info("Индекс подсказок построен, проиндексировано {} вещей", suggestions.size());
+    }
+
+    public List<String> suggest(String prefix, int limit) {
+        String token = prefix.trim().toLowerCase(Locale.ROOT);
+        if (token.isEmpty()) {
+            return List.of();
+        }
+        List<String> result = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        for (Entry entry : entries.tailSet(new Entry(token, Long.MIN_VALUE), true)) {
+            if (!entry.token.startsWith(token) || result.size() == limit) {
+                break;
+            }
+            Suggestion suggestion = suggestions.get(entry.itemId);
+            if (suggestion != null && suggestion.available && seen.add(suggestion.name.toLowerCase(Locale.ROOT))) {
+                result.add(suggestion.name);
+            }
+        }
+        return result;
+    }
+
+    public synchronized void index(Item item) {
+        delete(item.getId());
+        put(item);
+    }
+
+    public synchronized void remove(Long itemId) {
+        delete(itemId);
+    }
+
+    private void put(Item item) {
+        List<String> tokens = ItemTokenizer.tokenize(item.getName());
+        suggestions.put(item.getId(), new Suggestion(item.getName(), Boolean.TRUE.equals(item.getAvailable()),
+                tokens.toArray(new String[0])));
+        for (String token : tokens) {
+            entries.add(new Entry(token, item.getId()));
+        }
+    }
+
+    private void delete(long itemId) {
+        Suggestion suggestion = suggestions.remove(itemId);
+        if (suggestion == null) {
+            return;
+        }
+        for (String token : suggestion.tokens) {
+            entries.remove(new Entry(token, itemId));
+        }
+    }
+
+    private static class Entry {
+        private final String token;
+        private final long itemId;
+
+        Entry(String token, long itemId) {
+            this.token = token;
+            this.itemId = itemId;
+        }
+    }
+
+    private static class Suggestion {
+        private final String name;
+        private final boolean available;
+        private final String[] tokens;
+
+        Suggestion(String name, boolean available, String[] tokens) {
+            this.name = name;
+            this.available = available;
+            this.tokens = tokens;
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.index.InvertedIndex;
+import ru.practicum.shareit.item.search.index.ItemScore;
+import ru.practicum.shareit.item.search.index.Postings;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+@Slf4j
+@Component
+public class ItemTokenIndex {
+    private static final int BATCH_SIZE = 1000;
+    private static final Comparator<ItemScore> BY_SCORE = Comparator.comparingDouble(ItemScore::getScore)
+            .thenComparing(Comparator.comparingLong(ItemScore::getItemId).reversed());
+
+    private final ItemRepository itemRepository;
+    private final InvertedIndex index = new InvertedIndex();
+    private final Map<Long, Long> ownerById = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean built;
+
+    public ItemTokenIndex(ItemRepository itemRepository) {
+        this.itemRepository = itemRepository;
+    }
+
+    public List<ItemScore> match(Collection<String> tokens, Long excludedOwnerId, int limit) {
+        if (!built) {
+            lock.writeLock().lock();
+            try {
+                if (!built) {
+                    build();
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        PriorityQueue<ItemScore> top = new PriorityQueue<>(limit + 1, BY_SCORE);
+        lock.readLock().lock();
+        try {
+            int total = index.size();
+            Map<Long, Double> scores = new HashMap<>();
+            for (String token : tokens) {
+                Postings postings = index.get(token);
+                if (postings.isEmpty()) {
+                    continue;
+                }
+                double weight = Math.log(1.0 + (double) total / postings.size());
+                for (int i = 0; i < postings.size(); i++) {
+                    scores.merge(postings.get(i), weight, Double::sum);
+                }
+            }
+            for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+                if (Objects.equals(ownerById.get(entry.getKey()), excludedOwnerId)) {
+                    continue;
+                }
+                top.add(new ItemScore(entry.getKey(), entry.getValue()));
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        List<ItemScore> result = new ArrayList<>(top);
+        result.sort(BY_SCORE.reversed());
+        return result;
+    }
+
+    public void index(Item item) {
+        lock.writeLock().lock();
+        try {
+            if (built) {
+                put(item);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long itemId) {
+        lock.writeLock().lock();
+        try {
+            if (built) {
+                index.remove(itemId);
+                ownerById.remove(itemId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void build() {
+        index.clear();
+        ownerById.clear();
+        long lastId = 0;
+        List<Item> batch = itemRepository.findAllByIdGreaterThanOrderByIdAsc(lastId, PageRequest.of(0, BATCH_SIZE));
+        while (!batch.isEmpty()) {
+            for (Item item : batch) {
+                put(item);
+                lastId = item.getId();
+            }
+            batch = itemRepository.findAllByIdGreaterThanOrderByIdAsc(lastId, PageRequest.of(0, BATCH_SIZE));
+        }
+        built = true;
+        log.info("Индекс сопоставления запросов построен, проиндексировано {} вещей", index.size());
+    }
+
+    private void put(Item item) {
+        if (!Boolean.TRUE.equals(item.getAvailable())) {
+            index.remove(item.getId());
+            ownerById.remove(item.getId());
+            return;
+        }
+        index.put(item.getId(), ItemTokenizer.tokenize(item.getName() + " " + item.getDescription()));
+        ownerById.put(item.getId(), item.getOwner().getId());
+    }
+}
@@ -0,0 +1,79 @@
+package ru.practicum.shareit.item.search.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.jdbc.DatabaseDriver;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.item.search.ItemTokenizer;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.item.search.engine", havingValue = "fulltext")
+public class FullTextItemSearchEngine implements ItemSearchEngine {
+    private static final String POSTGRESQL_DOCUMENT = "setweight(to_tsvector('simple', i.name), 'A') || "
+            + "setweight(to_tsvector('simple', i.description), 'B')";
+    private static final String POSTGRESQL_QUERY = "SELECT i.* FROM items i, to_tsquery('simple', :text) query "
+            + "WHERE i.available AND " + POSTGRESQL_DOCUMENT + " @@ query "
+            + "ORDER BY ts_rank(" + POSTGRESQL_DOCUMENT + ", query) DESC, i.id "
+            + "LIMIT :limit OFFSET :offset";
+    private static final String H2_QUERY = "SELECT i.* FROM FT_SEARCH_DATA(:text, 0, 0) ft "
+            + "JOIN items i ON i.id = CAST(ft.KEYS[1] AS BIGINT) "
+            + "WHERE ft.\"TABLE\" = 'ITEMS' AND i.available "
+            + "ORDER BY ft.SCORE DESC, i.id "
+            + "LIMIT :limit OFFSET :offset";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final DatabaseDriver databaseDriver;
+
+    public FullTextItemSearchEngine(DataSource dataSource) throws MetaDataAccessException {
+        String productName = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+        this.databaseDriver = DatabaseDriver.fromProductName(productName);
+        if (databaseDriver != DatabaseDriver.POSTGRESQL && databaseDriver != DatabaseDriver.H2) {
+            throw new IllegalStateException(String.format("Полнотекстовый поиск не поддерживается для %s",
+                    productName));
+        }
+        log.info("Полнотекстовый поиск вещей использует {}", databaseDriver);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public List<Item> search(String text, Pageable pageable) {
+        List<String> words = ItemTokenizer.tokenize(text);
+        if (words.isEmpty()) {
+            return List.of();
+        }
+
+        String sql;
+        String query;
+        if (databaseDriver == DatabaseDriver.POSTGRESQL) {
+            sql = POSTGRESQL_QUERY;
+            query = words
+                    .stream()
+                    .map(word -> word + ":*")
+                    .collect(Collectors.joining(" & "));
+        } else {
+            sql = H2_QUERY;
+            query = String.join(" ", words);
+        }
+
+        return entityManager.createNativeQuery(sql, Item.class)
+                .setParameter("text", query)
+                .setParameter("limit", pageable.getPageSize())
+                .setParameter("offset", pageable.getOffset())
+                .getResultList();
+    }
+}
@@ -0,0 +1,109 @@
+package ru.practicum.shareit.item.search.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+@Slf4j
+public abstract class InMemoryItemSearchEngine implements ItemSearchEngine {
+    private static final int BATCH_SIZE = 1000;
+
+    private final ItemRepository itemRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    protected InMemoryItemSearchEngine(ItemRepository itemRepository) {
+        this.itemRepository = itemRepository;
+    }
+
+    @PostConstruct
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            clear();
+            int count = 0;
+            long lastId = 0;
+            List<Item> batch = itemRepository.findAllByIdGreaterThanOrderByIdAsc(lastId, PageRequest.of(0, BATCH_SIZE));
+            while (!batch.isEmpty()) {
+                for (Item item : batch) {
+                    put(item);
+                    lastId = item.getId();
+                    count++;
+                }
+                batch = itemRepository.findAllByIdGreaterThanOrderByIdAsc(lastId, PageRequest.of(0, BATCH_SIZE));
+            }
+            log.info("Индекс поиска вещей {} построен, проиндексировано {} вещей", getClass().getSimpleName(), count);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Item> search(String text, Pageable pageable) {
+        long[] ids;
+        lock.readLock().lock();
+        try {
+            ids = find(text, pageable);
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (ids.length == 0) {
+            return List.of();
+        }
+
+        List<Long> pageIds = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            pageIds.add(id);
+        }
+        Map<Long, Item> itemsById = new HashMap<>(ids.length);
+        for (Item item : itemRepository.findAllById(pageIds)) {
+            itemsById.put(item.getId(), item);
+        }
+        List<Item> result = new ArrayList<>(ids.length);
+        for (Long id : pageIds) {
+            Item item = itemsById.get(id);
+            if (item != null) {
+                result.add(item);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public void index(Item item) {
+        lock.writeLock().lock();
+        try {
+            put(item);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Long itemId) {
+        lock.writeLock().lock();
+        try {
+            delete(itemId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    protected abstract long[] find(String text, Pageable pageable);
+
+    protected abstract void put(Item item);
+
+    protected abstract void delete(long itemId);
+
+    protected abstract void clear();
+}
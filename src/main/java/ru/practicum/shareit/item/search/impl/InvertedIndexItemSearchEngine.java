@@ -0,0 +1,55 @@
+package ru.practicum.shareit.item.search.impl;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemTokenizer;
+import ru.practicum.shareit.item.search.index.InvertedIndex;
+import ru.practicum.shareit.item.search.index.Postings;
+
+import java.util.List;
+
+@Component
+@ConditionalOnProperty(name = "shareit.item.search.engine", havingValue = "index")
+public class InvertedIndexItemSearchEngine extends InMemoryItemSearchEngine {
+    private final InvertedIndex index = new InvertedIndex();
+    private final Postings available = new Postings();
+
+    public InvertedIndexItemSearchEngine(ItemRepository itemRepository) {
+        super(itemRepository);
+    }
+
+    @Override
+    protected long[] find(String text, Pageable pageable) {
+        List<String> tokens = ItemTokenizer.tokenize(text);
+        if (tokens.isEmpty()) {
+            return new long[0];
+        }
+        return Postings.intersect(index.find(tokens), available)
+                .slice(pageable.getOffset(), pageable.getPageSize());
+    }
+
+    @Override
+    protected void put(Item item) {
+        index.put(item.getId(), ItemTokenizer.tokenize(item.getName() + " " + item.getDescription()));
+        if (Boolean.TRUE.equals(item.getAvailable())) {
+            available.add(item.getId());
+        } else {
+            available.remove(item.getId());
+        }
+    }
+
+    @Override
+    protected void delete(long itemId) {
+        index.remove(itemId);
+        available.remove(itemId);
+    }
+
+    @Override
+    protected void clear() {
+        index.clear();
+        available.clear();
+    }
+}
@@ -0,0 +1,101 @@
+package ru.practicum.shareit.item.search.impl;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.index.InvertedIndex;
+import ru.practicum.shareit.item.search.index.Postings;
+
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+@Component
+@ConditionalOnProperty(name = "shareit.item.search.engine", havingValue = "trigram")
+public class TrigramItemSearchEngine extends InMemoryItemSearchEngine {
+    private static final int GRAM_LENGTH = 3;
+
+    private final InvertedIndex nameIndex = new InvertedIndex();
+    private final InvertedIndex descriptionIndex = new InvertedIndex();
+    private final NavigableMap<Long, Document> documents = new TreeMap<>();
+
+    public TrigramItemSearchEngine(ItemRepository itemRepository) {
+        super(itemRepository);
+    }
+
+    @Override
+    protected long[] find(String text, Pageable pageable) {
+        String pattern = text.toUpperCase(Locale.ROOT);
+        Postings matches = new Postings();
+        if (pattern.length() < GRAM_LENGTH) {
+            for (Document document : documents.values()) {
+                if (document.matches(pattern)) {
+                    matches.add(document.id);
+                }
+            }
+        } else {
+            Set<String> grams = trigrams(pattern);
+            Postings candidates = Postings.union(nameIndex.find(grams), descriptionIndex.find(grams));
+            for (int i = 0; i < candidates.size(); i++) {
+                Document document = documents.get(candidates.get(i));
+                if (document != null && document.matches(pattern)) {
+                    matches.add(document.id);
+                }
+            }
+        }
+        return matches.slice(pageable.getOffset(), pageable.getPageSize());
+    }
+
+    @Override
+    protected void put(Item item) {
+        Document document = new Document(item.getId(), item.getName().toUpperCase(Locale.ROOT),
+                item.getDescription().toUpperCase(Locale.ROOT), Boolean.TRUE.equals(item.getAvailable()));
+        documents.put(document.id, document);
+        nameIndex.put(document.id, trigrams(document.name));
+        descriptionIndex.put(document.id, trigrams(document.description));
+    }
+
+    @Override
+    protected void delete(long itemId) {
+        documents.remove(itemId);
+        nameIndex.remove(itemId);
+        descriptionIndex.remove(itemId);
+    }
+
+    @Override
+    protected void clear() {
+        documents.clear();
+        nameIndex.clear();
+        descriptionIndex.clear();
+    }
+
+    private static Set<String> trigrams(String text) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM_LENGTH));
+        }
+        return grams;
+    }
+
+    private static class Document {
+        private final long id;
+        private final String name;
+        private final String description;
+        private final boolean available;
+
+        Document(long id, String name, String description, boolean available) {
+            this.id = id;
+            this.name = name;
+            this.description = description;
+            this.available = available;
+        }
+
+        boolean matches(String pattern) {
+            return name.contains(pattern) || (available && description.contains(pattern));
+        }
+    }
+}
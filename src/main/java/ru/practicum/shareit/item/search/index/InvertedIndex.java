@@ -0,0 +1,66 @@
+package ru.practicum.shareit.item.search.index;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+public class InvertedIndex {
+    private final Map<String, Postings> postingsByToken = new HashMap<>();
+    private final Map<Long, String[]> tokensById = new HashMap<>();
+
+    public void put(long id, Collection<String> tokens) {
+        remove(id);
+        for (String token : tokens) {
+            postingsByToken.computeIfAbsent(token, key -> new Postings()).add(id);
+        }
+        tokensById.put(id, tokens.toArray(new String[0]));
+    }
+
+    public void remove(long id) {
+        String[] tokens = tokensById.remove(id);
+        if (tokens == null) {
+            return;
+        }
+        for (String token : tokens) {
+            Postings postings = postingsByToken.get(token);
+            if (postings != null) {
+                postings.remove(id);
+                if (postings.isEmpty()) {
+                    postingsByToken.remove(token);
+                }
+            }
+        }
+    }
+
+    public Postings get(String token) {
+        return postingsByToken.getOrDefault(token, new Postings());
+    }
+
+    public Postings find(Collection<String> tokens) {
+        List<Postings> found = tokens
+                .stream()
+                .map(token -> postingsByToken.getOrDefault(token, new Postings()))
+                .sorted(Comparator.comparingInt(Postings::size))
+                .collect(Collectors.toList());
+        if (found.isEmpty()) {
+            return new Postings();
+        }
+        Postings result = found.get(0).copy();
+        for (int i = 1; i < found.size() && !result.isEmpty(); i++) {
+            result = Postings.intersect(result, found.get(i));
+        }
+        return result;
+    }
+
+    public int size() {
+        return tokensById.size();
+    }
+
+    public void clear() {
+        postingsByToken.clear();
+        tokensById.clear();
+    }
+}
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.item.search.index;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+@Getter
+@EqualsAndHashCode
+@ToString
+@AllArgsConstructor
+public class ItemScore {
+    private final long itemId;
+    private final double score;
+}
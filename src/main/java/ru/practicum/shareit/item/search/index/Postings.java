@@ -0,0 +1,121 @@
+package ru.practicum.shareit.item.search.index;
+
+import java.util.Arrays;
+
+public class Postings {
+    private static final int INITIAL_CAPACITY = 4;
+
+    private long[] ids;
+    private int size;
+
+    public Postings() {
+        this.ids = new long[INITIAL_CAPACITY];
+    }
+
+    private Postings(long[] ids, int size) {
+        this.ids = ids;
+        this.size = size;
+    }
+
+    public boolean add(long id) {
+        int pos = Arrays.binarySearch(ids, 0, size, id);
+        if (pos >= 0) {
+            return false;
+        }
+        pos = -pos - 1;
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size * 2);
+        }
+        System.arraycopy(ids, pos, ids, pos + 1, size - pos);
+        ids[pos] = id;
+        size++;
+        return true;
+    }
+
+    public boolean remove(long id) {
+        int pos = Arrays.binarySearch(ids, 0, size, id);
+        if (pos < 0) {
+            return false;
+        }
+        System.arraycopy(ids, pos + 1, ids, pos, size - pos - 1);
+        size--;
+        return true;
+    }
+
+    public boolean contains(long id) {
+        return Arrays.binarySearch(ids, 0, size, id) >= 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public long get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(String.format("Индекс %d вне диапазона 0..%d", index, size));
+        }
+        return ids[index];
+    }
+
+    public long[] slice(long from, int count) {
+        if (from >= size) {
+            return new long[0];
+        }
+        int start = (int) from;
+        return Arrays.copyOfRange(ids, start, Math.min(size, start + count));
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    public Postings copy() {
+        return new Postings(Arrays.copyOf(ids, Math.max(size, INITIAL_CAPACITY)), size);
+    }
+
+    public static Postings intersect(Postings first, Postings second) {
+        Postings smaller = first.size <= second.size ? first : second;
+        Postings larger = smaller == first ? second : first;
+        long[] result = new long[Math.max(smaller.size, INITIAL_CAPACITY)];
+        int count = 0;
+        int i = 0;
+        int j = 0;
+        while (i < smaller.size && j < larger.size) {
+            long left = smaller.ids[i];
+            long right = larger.ids[j];
+            if (left == right) {
+                result[count++] = left;
+                i++;
+                j++;
+            } else if (left < right) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return new Postings(result, count);
+    }
+
+    public static Postings union(Postings first, Postings second) {
+        long[] result = new long[Math.max(first.size + second.size, INITIAL_CAPACITY)];
+        int count = 0;
+        int i = 0;
+        int j = 0;
+        while (i < first.size || j < second.size) {
+            if (j == second.size || (i < first.size && first.ids[i] < second.ids[j])) {
+                result[count++] = first.ids[i++];
+            } else if (i == first.size || second.ids[j] < first.ids[i]) {
+                result[count++] = second.ids[j++];
+            } else {
+                result[count++] = first.ids[i];
+                i++;
+                j++;
+            }
+        }
+        return new Postings(result, count);
+    }
+}
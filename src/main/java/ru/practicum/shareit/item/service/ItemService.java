@@ -2,21 +2,30 @@ package ru.practicum.shareit.item.service;
 
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.TimeSlotDto;
+import ru.practicum.shareit.user.model.User;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ItemService {
-    List<ItemDto> findAllByUserId(Long userId, int from, int size);
+    List<ItemDto> findAllByUserId(User user, int from, int size);
 
-    ItemDto findById(Long userId, Long id);
+    ItemDto findById(User user, Long id);
 
-    ItemDto add(Long userId, ItemDto itemDto);
+    ItemDto add(User user, ItemDto itemDto);
 
-    void remove(Long userId, Long id);
+    void remove(User user, Long id);
 
-    ItemDto update(Long userId, Long id, ItemDto itemDto);
+    ItemDto update(User user, Long id, ItemDto itemDto);
 
     List<ItemDto> search(String text, int from, int size);
 
-    CommentDto addComment(Long userId, Long itemId, CommentDto commentDto);
+    List<ItemDto> search(String text, LocalDateTime start, LocalDateTime end, int from, int size);
+
+    List<String> suggest(String prefix, int size);
+
+    List<TimeSlotDto> findAvailability(Long id, LocalDateTime from, LocalDateTime to);
+
+    CommentDto addComment(User user, Long itemId, CommentDto commentDto);
 }
@@ -1,17 +1,22 @@
 package ru.practicum.shareit.item.service.impl;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.cache.ItemCache;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.TimeSlotDto;
 import ru.practicum.shareit.item.exception.ItemNotFoundException;
 import ru.practicum.shareit.item.exception.ItemValidationException;
 import ru.practicum.shareit.item.mapper.CommentMapper;
@@ -20,16 +25,22 @@ import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemNameSuggester;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.item.search.ItemTokenIndex;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.outbox.model.DomainEventType;
+import ru.practicum.shareit.outbox.service.OutboxWriter;
 import ru.practicum.shareit.request.exception.RequestNotFoundException;
 import ru.practicum.shareit.request.model.Request;
 import ru.practicum.shareit.request.repository.RequestRepository;
-import ru.practicum.shareit.user.exception.UserNotFoundException;
 import ru.practicum.shareit.user.model.User;
-import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.stream.Collectors;
 
@@ -37,30 +48,42 @@ import java.util.stream.Collectors;
 @Service
 public class ItemServiceImpl implements ItemService {
     private final ItemRepository itemRepository;
-    private final UserRepository userRepository;
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
     private final RequestRepository requestRepository;
+    private final ItemSearchEngine itemSearchEngine;
+    private final ItemNameSuggester itemNameSuggester;
+    private final ItemTokenIndex itemTokenIndex;
+    private final ItemCache itemCache;
+    private final OutboxWriter outboxWriter;
+    private final int maxSuggestSize;
     private final Sort byStartDESC = Sort.by(Sort.Direction.DESC, "start");
-    private final Sort byStartASC = Sort.by(Sort.Direction.ASC, "start");
     private final Sort byId = Sort.by(Sort.Direction.ASC, "id");
     private final Sort byCreatedASC = Sort.by(Sort.Direction.ASC, "created");
 
-    public ItemServiceImpl(ItemRepository itemRepository, UserRepository userRepository,
-                           BookingRepository bookingRepository, CommentRepository commentRepository, RequestRepository requestRepository) {
+    public ItemServiceImpl(ItemRepository itemRepository, BookingRepository bookingRepository,
+                           CommentRepository commentRepository, RequestRepository requestRepository,
+                           ItemSearchEngine itemSearchEngine, ItemNameSuggester itemNameSuggester,
+                           ItemTokenIndex itemTokenIndex, ItemCache itemCache, OutboxWriter outboxWriter,
+                           @Value("${shareit.item.suggest.max-size:50}") int maxSuggestSize) {
+        if (maxSuggestSize <= 0) {
+            throw new IllegalArgumentException("Максимальное количество подсказок должно быть больше 0");
+        }
         this.itemRepository = itemRepository;
-        this.userRepository = userRepository;
         this.bookingRepository = bookingRepository;
         this.commentRepository = commentRepository;
         this.requestRepository = requestRepository;
+        this.itemSearchEngine = itemSearchEngine;
+        this.itemNameSuggester = itemNameSuggester;
+        this.itemTokenIndex = itemTokenIndex;
+        this.itemCache = itemCache;
+        this.outboxWriter = outboxWriter;
+        this.maxSuggestSize = maxSuggestSize;
     }
 
     @Transactional(readOnly = true)
     @Override
-    public List<ItemDto> findAllByUserId(Long userId, int from, int size) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new UserNotFoundException(String.format("Пользователь с id %d не найден", userId)));
-
+    public List<ItemDto> findAllByUserId(User user, int from, int size) {
         if (from < 0) {
             throw new ItemValidationException("Минимальное значение записи, с которой можно получить данные равно 0");
         }
@@ -74,75 +97,53 @@ public class ItemServiceImpl implements ItemService {
                 .stream()
                 .map(ItemMapper::toDto)
                 .collect(Collectors.toList());
-        List<Booking> lastBookings = bookingRepository.findAllByItemInAndStartBeforeAndStatus(items,
-                LocalDateTime.now(), BookingStatus.APPROVED, byStartDESC);
-        List<Booking> nextBookings = bookingRepository.findAllByItemInAndStartAfterAndStatus(items,
-                LocalDateTime.now(), BookingStatus.APPROVED, byStartASC);
-        List<Comment> comments = commentRepository.findAllByItemIn(items, byCreatedASC);
-
-        for (ItemDto itemDto : itemsDto) {
-            List<Booking> curLastBooking = lastBookings
-                    .stream()
-                    .filter(booking -> booking.getItem().getId().equals(itemDto.getId()))
-                    .collect(Collectors.toList());
-            List<Booking> curNextBooking = nextBookings
-                    .stream()
-                    .filter(booking -> booking.getItem().getId().equals(itemDto.getId()))
-                    .collect(Collectors.toList());
-            if (!curLastBooking.isEmpty()) {
-                itemDto.setLastBooking(BookingMapper.toDtoOutToItem(curLastBooking.get(0)));
-            }
-            if (!curNextBooking.isEmpty()) {
-                itemDto.setNextBooking(BookingMapper.toDtoOutToItem(curNextBooking.get(0)));
-            }
-
-            List<CommentDto> curCommentsDto = comments
-                    .stream()
-                    .filter(comment -> comment.getItem().getId().equals(itemDto.getId()))
-                    .map(CommentMapper::toDto)
-                    .collect(Collectors.toList());
-            itemDto.setComments(curCommentsDto);
+        if (items.isEmpty()) {
+            return itemsDto;
         }
-        return itemsDto;
-    }
-
-    @Transactional(readOnly = true)
-    @Override
-    public ItemDto findById(Long userId, Long id) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new UserNotFoundException(String.format("Пользователь с id %d не найден", userId)));
-        Item item = itemRepository.findById(id)
-                .orElseThrow(() -> new ItemNotFoundException(String.format("Вещь с id %d не найдена", id)));
+        List<Long> itemIds = items
+                .stream()
+                .map(Item::getId)
+                .collect(Collectors.toList());
 
-        ItemDto itemDto = ItemMapper.toDto(item);
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, Booking> lastBookings = new HashMap<>(items.size());
+        for (Booking booking : bookingRepository.findLastApprovedByItemIdIn(itemIds, now)) {
+            lastBookings.putIfAbsent(booking.getItem().getId(), booking);
+        }
+        Map<Long, Booking> nextBookings = new HashMap<>(items.size());
+        for (Booking booking : bookingRepository.findNextApprovedByItemIdIn(itemIds, now)) {
+            nextBookings.putIfAbsent(booking.getItem().getId(), booking);
+        }
+        Map<Long, List<CommentDto>> comments = new HashMap<>(items.size());
+        for (Comment comment : commentRepository.findAllByItemIn(items, byCreatedASC)) {
+            comments.computeIfAbsent(comment.getItem().getId(), itemId -> new ArrayList<>())
+                    .add(CommentMapper.toDto(comment));
+        }
 
-        if (item.getOwner().getId().equals(userId)) {
-            Booking lastBooking = bookingRepository.findFirstBookingByItemAndStartBeforeAndStatus(item,
-                    LocalDateTime.now(), BookingStatus.APPROVED, byStartDESC);
-            Booking nextBooking = bookingRepository.findFirstBookingByItemAndStartAfterAndStatus(item,
-                    LocalDateTime.now(), BookingStatus.APPROVED, byStartASC);
+        for (ItemDto itemDto : itemsDto) {
+            Booking lastBooking = lastBookings.get(itemDto.getId());
             if (lastBooking != null) {
                 itemDto.setLastBooking(BookingMapper.toDtoOutToItem(lastBooking));
             }
+            Booking nextBooking = nextBookings.get(itemDto.getId());
             if (nextBooking != null) {
                 itemDto.setNextBooking(BookingMapper.toDtoOutToItem(nextBooking));
             }
+            itemDto.setComments(comments.getOrDefault(itemDto.getId(), new ArrayList<>()));
         }
+        return itemsDto;
+    }
 
-        List<CommentDto> commentsDto = commentRepository.findAllByItem(item, byCreatedASC)
-                .stream()
-                .map(CommentMapper::toDto)
-                .collect(Collectors.toList());
-        itemDto.setComments(commentsDto);
-
-        return itemDto;
+    @Transactional(readOnly = true)
+    @Override
+    public ItemDto findById(User user, Long id) {
+        return itemCache.findById(id, user.getId())
+                .orElseThrow(() -> new ItemNotFoundException(String.format("Вещь с id %d не найдена", id)));
     }
 
     @Transactional
     @Override
-    public ItemDto add(Long userId, ItemDto itemDto) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new UserNotFoundException(String.format("Пользователь с id %d не найден", userId)));
+    public ItemDto add(User user, ItemDto itemDto) {
         Item item = ItemMapper.toItem(itemDto);
         item.setOwner(user);
 
@@ -153,43 +154,61 @@ public class ItemServiceImpl implements ItemService {
             item.setRequest(request);
         }
 
-        return ItemMapper.toDto(itemRepository.save(item));
+        Item savedItem = itemRepository.save(item);
+        ItemDto savedItemDto = ItemMapper.toDto(savedItem);
+        outboxWriter.append(DomainEventType.ITEM_CREATED, savedItem.getId(), savedItemDto);
+        afterCommit(() -> {
+            itemSearchEngine.index(savedItem);
+            itemNameSuggester.index(savedItem);
+            itemTokenIndex.index(savedItem);
+        });
+        return savedItemDto;
     }
 
     @Transactional
     @Override
-    public void remove(Long userId, Long id) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new UserNotFoundException(String.format("Пользователь с id %d не найден", userId)));
+    public void remove(User user, Long id) {
         Item item = itemRepository.findById(id)
                 .orElseThrow(() -> new ItemNotFoundException(String.format("Вещь с id %d не найдена", id)));
-        if (!Objects.equals(item.getOwner().getId(), userId)) {
+        if (!Objects.equals(item.getOwner().getId(), user.getId())) {
             log.info(String.format("У вещи с id=%d другой владелец", id));
             throw new ItemNotFoundException(String.format("У вещи с id=%d другой владелец", id));
         }
         itemRepository.deleteById(id);
+        outboxWriter.append(DomainEventType.ITEM_DELETED, id, ItemMapper.toDto(item));
+        afterCommit(() -> {
+            itemSearchEngine.remove(id);
+            itemNameSuggester.remove(id);
+            itemTokenIndex.remove(id);
+        });
+        itemCache.evict(id);
     }
 
     @Transactional
     @Override
-    public ItemDto update(Long userId, Long id, ItemDto itemDto) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new UserNotFoundException(String.format("Пользователь с id %d не найден", userId)));
-        Item oldItem = itemRepository.findById(id)
+    public ItemDto update(User user, Long id, ItemDto itemDto) {
+        Item item = itemRepository.findById(id)
                 .orElseThrow(() -> new ItemNotFoundException(String.format("Вещь с id %d не найдена", id)));
-        Item item = ItemMapper.toItem(itemDto);
-        item.setId(id);
         item.setOwner(user);
-        if (item.getName() == null) {
-            item.setName(oldItem.getName());
+        if (itemDto.getName() != null) {
+            item.setName(itemDto.getName());
         }
-        if (item.getDescription() == null) {
-            item.setDescription(oldItem.getDescription());
+        if (itemDto.getDescription() != null) {
+            item.setDescription(itemDto.getDescription());
         }
-        if (item.getAvailable() == null) {
-            item.setAvailable(oldItem.getAvailable());
+        if (itemDto.getAvailable() != null) {
+            item.setAvailable(itemDto.getAvailable());
         }
-        return ItemMapper.toDto(itemRepository.save(item));
+        Item savedItem = itemRepository.save(item);
+        ItemDto savedItemDto = ItemMapper.toDto(savedItem);
+        outboxWriter.append(DomainEventType.ITEM_UPDATED, id, savedItemDto);
+        afterCommit(() -> {
+            itemSearchEngine.index(savedItem);
+            itemNameSuggester.index(savedItem);
+            itemTokenIndex.index(savedItem);
+        });
+        itemCache.evict(id);
+        return savedItemDto;
     }
 
 
@@ -207,18 +226,86 @@ public class ItemServiceImpl implements ItemService {
         }
         Pageable pageable = PageRequest.of(from > 0 ? from / size : 0, size, byId);
 
-        return itemRepository.findAllByNameContainingIgnoreCaseOrDescriptionContainingIgnoreCaseAndAvailable(text,
-                        text, true, pageable)
+        return itemSearchEngine.search(text, pageable)
+                .stream()
+                .map(ItemMapper::toDto)
+                .collect(Collectors.toList());
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public List<ItemDto> search(String text, LocalDateTime start, LocalDateTime end, int from, int size) {
+        if (start == null && end == null) {
+            return search(text, from, size);
+        }
+        if (start == null || end == null) {
+            throw new ItemValidationException("Для поиска свободных вещей нужно указать начало и окончание периода");
+        }
+        if (!start.isBefore(end)) {
+            throw new ItemValidationException("Начало периода должно быть раньше его окончания");
+        }
+        if (text.isEmpty()) {
+            return List.of();
+        }
+
+        if (from < 0) {
+            throw new ItemValidationException("Минимальное значение записи, с которой можно получить данные равно 0");
+        }
+        if (size <= 0) {
+            throw new ItemValidationException("Количество записей на странице должно быть больше 0");
+        }
+        Pageable pageable = PageRequest.of(from > 0 ? from / size : 0, size, byId);
+
+        return itemRepository.searchFreeInPeriod(text, start, end, BookingStatus.APPROVED, pageable)
                 .stream()
                 .map(ItemMapper::toDto)
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public List<String> suggest(String prefix, int size) {
+        if (size <= 0) {
+            throw new ItemValidationException("Количество подсказок должно быть больше 0");
+        }
+        if (size > maxSuggestSize) {
+            throw new ItemValidationException(String.format("Количество подсказок не должно превышать %d",
+                    maxSuggestSize));
+        }
+        return itemNameSuggester.suggest(prefix, size);
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public List<TimeSlotDto> findAvailability(Long id, LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            throw new ItemValidationException("Начало периода должно быть раньше его окончания");
+        }
+        Item item = itemRepository.findById(id)
+                .orElseThrow(() -> new ItemNotFoundException(String.format("Вещь с id %d не найдена", id)));
+        if (!item.getAvailable()) {
+            return List.of();
+        }
+
+        List<TimeSlotDto> slots = new ArrayList<>();
+        LocalDateTime cursor = from;
+        for (Booking booking : bookingRepository.findAllByItem_IdAndStatusInAndStartBeforeAndEndAfterOrderByStartAsc(
+                id, BookingStatus.ACTIVE, to, from)) {
+            if (booking.getStart().isAfter(cursor)) {
+                slots.add(new TimeSlotDto(cursor, booking.getStart()));
+            }
+            if (booking.getEnd().isAfter(cursor)) {
+                cursor = booking.getEnd();
+            }
+        }
+        if (cursor.isBefore(to)) {
+            slots.add(new TimeSlotDto(cursor, to));
+        }
+        return slots;
+    }
+
     @Transactional
     @Override
-    public CommentDto addComment(Long userId, Long itemId, CommentDto commentDto) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new UserNotFoundException(String.format("Пользователь с id %d не найден", userId)));
+    public CommentDto addComment(User user, Long itemId, CommentDto commentDto) {
         Item item = itemRepository.findById(itemId)
                 .orElseThrow(() -> new ItemNotFoundException(String.format("Вещь с id %d не найдена", itemId)));
         Booking booking = bookingRepository.findFirstBookingByItemAndBookerAndStatusAndEndBefore(item, user,
@@ -229,6 +316,23 @@ public class ItemServiceImpl implements ItemService {
         comment.setAuthor(user);
         comment.setItem(item);
         comment.setCreated(LocalDateTime.now());
-        return CommentMapper.toDto(commentRepository.save(comment));
+        Comment savedComment = commentRepository.save(comment);
+        CommentDto savedCommentDto = CommentMapper.toDto(savedComment);
+        outboxWriter.append(DomainEventType.COMMENT_CREATED, savedComment.getId(), savedCommentDto);
+        itemCache.evict(itemId);
+        return savedCommentDto;
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
     }
 }
@@ -0,0 +1,25 @@
+package ru.practicum.shareit.notification.controller;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.common.SharerUser;
+import ru.practicum.shareit.notification.service.NotificationHub;
+import ru.practicum.shareit.user.model.User;
+
+@RestController
+@RequestMapping("/notifications")
+public class NotificationController {
+    private final NotificationHub notificationHub;
+
+    public NotificationController(NotificationHub notificationHub) {
+        this.notificationHub = notificationHub;
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribe(@SharerUser User user) {
+        return notificationHub.subscribe(user.getId());
+    }
+}
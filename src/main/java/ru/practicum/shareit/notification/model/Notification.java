@@ -0,0 +1,12 @@
+package ru.practicum.shareit.notification.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class Notification {
+    private final long id;
+    private final NotificationType type;
+    private final Object payload;
+}
@@ -0,0 +1,8 @@
+package ru.practicum.shareit.notification.model;
+
+public enum NotificationType {
+    REQUEST_CREATED,
+    BOOKING_CREATED,
+    BOOKING_APPROVED,
+    BOOKING_REJECTED
+}
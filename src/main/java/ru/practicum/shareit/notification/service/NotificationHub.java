@@ -0,0 +1,230 @@
+package ru.practicum.shareit.notification.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.booking.event.BookingChangedEvent;
+import ru.practicum.shareit.notification.model.Notification;
+import ru.practicum.shareit.notification.model.NotificationType;
+import ru.practicum.shareit.request.dto.RequestDto;
+import ru.practicum.shareit.request.event.RequestCreatedEvent;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Slf4j
+@Component
+public class NotificationHub {
+    private final Map<Long, Set<Subscription>> subscriptions = new ConcurrentHashMap<>();
+    private final AtomicInteger subscribers = new AtomicInteger();
+    private final AtomicLong sequence = new AtomicLong();
+    private final ExecutorService senders;
+    private final long timeout;
+    private final int bufferSize;
+    private final Counter sent;
+    private final Counter dropped;
+
+    public NotificationHub(MeterRegistry meterRegistry,
+                           @Value("${shareit.notifications.senders:4}") int senders,
+                           @Value("${shareit.notifications.buffer-size:100}") int bufferSize,
+                           @Value("${shareit.notifications.timeout:30m}") Duration timeout) {
+        if (senders <= 0 || bufferSize <= 0) {
+            throw new IllegalArgumentException("Количество потоков и размер буфера уведомлений должны быть больше 0");
+        }
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.senders = Executors.newFixedThreadPool(senders, runnable -> {
+            Thread thread = new Thread(runnable, "notification-sender-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.bufferSize = bufferSize;
+        this.timeout = timeout.toMillis();
+        this.sent = Counter.builder("notifications.sent")
+                .description("Уведомления, отправленные подписчикам")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("notifications.dropped")
+                .description("Уведомления, вытесненные из переполненного буфера подписчика")
+                .register(meterRegistry);
+        Gauge.builder("notifications.subscribers", subscribers, AtomicInteger::get)
+                .description("Активные подписки на уведомления")
+                .register(meterRegistry);
+    }
+
+    public SseEmitter subscribe(Long userId) {
+        return subscribe(userId, new SseEmitter(timeout));
+    }
+
+    public SseEmitter subscribe(Long userId, SseEmitter emitter) {
+        Subscription subscription = new Subscription(userId, emitter, bufferSize);
+        subscriptions.compute(userId, (key, userSubscriptions) -> {
+            Set<Subscription> result = userSubscriptions != null ? userSubscriptions : ConcurrentHashMap.newKeySet();
+            result.add(subscription);
+            return result;
+        });
+        subscribers.incrementAndGet();
+        emitter.onCompletion(() -> unsubscribe(subscription));
+        emitter.onTimeout(() -> unsubscribe(subscription));
+        emitter.onError(e -> unsubscribe(subscription));
+        return emitter;
+    }
+
+    @TransactionalEventListener
+    public void onRequestCreated(RequestCreatedEvent event) {
+        RequestDto requestDto = RequestDto.builder()
+                .id(event.getRequestId())
+                .description(event.getDescription())
+                .created(event.getCreated())
+                .items(new ArrayList<>())
+                .build();
+        Notification notification = new Notification(sequence.incrementAndGet(), NotificationType.REQUEST_CREATED,
+                requestDto);
+        subscriptions.forEach((userId, userSubscriptions) -> {
+            if (!Objects.equals(userId, event.getRequestorId())) {
+                userSubscriptions.forEach(subscription -> deliver(subscription, notification));
+            }
+        });
+    }
+
+    @TransactionalEventListener
+    public void onBookingChanged(BookingChangedEvent event) {
+        switch (event.getBooking().getStatus()) {
+            case WAITING:
+                publish(event.getOwnerId(), NotificationType.BOOKING_CREATED, event.getBooking());
+                break;
+            case APPROVED:
+                publish(event.getBookerId(), NotificationType.BOOKING_APPROVED, event.getBooking());
+                break;
+            case REJECTED:
+                publish(event.getBookerId(), NotificationType.BOOKING_REJECTED, event.getBooking());
+                break;
+            default:
+                break;
+        }
+    }
+
+    public void publish(Long userId, NotificationType type, Object payload) {
+        Set<Subscription> userSubscriptions = subscriptions.get(userId);
+        if (userSubscriptions == null) {
+            return;
+        }
+        Notification notification = new Notification(sequence.incrementAndGet(), type, payload);
+        userSubscriptions.forEach(subscription -> deliver(subscription, notification));
+    }
+
+    public int subscriberCount() {
+        return subscribers.get();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        senders.shutdownNow();
+        subscriptions.values().forEach(userSubscriptions -> userSubscriptions.forEach(s -> s.emitter.complete()));
+    }
+
+    private void deliver(Subscription subscription, Notification notification) {
+        if (subscription.closed.get()) {
+            return;
+        }
+        if (!subscription.offer(notification)) {
+            dropped.increment();
+        }
+        schedule(subscription);
+    }
+
+    private void schedule(Subscription subscription) {
+        if (subscription.draining.compareAndSet(false, true)) {
+            try {
+                senders.execute(() -> drain(subscription));
+            } catch (RejectedExecutionException e) {
+                subscription.draining.set(false);
+            }
+        }
+    }
+
+    private void drain(Subscription subscription) {
+        try {
+            Notification notification = subscription.poll();
+            while (notification != null) {
+                subscription.emitter.send(SseEmitter.event()
+                        .id(String.valueOf(notification.getId()))
+                        .name(notification.getType().name())
+                        .data(notification.getPayload(), MediaType.APPLICATION_JSON));
+                sent.increment();
+                notification = subscription.poll();
+            }
+        } catch (Exception e) {
+            log.debug("Подписка пользователя {} на уведомления закрыта: {}", subscription.userId, e.getMessage());
+            unsubscribe(subscription);
+            subscription.emitter.completeWithError(e);
+            return;
+        } finally {
+            subscription.draining.set(false);
+        }
+        if (!subscription.isEmpty()) {
+            schedule(subscription);
+        }
+    }
+
+    private void unsubscribe(Subscription subscription) {
+        if (!subscription.closed.compareAndSet(false, true)) {
+            return;
+        }
+        subscriptions.computeIfPresent(subscription.userId, (userId, userSubscriptions) -> {
+            userSubscriptions.remove(subscription);
+            return userSubscriptions.isEmpty() ? null : userSubscriptions;
+        });
+        subscribers.decrementAndGet();
+    }
+
+    private static class Subscription {
+        private final Long userId;
+        private final SseEmitter emitter;
+        private final int capacity;
+        private final Deque<Notification> buffer = new ArrayDeque<>();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Subscription(Long userId, SseEmitter emitter, int capacity) {
+            this.userId = userId;
+            this.emitter = emitter;
+            this.capacity = capacity;
+        }
+
+        private synchronized boolean offer(Notification notification) {
+            boolean accepted = true;
+            if (buffer.size() == capacity) {
+                buffer.pollFirst();
+                accepted = false;
+            }
+            buffer.addLast(notification);
+            return accepted;
+        }
+
+        private synchronized Notification poll() {
+            return buffer.pollFirst();
+        }
+
+        private synchronized boolean isEmpty() {
+            return buffer.isEmpty();
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package ru.practicum.shareit.outbox.bus;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.outbox.model.OutboxEvent;
+import ru.practicum.shareit.outbox.model.OutboxOffset;
+import ru.practicum.shareit.outbox.repository.OutboxEventRepository;
+import ru.practicum.shareit.outbox.repository.OutboxOffsetRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Slf4j
+@Component
+public class EventBus {
+    private final Map<String, EventConsumer> consumers = new LinkedHashMap<>();
+    private final Map<String, AtomicLong> offsets = new HashMap<>();
+    private final Map<String, NavigableMap<Long, LocalDateTime>> gaps = new HashMap<>();
+    private final AtomicLong head = new AtomicLong();
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxOffsetRepository outboxOffsetRepository;
+    private final String node;
+    private final Duration settleTime;
+    private final Counter delivered;
+    private final Counter failed;
+
+    public EventBus(List<EventConsumer> consumers, OutboxEventRepository outboxEventRepository,
+                    OutboxOffsetRepository outboxOffsetRepository, MeterRegistry meterRegistry,
+                    @Value("${shareit.outbox.node-id:${HOSTNAME:local}}") String node,
+                    @Value("${shareit.outbox.relay.settle-time:5s}") Duration settleTime) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.outboxOffsetRepository = outboxOffsetRepository;
+        this.node = node;
+        this.settleTime = settleTime;
+        for (EventConsumer consumer : consumers) {
+            if (this.consumers.putIfAbsent(consumer.getName(), consumer) != null) {
+                throw new IllegalStateException(String.format("Получатель событий %s уже зарегистрирован",
+                        consumer.getName()));
+            }
+            AtomicLong offset = new AtomicLong();
+            offsets.put(consumer.getName(), offset);
+            gaps.put(consumer.getName(), new TreeMap<>());
+            Gauge.builder("outbox.consumer.lag", () -> Math.max(0, head.get() - offset.get()))
+                    .description("Количество событий, ещё не доставленных получателю")
+                    .tag("consumer", consumer.getName())
+                    .register(meterRegistry);
+        }
+        this.delivered = Counter.builder("outbox.events.delivered")
+                .description("События, доставленные получателям")
+                .register(meterRegistry);
+        this.failed = Counter.builder("outbox.events.failed")
+                .description("Ошибки получателей при обработке событий")
+                .register(meterRegistry);
+    }
+
+    public synchronized int dispatch(int batchSize) {
+        if (consumers.isEmpty()) {
+            return 0;
+        }
+        head.set(outboxEventRepository.findMaxId());
+        for (OutboxOffset offset : outboxOffsetRepository.findAllByNode(node)) {
+            AtomicLong stored = offsets.get(offset.getConsumer());
+            if (stored != null) {
+                stored.set(offset.getLastEventId());
+            }
+        }
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime settled = now.minus(settleTime);
+        int count = 0;
+        for (EventConsumer consumer : consumers.values()) {
+            count += dispatch(consumer, offsets.get(consumer.getName()), gaps.get(consumer.getName()), batchSize,
+                    now, settled);
+        }
+        return count;
+    }
+
+    public boolean hasConsumers() {
+        return !consumers.isEmpty();
+    }
+
+    public synchronized long consumedUpTo() {
+        return offsets.values()
+                .stream()
+                .mapToLong(AtomicLong::get)
+                .min()
+                .orElse(0);
+    }
+
+    private int dispatch(EventConsumer consumer, AtomicLong offset, NavigableMap<Long, LocalDateTime> gapsSeen,
+                         int batchSize, LocalDateTime now, LocalDateTime settled) {
+        long start = offset.get();
+        int count = 0;
+        for (OutboxEvent event : outboxEventRepository.findAllByIdGreaterThanOrderByIdAsc(start,
+                PageRequest.of(0, batchSize))) {
+            if (event.getId() != offset.get() + 1 && !firstSeen(gapsSeen, event.getId(), now).isBefore(settled)) {
+                break;
+            }
+            try {
+                consumer.accept(event);
+            } catch (RuntimeException e) {
+                failed.increment();
+                log.warn("Получатель {} не обработал событие {}: {}", consumer.getName(), event.getId(),
+                        e.getMessage());
+                break;
+            }
+            offset.set(event.getId());
+            delivered.increment();
+            count++;
+        }
+        gapsSeen.headMap(offset.get(), true).clear();
+        if (offset.get() != start) {
+            outboxOffsetRepository.save(new OutboxOffset(node, consumer.getName(), offset.get()));
+        }
+        return count;
+    }
+
+    private LocalDateTime firstSeen(NavigableMap<Long, LocalDateTime> gapsSeen, Long nextId, LocalDateTime now) {
+        gapsSeen.putIfAbsent(nextId, now);
+        return Collections.min(gapsSeen.tailMap(nextId, true).values());
+    }
+}
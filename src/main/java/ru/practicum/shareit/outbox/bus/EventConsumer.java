@@ -0,0 +1,9 @@
+package ru.practicum.shareit.outbox.bus;
+
+import ru.practicum.shareit.outbox.model.OutboxEvent;
+
+public interface EventConsumer {
+    String getName();
+
+    void accept(OutboxEvent event);
+}
@@ -0,0 +1,58 @@
+package ru.practicum.shareit.outbox.bus;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.outbox.repository.OutboxEventRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+@Component
+@ConditionalOnProperty(name = "shareit.outbox.relay.enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxRelay {
+    private final EventBus eventBus;
+    private final OutboxEventRepository outboxEventRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxBatches;
+    private final Duration retention;
+
+    public OutboxRelay(EventBus eventBus, OutboxEventRepository outboxEventRepository,
+                       PlatformTransactionManager transactionManager,
+                       @Value("${shareit.outbox.relay.batch-size:500}") int batchSize,
+                       @Value("${shareit.outbox.relay.max-batches:10}") int maxBatches,
+                       @Value("${shareit.outbox.relay.retention:PT1H}") Duration retention) {
+        if (batchSize <= 0 || maxBatches <= 0) {
+            throw new IllegalArgumentException("Размер и количество пакетов должны быть больше 0");
+        }
+        this.eventBus = eventBus;
+        this.outboxEventRepository = outboxEventRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxBatches = maxBatches;
+        this.retention = retention;
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.outbox.relay.interval:PT1S}")
+    public int relay() {
+        int total = 0;
+        for (int batch = 0; batch < maxBatches; batch++) {
+            int delivered = eventBus.dispatch(batchSize);
+            if (delivered == 0) {
+                break;
+            }
+            total += delivered;
+        }
+        long consumed = eventBus.hasConsumers() ? eventBus.consumedUpTo() : Long.MAX_VALUE;
+        if (consumed > 0) {
+            LocalDateTime expired = LocalDateTime.now().minus(retention);
+            transactionTemplate.executeWithoutResult(status ->
+                    outboxEventRepository.deleteAllByIdLessThanEqualAndCreatedBefore(consumed, expired));
+        }
+        return total;
+    }
+}
@@ -0,0 +1,16 @@
+package ru.practicum.shareit.outbox.model;
+
+public enum DomainEventType {
+    USER_CREATED,
+    USER_UPDATED,
+    USER_DELETED,
+    ITEM_CREATED,
+    ITEM_UPDATED,
+    ITEM_DELETED,
+    BOOKING_CREATED,
+    BOOKING_APPROVED,
+    BOOKING_REJECTED,
+    BOOKING_EXPIRED,
+    COMMENT_CREATED,
+    REQUEST_CREATED
+}
@@ -0,0 +1,26 @@
+package ru.practicum.shareit.outbox.model;
+
+import lombok.*;
+
+import javax.persistence.*;
+
+@Entity
+@Table(name = "outbox_offsets")
+@IdClass(OutboxOffsetId.class)
+@Setter
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxOffset {
+    @Id
+    @Column(name = "node", length = 100)
+    private String node;
+
+    @Id
+    @Column(name = "consumer", length = 100)
+    private String consumer;
+
+    @Column(name = "last_event_id", nullable = false)
+    private Long lastEventId;
+}
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.outbox.model;
+
+import lombok.*;
+
+import java.io.Serializable;
+
+@Getter
+@Setter
+@EqualsAndHashCode
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxOffsetId implements Serializable {
+    private String node;
+    private String consumer;
+}
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.outbox.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.outbox.model.OutboxEvent;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+    List<OutboxEvent> findAllByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    @Query("SELECT COALESCE(MAX(e.id), 0) FROM OutboxEvent e")
+    Long findMaxId();
+
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.id <= :id AND e.created < :created")
+    int deleteAllByIdLessThanEqualAndCreatedBefore(@Param("id") Long id, @Param("created") LocalDateTime created);
+}
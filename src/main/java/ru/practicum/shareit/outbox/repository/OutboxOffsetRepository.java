@@ -0,0 +1,11 @@
+package ru.practicum.shareit.outbox.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import ru.practicum.shareit.outbox.model.OutboxOffset;
+import ru.practicum.shareit.outbox.model.OutboxOffsetId;
+
+import java.util.List;
+
+public interface OutboxOffsetRepository extends JpaRepository<OutboxOffset, OutboxOffsetId> {
+    List<OutboxOffset> findAllByNode(String node);
+}
@@ -0,0 +1,47 @@
+package ru.practicum.shareit.outbox.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.outbox.model.DomainEventType;
+import ru.practicum.shareit.outbox.model.OutboxEvent;
+import ru.practicum.shareit.outbox.repository.OutboxEventRepository;
+
+import java.time.LocalDateTime;
+
+@Component
+public class OutboxWriter {
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+
+    public OutboxWriter(OutboxEventRepository outboxEventRepository, ObjectMapper objectMapper,
+                        @Value("${shareit.outbox.enabled:true}") boolean enabled) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(DomainEventType type, Long aggregateId, Object payload) {
+        if (!enabled) {
+            return;
+        }
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(String.format("Не удалось сериализовать событие %s для id %d",
+                    type, aggregateId), e);
+        }
+        outboxEventRepository.save(OutboxEvent.builder()
+                .type(type)
+                .aggregateId(aggregateId)
+                .payload(json)
+                .created(LocalDateTime.now())
+                .build());
+    }
+}
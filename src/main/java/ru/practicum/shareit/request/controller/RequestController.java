@@ -1,9 +1,14 @@
 package ru.practicum.shareit.request.controller;
 
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.common.CursorPage;
+import ru.practicum.shareit.common.SharerUser;
 import ru.practicum.shareit.request.dto.RequestDto;
+import ru.practicum.shareit.request.dto.RequestMatchDto;
 import ru.practicum.shareit.request.service.RequestService;
+import ru.practicum.shareit.user.model.User;
 
 import javax.validation.Valid;
 import javax.validation.constraints.NotNull;
@@ -13,6 +18,7 @@ import java.util.List;
 @RestController
 @RequestMapping("/requests")
 public class RequestController {
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
     private final RequestService requestService;
 
     public RequestController(RequestService requestService) {
@@ -20,27 +26,43 @@ public class RequestController {
     }
 
     @PostMapping
-    public RequestDto add(@RequestHeader("X-Sharer-User-Id") Long userId,
+    public RequestDto add(@SharerUser User user,
                           @NotNull @Valid @RequestBody RequestDto requestDto) {
-        return requestService.add(userId, requestDto);
+        return requestService.add(user, requestDto);
     }
 
     @GetMapping
-    public List<RequestDto> findAllByUserId(@RequestHeader("X-Sharer-User-Id") Long userId) {
-        return requestService.findAllByUserId(userId);
+    public List<RequestDto> findAllByUserId(@SharerUser User user) {
+        return requestService.findAllByUserId(user);
     }
 
     @GetMapping("/all")
-    public List<RequestDto> findAll(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                    @RequestParam(defaultValue = "0") int from,
-                                    @RequestParam(defaultValue = "10") int size) {
-        return requestService.findAll(userId, from, size);
+    public ResponseEntity<List<RequestDto>> findAll(@SharerUser User user,
+                                                    @RequestParam(defaultValue = "0") int from,
+                                                    @RequestParam(defaultValue = "10") int size,
+                                                    @RequestParam(required = false) String cursor) {
+        if (cursor == null) {
+            return ResponseEntity.ok(requestService.findAll(user, from, size));
+        }
+        CursorPage<RequestDto> page = requestService.findAll(user, cursor, size);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getContent());
+    }
+
+    @GetMapping("/matches")
+    public List<RequestMatchDto> findMatches(@SharerUser User user,
+                                             @RequestParam(defaultValue = "0") int from,
+                                             @RequestParam(defaultValue = "10") int size) {
+        return requestService.findMatches(user, from, size);
     }
 
     @GetMapping("/{id}")
-    public RequestDto findById(@RequestHeader("X-Sharer-User-Id") Long userId,
+    public RequestDto findById(@SharerUser User user,
                                @PathVariable Long id) {
-        return requestService.findById(userId, id);
+        return requestService.findById(user, id);
     }
 
 }
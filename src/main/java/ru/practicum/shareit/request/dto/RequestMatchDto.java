@@ -0,0 +1,19 @@
+package ru.practicum.shareit.request.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Builder
+@AllArgsConstructor
+public class RequestMatchDto {
+    private Long requestId;
+    private String description;
+    private LocalDateTime created;
+    private Long itemId;
+    private String itemName;
+    private Double score;
+}
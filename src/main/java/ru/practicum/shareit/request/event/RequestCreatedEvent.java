@@ -0,0 +1,15 @@
+package ru.practicum.shareit.request.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@AllArgsConstructor
+public class RequestCreatedEvent {
+    private final Long requestId;
+    private final Long requestorId;
+    private final String description;
+    private final LocalDateTime created;
+}
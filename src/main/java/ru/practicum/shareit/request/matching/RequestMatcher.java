@@ -0,0 +1,93 @@
+package ru.practicum.shareit.request.matching;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemTokenIndex;
+import ru.practicum.shareit.item.search.ItemTokenizer;
+import ru.practicum.shareit.item.search.index.ItemScore;
+import ru.practicum.shareit.request.event.RequestCreatedEvent;
+import ru.practicum.shareit.request.model.Request;
+import ru.practicum.shareit.request.model.RequestMatch;
+import ru.practicum.shareit.request.repository.RequestMatchRepository;
+import ru.practicum.shareit.request.repository.RequestRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Component
+public class RequestMatcher {
+    private final ItemTokenIndex itemTokenIndex;
+    private final RequestRepository requestRepository;
+    private final ItemRepository itemRepository;
+    private final RequestMatchRepository requestMatchRepository;
+    private final Counter stored;
+    private final int maxCandidates;
+
+    public RequestMatcher(ItemTokenIndex itemTokenIndex, RequestRepository requestRepository,
+                          ItemRepository itemRepository, RequestMatchRepository requestMatchRepository,
+                          MeterRegistry meterRegistry,
+                          @Value("${shareit.request.matching.max-candidates:20}") int maxCandidates) {
+        this.itemTokenIndex = itemTokenIndex;
+        this.requestRepository = requestRepository;
+        this.itemRepository = itemRepository;
+        this.requestMatchRepository = requestMatchRepository;
+        this.stored = Counter.builder("requests.matches.stored")
+                .description("Сохранённые пары запрос-вещь")
+                .register(meterRegistry);
+        this.maxCandidates = maxCandidates;
+    }
+
+    @Async
+    @TransactionalEventListener
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onRequestCreated(RequestCreatedEvent event) {
+        match(event);
+    }
+
+    public List<RequestMatch> match(RequestCreatedEvent event) {
+        List<ItemScore> candidates = itemTokenIndex.match(ItemTokenizer.tokenize(event.getDescription()),
+                event.getRequestorId(), maxCandidates);
+        if (candidates.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Item> itemsById = new HashMap<>(candidates.size());
+        for (Item item : itemRepository.findAllById(candidates.stream()
+                .map(ItemScore::getItemId)
+                .collect(Collectors.toList()))) {
+            itemsById.put(item.getId(), item);
+        }
+        Request request = requestRepository.getReferenceById(event.getRequestId());
+        LocalDateTime created = LocalDateTime.now();
+        List<RequestMatch> matches = new ArrayList<>(candidates.size());
+        for (ItemScore candidate : candidates) {
+            Item item = itemsById.get(candidate.getItemId());
+            if (item == null) {
+                continue;
+            }
+            matches.add(RequestMatch.builder()
+                    .request(request)
+                    .item(item)
+                    .score(candidate.getScore())
+                    .created(created)
+                    .build());
+        }
+        List<RequestMatch> saved = requestMatchRepository.saveAll(matches);
+        stored.increment(saved.size());
+        log.info("Для запроса с id {} найдено {} подходящих вещей", event.getRequestId(), saved.size());
+        return saved;
+    }
+}
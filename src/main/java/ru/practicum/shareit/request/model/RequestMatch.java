@@ -0,0 +1,35 @@
+package ru.practicum.shareit.request.model;
+
+import lombok.*;
+import ru.practicum.shareit.item.model.Item;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "request_matches")
+@Setter
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RequestMatch {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "request_id")
+    private Request request;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "item_id")
+    private Item item;
+
+    @Column(name = "score", nullable = false)
+    private Double score;
+
+    @Column(name = "created", nullable = false)
+    private LocalDateTime created;
+}
@@ -0,0 +1,18 @@
+package ru.practicum.shareit.request.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.request.dto.RequestMatchDto;
+import ru.practicum.shareit.request.model.RequestMatch;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.List;
+
+public interface RequestMatchRepository extends JpaRepository<RequestMatch, Long> {
+    @Query("SELECT new ru.practicum.shareit.request.dto.RequestMatchDto(r.id, r.description, r.created, "
+            + "i.id, i.name, m.score) FROM RequestMatch m JOIN m.request r JOIN m.item i "
+            + "WHERE i.owner = :owner ORDER BY m.score DESC, m.id DESC")
+    List<RequestMatchDto> findAllByOwner(@Param("owner") User owner, Pageable pageable);
+}
@@ -3,13 +3,28 @@ package ru.practicum.shareit.request.repository;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.common.SeekCursor;
 import ru.practicum.shareit.request.model.Request;
 import ru.practicum.shareit.user.model.User;
 
+import javax.persistence.QueryHint;
 import java.util.List;
 
 public interface RequestRepository extends JpaRepository<Request, Long> {
+    @QueryHints({
+            @QueryHint(name = "org.hibernate.cacheable", value = "true"),
+            @QueryHint(name = "org.hibernate.cacheRegion", value = "requests-by-requestor")
+    })
     List<Request> findAllByRequestor(User requestor, Sort sort);
 
     List<Request> findAllByRequestorNot(User requestor, Pageable pageable);
+
+    @Query("SELECT r FROM Request r WHERE r.requestor <> :requestor "
+            + "AND (r.created < :#{#cursor.moment} OR (r.created = :#{#cursor.moment} AND r.id < :#{#cursor.id})) "
+            + "ORDER BY r.created DESC, r.id DESC")
+    List<Request> findAllByRequestorNotAfterCursor(@Param("requestor") User requestor,
+                                                   @Param("cursor") SeekCursor cursor, Pageable pageable);
 }
@@ -1,15 +1,22 @@
 package ru.practicum.shareit.request.service;
 
+import ru.practicum.shareit.common.CursorPage;
 import ru.practicum.shareit.request.dto.RequestDto;
+import ru.practicum.shareit.request.dto.RequestMatchDto;
+import ru.practicum.shareit.user.model.User;
 
 import java.util.List;
 
 public interface RequestService {
-    RequestDto add(Long userId, RequestDto requestDto);
+    RequestDto add(User user, RequestDto requestDto);
 
-    List<RequestDto> findAllByUserId(Long userId);
+    List<RequestDto> findAllByUserId(User user);
 
-    List<RequestDto> findAll(Long userId, int from, int size);
+    List<RequestDto> findAll(User user, int from, int size);
 
-    RequestDto findById(Long userId, Long id);
+    CursorPage<RequestDto> findAll(User user, String cursor, int size);
+
+    RequestDto findById(User user, Long id);
+
+    List<RequestMatchDto> findMatches(User owner, int from, int size);
 }
@@ -1,92 +1,86 @@
 package ru.practicum.shareit.request.service.impl;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.common.CursorPage;
+import ru.practicum.shareit.common.SeekCursor;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.outbox.model.DomainEventType;
+import ru.practicum.shareit.outbox.service.OutboxWriter;
 import ru.practicum.shareit.request.dto.RequestDto;
+import ru.practicum.shareit.request.dto.RequestMatchDto;
+import ru.practicum.shareit.request.event.RequestCreatedEvent;
 import ru.practicum.shareit.request.exception.RequestNotFoundException;
 import ru.practicum.shareit.request.exception.RequestValidationException;
 import ru.practicum.shareit.request.mapper.RequestMapper;
 import ru.practicum.shareit.request.model.Request;
+import ru.practicum.shareit.request.repository.RequestMatchRepository;
 import ru.practicum.shareit.request.repository.RequestRepository;
 import ru.practicum.shareit.request.service.RequestService;
-import ru.practicum.shareit.user.exception.UserNotFoundException;
 import ru.practicum.shareit.user.model.User;
-import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 public class RequestServiceImpl implements RequestService {
-    private final UserRepository userRepository;
     private final RequestRepository requestRepository;
     private final ItemRepository itemRepository;
+    private final RequestMatchRepository requestMatchRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final OutboxWriter outboxWriter;
 
     private final Sort byCreatedDESC = Sort.by(Sort.Direction.DESC, "created");
     private final Sort byId = Sort.by(Sort.Direction.ASC, "id");
 
-    public RequestServiceImpl(UserRepository userRepository, RequestRepository requestRepository,
-                              ItemRepository itemRepository) {
-        this.userRepository = userRepository;
+    public RequestServiceImpl(RequestRepository requestRepository, ItemRepository itemRepository,
+                              RequestMatchRepository requestMatchRepository, ApplicationEventPublisher eventPublisher,
+                              OutboxWriter outboxWriter) {
         this.requestRepository = requestRepository;
         this.itemRepository = itemRepository;
+        this.requestMatchRepository = requestMatchRepository;
+        this.eventPublisher = eventPublisher;
+        this.outboxWriter = outboxWriter;
     }
 
     @Transactional
     @Override
-    public RequestDto add(Long userId, RequestDto requestDto) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new UserNotFoundException(String.format("Пользователь с id %d не найден", userId)));
+    public RequestDto add(User user, RequestDto requestDto) {
         Request request = RequestMapper.toRequest(requestDto);
         request.setRequestor(user);
-        request.setCreated(LocalDateTime.now());
-        return RequestMapper.toDto(requestRepository.save(request));
+        request.setCreated(LocalDateTime.now().truncatedTo(ChronoUnit.MICROS));
+        Request savedRequest = requestRepository.save(request);
+        RequestDto savedRequestDto = RequestMapper.toDto(savedRequest);
+        outboxWriter.append(DomainEventType.REQUEST_CREATED, savedRequest.getId(), savedRequestDto);
+        eventPublisher.publishEvent(new RequestCreatedEvent(savedRequest.getId(), user.getId(),
+                savedRequest.getDescription(), savedRequest.getCreated()));
+        return savedRequestDto;
     }
 
     @Transactional(readOnly = true)
     @Override
-    public List<RequestDto> findAllByUserId(Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new UserNotFoundException(String.format("Пользователь с id %d не найден", userId)));
-
+    public List<RequestDto> findAllByUserId(User user) {
         List<Request> requests = requestRepository.findAllByRequestor(user, byCreatedDESC);
-        List<RequestDto> requestDtos = requests
-                .stream()
-                .map(RequestMapper::toDto)
-                .collect(Collectors.toList());
-
-        List<Item> items = itemRepository.findAllByRequestIn(requests, byId);
-        List<ItemDto> itemDtos = items
-                .stream()
-                .map(ItemMapper::toDto)
-                .collect(Collectors.toList());
-
-        for (RequestDto requestDto : requestDtos) {
-            List<ItemDto> curItemDtos = itemDtos
-                    .stream()
-                    .filter(itemDto -> itemDto.getRequestId().equals(requestDto.getId()))
-                    .collect(Collectors.toList());
-            requestDto.setItems(curItemDtos);
-        }
-
-        return requestDtos;
+        return toDtosWithItems(requests);
     }
 
     @Transactional(readOnly = true)
     @Override
-    public List<RequestDto> findAll(Long userId, int from, int size) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new UserNotFoundException(String.format("Пользователь с id %d не найден", userId)));
+    public List<RequestDto> findAll(User user, int from, int size) {
         if (from < 0) {
             throw new RequestValidationException("Минимальное значение записи, с которой можно получить данные равно 0");
         }
@@ -95,34 +89,29 @@ public class RequestServiceImpl implements RequestService {
         }
         Pageable pageable = PageRequest.of(from > 0 ? from / size : 0, size, byCreatedDESC);
         List<Request> requests = requestRepository.findAllByRequestorNot(user, pageable);
-        List<RequestDto> requestDtos = requests
-                .stream()
-                .map(RequestMapper::toDto)
-                .collect(Collectors.toList());
-
-        List<Item> items = itemRepository.findAllByRequestIn(requests, byId);
-        List<ItemDto> itemDtos = items
-                .stream()
-                .map(ItemMapper::toDto)
-                .collect(Collectors.toList());
+        return toDtosWithItems(requests);
+    }
 
-        for (RequestDto requestDto : requestDtos) {
-            List<ItemDto> curItemDtos = itemDtos
-                    .stream()
-                    .filter(itemDto -> itemDto.getRequestId().equals(requestDto.getId()))
-                    .collect(Collectors.toList());
-            requestDto.setItems(curItemDtos);
+    @Transactional(readOnly = true)
+    @Override
+    public CursorPage<RequestDto> findAll(User user, String cursor, int size) {
+        if (size <= 0) {
+            throw new RequestValidationException("Количество записей на странице должно быть больше 0");
         }
-
-        return requestDtos;
+        List<Request> requests = requestRepository.findAllByRequestorNotAfterCursor(user, SeekCursor.decode(cursor),
+                PageRequest.of(0, size + 1));
+        String nextCursor = null;
+        if (requests.size() > size) {
+            requests = requests.subList(0, size);
+            Request last = requests.get(size - 1);
+            nextCursor = new SeekCursor(last.getCreated(), last.getId()).encode();
+        }
+        return new CursorPage<>(toDtosWithItems(requests), nextCursor);
     }
 
     @Transactional(readOnly = true)
     @Override
-    public RequestDto findById(Long userId, Long id) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new UserNotFoundException(String.format("Пользователь с id %d не найден", userId)));
-
+    public RequestDto findById(User user, Long id) {
         Request request = requestRepository.findById(id)
                 .orElseThrow(() -> new RequestNotFoundException(String.format("Запрос с id %d не найден", id)));
         RequestDto requestDto = RequestMapper.toDto(request);
@@ -136,4 +125,41 @@ public class RequestServiceImpl implements RequestService {
 
         return requestDto;
     }
+
+    @Transactional(readOnly = true)
+    @Override
+    public List<RequestMatchDto> findMatches(User owner, int from, int size) {
+        if (from < 0) {
+            throw new RequestValidationException("Минимальное значение записи, с которой можно получить данные равно 0");
+        }
+        if (size <= 0) {
+            throw new RequestValidationException("Количество записей на странице должно быть больше 0");
+        }
+        return requestMatchRepository.findAllByOwner(owner, PageRequest.of(from / size, size));
+    }
+
+    private List<RequestDto> toDtosWithItems(List<Request> requests) {
+        Map<Long, List<ItemDto>> itemsByRequestId = new HashMap<>((int) (requests.size() / 0.75f) + 1);
+        List<RequestDto> requestDtos = new ArrayList<>(requests.size());
+        for (Request request : requests) {
+            RequestDto requestDto = RequestMapper.toDto(request);
+            List<ItemDto> itemDtos = new ArrayList<>();
+            requestDto.setItems(itemDtos);
+            itemsByRequestId.put(requestDto.getId(), itemDtos);
+            requestDtos.add(requestDto);
+        }
+        if (requests.isEmpty()) {
+            return requestDtos;
+        }
+
+        for (Item item : itemRepository.findAllByRequestIn(requests, byId)) {
+            ItemDto itemDto = ItemMapper.toDto(item);
+            List<ItemDto> itemDtos = itemsByRequestId.get(itemDto.getRequestId());
+            if (itemDtos != null) {
+                itemDtos.add(itemDto);
+            }
+        }
+
+        return requestDtos;
+    }
 }
@@ -0,0 +1,66 @@
+package ru.practicum.shareit.user.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.Duration;
+import java.util.Optional;
+
+@Component
+public class UserCache {
+    private final UserRepository userRepository;
+    private final Cache<Long, User> cache;
+
+    public UserCache(UserRepository userRepository, MeterRegistry meterRegistry,
+                     @Value("${shareit.cache.users.max-size:10000}") long maxSize,
+                     @Value("${shareit.cache.users.ttl:10m}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "users");
+    }
+
+    public Optional<User> findById(Long id) {
+        User user = cache.getIfPresent(id);
+        if (user == null) {
+            Optional<User> loaded = userRepository.findById(id);
+            if (loaded.isEmpty()) {
+                return Optional.empty();
+            }
+            user = copy(loaded.get());
+            cache.put(id, user);
+        }
+        return Optional.of(copy(user));
+    }
+
+    public void evict(Long id) {
+        cache.invalidate(id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.invalidate(id);
+                }
+            });
+        }
+    }
+
+    private User copy(User user) {
+        return User.builder()
+                .id(user.getId())
+                .name(user.getName())
+                .email(user.getEmail())
+                .build();
+    }
+}
@@ -0,0 +1,42 @@
+package ru.practicum.shareit.user.cache;
+
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.outbox.bus.EventConsumer;
+import ru.practicum.shareit.outbox.model.DomainEventType;
+import ru.practicum.shareit.outbox.model.OutboxEvent;
+import ru.practicum.shareit.request.model.Request;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.Cache;
+import javax.persistence.EntityManagerFactory;
+
+@Component
+public class UserCacheConsumer implements EventConsumer {
+    private final UserCache userCache;
+    private final EntityManagerFactory entityManagerFactory;
+
+    public UserCacheConsumer(UserCache userCache, EntityManagerFactory entityManagerFactory) {
+        this.userCache = userCache;
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @Override
+    public String getName() {
+        return "user-cache";
+    }
+
+    @Override
+    public void accept(OutboxEvent event) {
+        if (event.getType() != DomainEventType.USER_UPDATED && event.getType() != DomainEventType.USER_DELETED) {
+            return;
+        }
+        Cache secondLevelCache = entityManagerFactory.getCache();
+        secondLevelCache.evict(User.class, event.getAggregateId());
+        if (event.getType() == DomainEventType.USER_DELETED) {
+            secondLevelCache.evict(Item.class);
+            secondLevelCache.evict(Request.class);
+        }
+        userCache.evict(event.getAggregateId());
+    }
+}
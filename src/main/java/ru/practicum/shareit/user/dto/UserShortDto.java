@@ -0,0 +1,13 @@
+package ru.practicum.shareit.user.dto;
+
+import lombok.*;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class UserShortDto {
+    private Long id;
+    private String name;
+}
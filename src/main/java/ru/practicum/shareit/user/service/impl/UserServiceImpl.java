@@ -1,7 +1,20 @@
 package ru.practicum.shareit.user.service.impl;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.cache.ItemCache;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.outbox.model.DomainEventType;
+import ru.practicum.shareit.outbox.service.OutboxWriter;
+import ru.practicum.shareit.request.model.Request;
+import ru.practicum.shareit.user.cache.UserCache;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.exception.UserNotFoundException;
 import ru.practicum.shareit.user.mapper.UserMapper;
@@ -9,15 +22,35 @@ import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 import ru.practicum.shareit.user.service.UserService;
 
+import javax.persistence.EntityManagerFactory;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
+    private final UserCache userCache;
+    private final ItemCache itemCache;
+    private final EntityManagerFactory entityManagerFactory;
+    private final OutboxWriter outboxWriter;
+    private final ItemRepository itemRepository;
+    private final CommentRepository commentRepository;
+    private final BookingRepository bookingRepository;
 
-    public UserServiceImpl(UserRepository userRepository) {
+    public UserServiceImpl(UserRepository userRepository, UserCache userCache, ItemCache itemCache,
+                           EntityManagerFactory entityManagerFactory, OutboxWriter outboxWriter,
+                           ItemRepository itemRepository, CommentRepository commentRepository,
+                           BookingRepository bookingRepository) {
         this.userRepository = userRepository;
+        this.itemRepository = itemRepository;
+        this.commentRepository = commentRepository;
+        this.bookingRepository = bookingRepository;
+        this.userCache = userCache;
+        this.itemCache = itemCache;
+        this.entityManagerFactory = entityManagerFactory;
+        this.outboxWriter = outboxWriter;
     }
 
     @Override
@@ -35,18 +68,38 @@ public class UserServiceImpl implements UserService {
         return UserMapper.toDto(user);
     }
 
+    @Transactional
     @Override
     public UserDto add(UserDto userDto) {
         User user = UserMapper.toUser(userDto);
-        return UserMapper.toDto(userRepository.save(user));
+        UserDto savedUserDto = UserMapper.toDto(userRepository.save(user));
+        outboxWriter.append(DomainEventType.USER_CREATED, savedUserDto.getId(), savedUserDto);
+        return savedUserDto;
     }
 
     @Transactional
     @Override
     public void remove(Long id) {
-        userRepository.findById(id)
+        User user = userRepository.findById(id)
                 .orElseThrow(() -> new UserNotFoundException(String.format("Пользователь с id %d не найден", id)));
+        Set<Long> ownedIds = new HashSet<>();
+        for (Item item : itemRepository.findAllByOwner(user, Pageable.unpaged())) {
+            ownedIds.add(item.getId());
+            outboxWriter.append(DomainEventType.ITEM_DELETED, item.getId(), ItemMapper.toDto(item));
+        }
+        Set<Long> touchedIds = new HashSet<>(commentRepository.findItemIdsByAuthorId(id));
+        touchedIds.addAll(bookingRepository.findItemIdsByBookerId(id));
+        touchedIds.removeAll(ownedIds);
+        if (!touchedIds.isEmpty()) {
+            for (Item item : itemRepository.findAllById(touchedIds)) {
+                outboxWriter.append(DomainEventType.ITEM_UPDATED, item.getId(), ItemMapper.toDto(item));
+            }
+        }
+        itemCache.evictUser(id);
         userRepository.deleteById(id);
+        outboxWriter.append(DomainEventType.USER_DELETED, id, UserMapper.toDto(user));
+        userCache.evict(id);
+        evictCascadedEntities();
     }
 
     @Transactional
@@ -54,12 +107,33 @@ public class UserServiceImpl implements UserService {
     public UserDto update(Long id, UserDto userDto) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new UserNotFoundException(String.format("Пользователь с id %d не найден", id)));
+        boolean nameChanged = userDto.getName() != null && !userDto.getName().equals(user.getName());
         if (userDto.getName() != null) {
             user.setName(userDto.getName());
         }
         if (userDto.getEmail() != null) {
             user.setEmail(userDto.getEmail());
         }
-        return UserMapper.toDto(userRepository.save(user));
+        UserDto savedUserDto = UserMapper.toDto(userRepository.save(user));
+        outboxWriter.append(DomainEventType.USER_UPDATED, id, savedUserDto);
+        userCache.evict(id);
+        if (nameChanged) {
+            itemCache.evictCommentedBy(id);
+        }
+        return savedUserDto;
+    }
+
+    private void evictCascadedEntities() {
+        entityManagerFactory.getCache().evict(Item.class);
+        entityManagerFactory.getCache().evict(Request.class);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    entityManagerFactory.getCache().evict(Item.class);
+                    entityManagerFactory.getCache().evict(Request.class);
+                }
+            });
+        }
     }
 }
@@ -1,9 +1,3 @@
-DROP TABLE IF EXISTS comments;
-DROP TABLE IF EXISTS bookings;
-DROP TABLE IF EXISTS items;
-DROP TABLE IF EXISTS requests;
-DROP TABLE IF EXISTS users;
-
 CREATE TABLE IF NOT EXISTS users
 (
 id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY NOT NULL,
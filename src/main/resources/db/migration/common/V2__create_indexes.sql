@@ -0,0 +1,19 @@
+CREATE INDEX IF NOT EXISTS bookings_booker_start_idx ON bookings (booker_id, start_date DESC);
+
+CREATE INDEX IF NOT EXISTS bookings_booker_end_idx ON bookings (booker_id, end_date DESC);
+
+CREATE INDEX IF NOT EXISTS bookings_booker_status_start_idx ON bookings (booker_id, status, start_date DESC);
+
+CREATE INDEX IF NOT EXISTS bookings_item_start_idx ON bookings (item_id, start_date DESC);
+
+CREATE INDEX IF NOT EXISTS bookings_item_status_start_idx ON bookings (item_id, status, start_date);
+
+CREATE INDEX IF NOT EXISTS bookings_item_booker_status_end_idx ON bookings (item_id, booker_id, status, end_date);
+
+CREATE INDEX IF NOT EXISTS items_owner_id_idx ON items (owner_id, id);
+
+CREATE INDEX IF NOT EXISTS items_request_id_idx ON items (request_id);
+
+CREATE INDEX IF NOT EXISTS comments_item_created_idx ON comments (item_id, created);
+
+CREATE INDEX IF NOT EXISTS requests_requestor_created_idx ON requests (requestor_id, created DESC);
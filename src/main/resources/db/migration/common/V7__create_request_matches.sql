@@ -0,0 +1,11 @@
+CREATE TABLE IF NOT EXISTS request_matches
+(
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY NOT NULL,
+    request_id BIGINT NOT NULL REFERENCES requests(id) ON DELETE CASCADE,
+    item_id BIGINT NOT NULL REFERENCES items(id) ON DELETE CASCADE,
+    score DOUBLE PRECISION NOT NULL,
+    created TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    UNIQUE (request_id, item_id)
+);
+
+CREATE INDEX IF NOT EXISTS request_matches_item_score_idx ON request_matches (item_id, score DESC);
@@ -0,0 +1,16 @@
+CREATE TABLE IF NOT EXISTS outbox_events
+(
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY NOT NULL,
+    event_type VARCHAR(30) NOT NULL,
+    aggregate_id BIGINT NOT NULL,
+    payload TEXT NOT NULL,
+    created TIMESTAMP WITHOUT TIME ZONE NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS outbox_offsets
+(
+    node VARCHAR(100) NOT NULL,
+    consumer VARCHAR(100) NOT NULL,
+    last_event_id BIGINT NOT NULL,
+    PRIMARY KEY (node, consumer)
+);
@@ -0,0 +1 @@
+CREATE INDEX IF NOT EXISTS comments_author_item_idx ON comments (author_id, item_id);
@@ -0,0 +1,8 @@
+CREATE INDEX IF NOT EXISTS items_search_idx ON items USING GIN
+    ((setweight(to_tsvector('simple', name), 'A') || setweight(to_tsvector('simple', description), 'B')));
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS items_name_trgm_idx ON items USING GIN (UPPER(name) gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS items_description_trgm_idx ON items USING GIN (UPPER(description) gin_trgm_ops);
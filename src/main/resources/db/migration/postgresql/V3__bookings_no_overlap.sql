@@ -0,0 +1,28 @@
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+DO $$
+DECLARE
+    current_item BIGINT;
+    kept_end TIMESTAMP WITHOUT TIME ZONE;
+    booking RECORD;
+BEGIN
+    FOR booking IN
+        SELECT id, item_id, start_date, end_date
+        FROM bookings
+        WHERE status IN ('WAITING', 'APPROVED')
+        ORDER BY item_id, start_date, id
+    LOOP
+        IF current_item IS DISTINCT FROM booking.item_id THEN
+            current_item := booking.item_id;
+            kept_end := booking.end_date;
+        ELSIF booking.start_date < kept_end THEN
+            UPDATE bookings SET status = 'CANCELED' WHERE id = booking.id;
+        ELSE
+            kept_end := booking.end_date;
+        END IF;
+    END LOOP;
+END $$;
+
+ALTER TABLE bookings ADD CONSTRAINT bookings_item_no_overlap
+    EXCLUDE USING gist (item_id WITH =, tsrange(start_date, end_date, '[)') WITH &&)
+    WHERE (status IN ('WAITING', 'APPROVED'));
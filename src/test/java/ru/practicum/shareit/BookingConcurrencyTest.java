@@ -0,0 +1,166 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.dto.BookingDtoIn;
+import ru.practicum.shareit.booking.exception.BookingValidationException;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+public class BookingConcurrencyTest {
+    private static final int THREADS = 8;
+    private static final int BOOKINGS_PER_THREAD = 10;
+    @Autowired
+    BookingService bookingService;
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    ItemRepository itemRepository;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+    private User owner;
+    private User booker;
+    private LocalDateTime start;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(User.builder()
+                .name("owner")
+                .email("stress-owner@user.com")
+                .build());
+        booker = userRepository.save(User.builder()
+                .name("booker")
+                .email("stress-booker@user.com")
+                .build());
+        start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM users");
+    }
+
+    @Test
+    void add_whenSameItemAndSameInterval_thenOnlyOneBookingAccepted() throws Exception {
+        Item item = item(0);
+        AtomicInteger accepted = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+
+        runConcurrently(thread -> {
+            try {
+                bookingService.add(booker, dtoIn(item, 0));
+                accepted.incrementAndGet();
+            } catch (BookingValidationException e) {
+                rejected.incrementAndGet();
+            }
+        });
+
+        assertEquals(1, accepted.get());
+        assertEquals(THREADS - 1, rejected.get());
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM bookings WHERE item_id = ?", Integer.class, item.getId()));
+    }
+
+    @Test
+    void add_whenDifferentItems_thenAllBookingsAccepted() throws Exception {
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            items.add(item(i));
+        }
+
+        runConcurrently(thread -> {
+            for (int slot = 0; slot < BOOKINGS_PER_THREAD; slot++) {
+                bookingService.add(booker, dtoIn(items.get(thread), slot));
+            }
+        });
+
+        assertEquals(THREADS * BOOKINGS_PER_THREAD, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM bookings", Integer.class));
+    }
+
+    @Test
+    void update_whenApprovedAndRejectedConcurrently_thenOnlyOneTransitionApplied() throws Exception {
+        Item item = item(0);
+        Long bookingId = bookingService.add(booker, dtoIn(item, 0)).getId();
+        AtomicInteger applied = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+
+        runConcurrently(thread -> {
+            try {
+                bookingService.update(owner, bookingId, thread % 2 == 0);
+                applied.incrementAndGet();
+            } catch (BookingValidationException e) {
+                rejected.incrementAndGet();
+            }
+        });
+
+        assertEquals(1, applied.get());
+        assertEquals(THREADS - 1, rejected.get());
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT version FROM bookings WHERE id = ?", Integer.class, bookingId));
+    }
+
+    private void runConcurrently(BookingTask task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch startLatch = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < THREADS; thread++) {
+                int number = thread;
+                futures.add(executor.submit(() -> {
+                    startLatch.await();
+                    task.run(number);
+                    return null;
+                }));
+            }
+            startLatch.countDown();
+            for (Future<?> future : futures) {
+                future.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Item item(int number) {
+        return itemRepository.save(Item.builder()
+                .name("дрель " + number)
+                .description("ударная")
+                .available(true)
+                .owner(owner)
+                .build());
+    }
+
+    private BookingDtoIn dtoIn(Item item, int slot) {
+        return BookingDtoIn.builder()
+                .itemId(item.getId())
+                .start(start.plusHours(slot * 2L))
+                .end(start.plusHours(slot * 2L + 1))
+                .build();
+    }
+
+    private interface BookingTask {
+        void run(int thread);
+    }
+}
@@ -0,0 +1,98 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import ru.practicum.shareit.booking.dto.BookingDtoOut;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+
+@SpringBootTest(properties = "shareit.booking.retry.delay=1")
+public class BookingRetryTest {
+    @MockBean
+    BookingRepository bookingRepository;
+    @Autowired
+    BookingService bookingService;
+    private User owner;
+    private User booker;
+    private Item item;
+
+    @BeforeEach
+    void setUp() {
+        owner = User.builder()
+                .id(1L)
+                .name("owner")
+                .email("owner@user.com")
+                .build();
+        booker = User.builder()
+                .id(2L)
+                .name("booker")
+                .email("booker@user.com")
+                .build();
+        item = Item.builder()
+                .id(1L)
+                .name("дрель")
+                .description("ударная")
+                .available(true)
+                .owner(owner)
+                .build();
+
+        Mockito
+                .when(bookingRepository.findItemIdById(1L))
+                .thenReturn(Optional.of(item.getId()));
+        Mockito
+                .when(bookingRepository.findById(1L))
+                .thenAnswer(invocation -> Optional.of(waitingBooking()));
+    }
+
+    @Test
+    void update_whenVersionConflictOnce_thenRetriedAndApplied() {
+        Mockito
+                .when(bookingRepository.save(any()))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Booking.class, 1L))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        BookingDtoOut result = bookingService.update(owner, 1L, true);
+
+        assertEquals(BookingStatus.APPROVED, result.getStatus());
+        Mockito.verify(bookingRepository, times(2)).save(any());
+    }
+
+    @Test
+    void update_whenVersionConflictPersists_thenGivesUpAfterMaxAttempts() {
+        Mockito
+                .when(bookingRepository.save(any()))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Booking.class, 1L));
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> bookingService.update(owner, 1L, true));
+        Mockito.verify(bookingRepository, times(3)).save(any());
+    }
+
+    private Booking waitingBooking() {
+        return Booking.builder()
+                .id(1L)
+                .item(item)
+                .booker(booker)
+                .start(LocalDateTime.now().plusDays(1))
+                .end(LocalDateTime.now().plusDays(2))
+                .status(BookingStatus.WAITING)
+                .version(0L)
+                .build();
+    }
+}
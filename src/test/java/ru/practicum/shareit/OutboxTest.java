@@ -0,0 +1,152 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.IllegalTransactionStateException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemNameSuggester;
+import ru.practicum.shareit.outbox.bus.EventBus;
+import ru.practicum.shareit.outbox.model.DomainEventType;
+import ru.practicum.shareit.outbox.model.OutboxEvent;
+import ru.practicum.shareit.outbox.repository.OutboxEventRepository;
+import ru.practicum.shareit.outbox.service.OutboxWriter;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "shareit.outbox.relay.settle-time=10ms")
+public class OutboxTest {
+    @Autowired
+    UserService userService;
+    @Autowired
+    OutboxWriter outboxWriter;
+    @Autowired
+    OutboxEventRepository outboxEventRepository;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+    @Autowired
+    EventBus eventBus;
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    ItemRepository itemRepository;
+    @Autowired
+    ItemNameSuggester itemNameSuggester;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM outbox_events");
+        jdbcTemplate.update("DELETE FROM outbox_offsets");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM items");
+        jdbcTemplate.update("DELETE FROM users");
+        jdbcTemplate.update("DELETE FROM outbox_events");
+        jdbcTemplate.update("DELETE FROM outbox_offsets");
+    }
+
+    @Test
+    void add_whenCommitted_thenEventWritten() {
+        UserDto user = userService.add(UserDto.builder()
+                .name("user")
+                .email("outbox@user.com")
+                .build());
+
+        List<OutboxEvent> events = outboxEventRepository.findAll();
+        assertEquals(1, events.size());
+        assertEquals(DomainEventType.USER_CREATED, events.get(0).getType());
+        assertEquals(user.getId(), events.get(0).getAggregateId());
+        assertTrue(events.get(0).getPayload().contains("outbox@user.com"));
+    }
+
+    @Test
+    void add_whenRolledBack_thenNoEventWritten() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            userService.add(UserDto.builder()
+                    .name("user")
+                    .email("rollback@user.com")
+                    .build());
+            status.setRollbackOnly();
+        });
+
+        assertEquals(0, outboxEventRepository.count());
+    }
+
+    @Test
+    void dispatch_whenItemSavedOnOtherNode_thenIndexedLocally() throws Exception {
+        User owner = userRepository.save(User.builder()
+                .name("owner")
+                .email("owner@user.com")
+                .build());
+        Item item = itemRepository.save(Item.builder()
+                .name("Гравер аккумуляторный")
+                .description("с насадками")
+                .available(true)
+                .owner(owner)
+                .build());
+        outboxEventRepository.save(OutboxEvent.builder()
+                .type(DomainEventType.ITEM_CREATED)
+                .aggregateId(item.getId())
+                .payload("{}")
+                .created(LocalDateTime.now().minusMinutes(1))
+                .build());
+        assertTrue(itemNameSuggester.suggest("гравер", 10).isEmpty());
+
+        drain();
+
+        assertEquals(List.of(item.getName()), itemNameSuggester.suggest("гравер", 10));
+        assertEquals(outboxEventRepository.findMaxId(), eventBus.consumedUpTo());
+    }
+
+    @Test
+    void dispatch_whenOwnerRemoved_thenOwnedItemsRemovedFromIndexes() throws Exception {
+        User owner = userRepository.save(User.builder()
+                .name("owner")
+                .email("owner@user.com")
+                .build());
+        Item item = itemRepository.save(Item.builder()
+                .name("Лобзик электрический")
+                .description("с пилками")
+                .available(true)
+                .owner(owner)
+                .build());
+        itemNameSuggester.index(item);
+        assertEquals(List.of(item.getName()), itemNameSuggester.suggest("лобзик", 10));
+
+        userService.remove(owner.getId());
+        drain();
+
+        assertTrue(itemNameSuggester.suggest("лобзик", 10).isEmpty());
+    }
+
+    @Test
+    void append_whenNoTransaction_thenException() {
+        assertThrows(IllegalTransactionStateException.class,
+                () -> outboxWriter.append(DomainEventType.USER_CREATED, 1L, "{}"));
+    }
+
+    private void drain() throws InterruptedException {
+        eventBus.dispatch(100);
+        Thread.sleep(50);
+        eventBus.dispatch(100);
+    }
+}
@@ -0,0 +1,207 @@
+package ru.practicum.shareit;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.cache.ItemCache;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.model.Request;
+import ru.practicum.shareit.request.repository.RequestRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+public class QueryCountTest {
+    @Autowired
+    MockMvc mvc;
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    ItemRepository itemRepository;
+    @Autowired
+    BookingRepository bookingRepository;
+    @Autowired
+    CommentRepository commentRepository;
+    @Autowired
+    RequestRepository requestRepository;
+    @Autowired
+    ItemCache itemCache;
+    private Statistics statistics;
+    private User owner;
+    private User booker;
+    private Request request;
+    private Booking booking;
+    private Item item;
+    private int sequence;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        owner = user();
+        booker = user();
+        request = requestRepository.save(Request.builder()
+                .description("нужна дрель")
+                .requestor(booker)
+                .created(LocalDateTime.now())
+                .build());
+        grow();
+        item = itemRepository.findAllByOwner(owner, Pageable.unpaged()).get(0);
+        booking = bookingRepository.findAll()
+                .stream()
+                .filter(saved -> saved.getBooker().getId().equals(booker.getId()))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM users");
+    }
+
+    @Test
+    void findAllItemsByOwner_whenMoreItems_thenSameQueryCount() throws Exception {
+        assertQueryCountDoesNotGrow("/items", owner);
+    }
+
+    @Test
+    void findItemById_whenMoreComments_thenSameQueryCount() throws Exception {
+        String url = "/items/" + item.getId();
+        countQueries(url, owner);
+        itemCache.evict(item.getId());
+        long before = countQueries(url, owner);
+        grow();
+        grow();
+        itemCache.evict(item.getId());
+        long after = countQueries(url, owner);
+
+        assertTrue(before > 0);
+        assertEquals(before, after);
+    }
+
+    @Test
+    void searchItems_whenMoreItems_thenSameQueryCount() throws Exception {
+        assertQueryCountDoesNotGrow("/items/search?text=дрель", booker);
+    }
+
+    @Test
+    void findBookingById_thenBookingItemAndBookerInOneQuery() throws Exception {
+        countQueries("/bookings/" + booking.getId(), booker);
+
+        assertEquals(1, countQueries("/bookings/" + booking.getId(), booker));
+    }
+
+    @Test
+    void findAllBookingsByBooker_whenMoreBookings_thenSameQueryCount() throws Exception {
+        assertQueryCountDoesNotGrow("/bookings", booker);
+    }
+
+    @Test
+    void findAllBookingsByOwner_whenMoreBookings_thenSameQueryCount() throws Exception {
+        assertQueryCountDoesNotGrow("/bookings/owner", owner);
+    }
+
+    @Test
+    void findAllRequestsByRequestor_whenMoreItems_thenSameQueryCount() throws Exception {
+        assertQueryCountDoesNotGrow("/requests", booker);
+    }
+
+    @Test
+    void findAllRequests_whenMoreItems_thenSameQueryCount() throws Exception {
+        assertQueryCountDoesNotGrow("/requests/all", owner);
+    }
+
+    @Test
+    void findRequestById_whenMoreItems_thenSameQueryCount() throws Exception {
+        assertQueryCountDoesNotGrow("/requests/" + request.getId(), owner);
+    }
+
+    private void assertQueryCountDoesNotGrow(String url, User user) throws Exception {
+        countQueries(url, user);
+        long before = countQueries(url, user);
+        grow();
+        grow();
+        long after = countQueries(url, user);
+
+        assertEquals(before, after);
+    }
+
+    private long countQueries(String url, User user) throws Exception {
+        statistics.clear();
+        mvc.perform(get(url)
+                        .header("X-Sharer-User-Id", user.getId()))
+                .andExpect(status().isOk());
+        return statistics.getPrepareStatementCount();
+    }
+
+    private void grow() {
+        User author = user();
+        Item newItem = itemRepository.save(Item.builder()
+                .name("дрель " + sequence)
+                .description("ударная")
+                .available(true)
+                .owner(owner)
+                .request(request)
+                .build());
+        bookingRepository.save(Booking.builder()
+                .item(newItem)
+                .booker(booker)
+                .start(LocalDateTime.now().minusDays(2))
+                .end(LocalDateTime.now().minusDays(1))
+                .status(BookingStatus.APPROVED)
+                .build());
+        bookingRepository.save(Booking.builder()
+                .item(newItem)
+                .booker(user())
+                .start(LocalDateTime.now().plusDays(1))
+                .end(LocalDateTime.now().plusDays(2))
+                .status(BookingStatus.APPROVED)
+                .build());
+        commentRepository.save(Comment.builder()
+                .text("отличная дрель")
+                .item(item != null ? item : newItem)
+                .author(author)
+                .created(LocalDateTime.now())
+                .build());
+        commentRepository.save(Comment.builder()
+                .text("работает")
+                .item(newItem)
+                .author(author)
+                .created(LocalDateTime.now())
+                .build());
+    }
+
+    private User user() {
+        sequence++;
+        return userRepository.save(User.builder()
+                .name("user" + sequence)
+                .email("user" + sequence + "@user.com")
+                .build());
+    }
+}
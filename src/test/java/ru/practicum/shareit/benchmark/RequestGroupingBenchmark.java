@@ -0,0 +1,108 @@
+package ru.practicum.shareit.benchmark;
+
+import org.mockito.Mockito;
+import org.springframework.context.ApplicationEventPublisher;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.outbox.service.OutboxWriter;
+import ru.practicum.shareit.request.dto.RequestDto;
+import ru.practicum.shareit.request.mapper.RequestMapper;
+import ru.practicum.shareit.request.model.Request;
+import ru.practicum.shareit.request.repository.RequestMatchRepository;
+import ru.practicum.shareit.request.repository.RequestRepository;
+import ru.practicum.shareit.request.service.RequestService;
+import ru.practicum.shareit.request.service.impl.RequestServiceImpl;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.mockito.ArgumentMatchers.any;
+
+/**
+ * Сравнение группировки ответов на запросы за один проход с прежним вложенным фильтром.
+ * Не входит в модульные тесты и ничего не проверяет, только печатает время.
+ * Аргументы: количество запросов, ответов на запрос, прогонов (по умолчанию 10000, 3, 5).
+ */
+public class RequestGroupingBenchmark {
+
+    public static void main(String[] args) {
+        int requestCount = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int answersPerRequest = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+        int runs = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+
+        User user = User.builder().id(1L).name("user").email("user@user.com").build();
+        List<Request> requests = new ArrayList<>(requestCount);
+        List<Item> items = new ArrayList<>(requestCount * answersPerRequest);
+        for (long requestId = 1; requestId <= requestCount; requestId++) {
+            Request request = Request.builder()
+                    .id(requestId)
+                    .description("запрос " + requestId)
+                    .requestor(user)
+                    .build();
+            requests.add(request);
+            for (int answer = 0; answer < answersPerRequest; answer++) {
+                items.add(Item.builder()
+                        .id(requestId * answersPerRequest + answer)
+                        .name("ответ " + answer)
+                        .description("ответ на запрос " + requestId)
+                        .available(true)
+                        .owner(user)
+                        .request(request)
+                        .build());
+            }
+        }
+        Collections.shuffle(items, new Random(42));
+
+        RequestRepository requestRepository = Mockito.mock(RequestRepository.class);
+        ItemRepository itemRepository = Mockito.mock(ItemRepository.class);
+        Mockito.when(requestRepository.findAllByRequestor(any(), any())).thenReturn(requests);
+        Mockito.when(itemRepository.findAllByRequestIn(any(), any())).thenReturn(items);
+        RequestService requestService = new RequestServiceImpl(requestRepository, itemRepository,
+                Mockito.mock(RequestMatchRepository.class), Mockito.mock(ApplicationEventPublisher.class),
+                Mockito.mock(OutboxWriter.class));
+
+        System.out.printf("Запросов: %d, ответов: %d%n", requestCount, items.size());
+        for (int run = 1; run <= runs; run++) {
+            long start = System.nanoTime();
+            int grouped = countItems(requestService.findAllByUserId(user));
+            long groupedNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            int filtered = countItems(filterPerRequest(requests, items));
+            long filteredNanos = System.nanoTime() - start;
+
+            System.out.printf("Прогон %d: группировка %d мс (%d ответов), вложенный фильтр %d мс (%d ответов)%n",
+                    run, groupedNanos / 1_000_000, grouped, filteredNanos / 1_000_000, filtered);
+        }
+    }
+
+    private static List<RequestDto> filterPerRequest(List<Request> requests, List<Item> items) {
+        List<RequestDto> requestDtos = requests
+                .stream()
+                .map(RequestMapper::toDto)
+                .collect(Collectors.toList());
+        List<ItemDto> itemDtos = items
+                .stream()
+                .map(ItemMapper::toDto)
+                .collect(Collectors.toList());
+
+        for (RequestDto requestDto : requestDtos) {
+            List<ItemDto> curItemDtos = itemDtos
+                    .stream()
+                    .filter(itemDto -> itemDto.getRequestId().equals(requestDto.getId()))
+                    .collect(Collectors.toList());
+            requestDto.setItems(curItemDtos);
+        }
+        return requestDtos;
+    }
+
+    private static int countItems(List<RequestDto> requestDtos) {
+        return requestDtos.stream().mapToInt(requestDto -> requestDto.getItems().size()).sum();
+    }
+}
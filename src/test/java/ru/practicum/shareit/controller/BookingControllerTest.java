@@ -9,6 +9,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
@@ -17,18 +18,26 @@ import ru.practicum.shareit.booking.dto.BookingDtoIn;
 import ru.practicum.shareit.booking.dto.BookingDtoOut;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.common.CursorPage;
 import ru.practicum.shareit.common.ErrorHandler;
+import ru.practicum.shareit.common.SharerUserArgumentResolver;
+import ru.practicum.shareit.item.dto.ItemShortDto;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.cache.UserCache;
+import ru.practicum.shareit.user.dto.UserShortDto;
 import ru.practicum.shareit.user.model.User;
 
 import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.times;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -37,6 +46,8 @@ public class BookingControllerTest {
     private final ObjectMapper mapper = new ObjectMapper();
     @Mock
     private BookingService bookingService;
+    @Mock
+    private UserCache userCache;
     @InjectMocks
     private BookingController bookingController;
     private MockMvc mvc;
@@ -49,8 +60,18 @@ public class BookingControllerTest {
         mvc = MockMvcBuilders
                 .standaloneSetup(bookingController)
                 .setControllerAdvice(ErrorHandler.class)
+                .setCustomArgumentResolvers(new SharerUserArgumentResolver(userCache))
                 .build();
 
+        Mockito
+                .lenient()
+                .when(userCache.findById(anyLong()))
+                .thenReturn(Optional.of(User.builder()
+                        .id(1L)
+                        .name("user")
+                        .email("user@user.com")
+                        .build()));
+
         mapper.registerModule(new JavaTimeModule());
 
         User booker = User.builder()
@@ -86,15 +107,15 @@ public class BookingControllerTest {
                 .start(curTime.plusDays(2))
                 .end(curTime.plusDays(5))
                 .status(BookingStatus.WAITING)
-                .booker(booker)
-                .item(item)
+                .booker(new UserShortDto(booker.getId(), booker.getName()))
+                .item(new ItemShortDto(item.getId(), item.getName()))
                 .build();
     }
 
     @Test
     void add() throws Exception {
         Mockito
-                .when(bookingService.add(anyLong(), any()))
+                .when(bookingService.add(any(), any()))
                 .thenReturn(bookingDtoOut);
 
         mvc.perform(post("/bookings")
@@ -112,13 +133,13 @@ public class BookingControllerTest {
                 .andExpect(jsonPath("$.status").value(bookingDtoOut.getStatus().toString()))
                 .andDo(print());
 
-        Mockito.verify(bookingService, times(1)).add(anyLong(), any());
+        Mockito.verify(bookingService, times(1)).add(any(), any());
     }
 
     @Test
     void update() throws Exception {
         Mockito
-                .when(bookingService.update(anyLong(), anyLong(), anyBoolean()))
+                .when(bookingService.update(any(), anyLong(), anyBoolean()))
                 .thenReturn(bookingDtoOut);
 
         mvc.perform(patch("/bookings/1")
@@ -137,13 +158,13 @@ public class BookingControllerTest {
                 .andExpect(jsonPath("$.status").value(bookingDtoOut.getStatus().toString()))
                 .andDo(print());
 
-        Mockito.verify(bookingService, times(1)).update(anyLong(), anyLong(), anyBoolean());
+        Mockito.verify(bookingService, times(1)).update(any(), anyLong(), anyBoolean());
     }
 
     @Test
     void findById() throws Exception {
         Mockito
-                .when(bookingService.findById(anyLong(), anyLong()))
+                .when(bookingService.findById(any(), anyLong()))
                 .thenReturn(bookingDtoOut);
 
         mvc.perform(get("/bookings/1")
@@ -157,14 +178,14 @@ public class BookingControllerTest {
                 .andExpect(jsonPath("$.status").value(bookingDtoOut.getStatus().toString()))
                 .andDo(print());
 
-        Mockito.verify(bookingService, times(1)).findById(anyLong(), anyLong());
+        Mockito.verify(bookingService, times(1)).findById(any(), anyLong());
     }
 
     @Test
     void findAllByUserId() throws Exception {
         List<BookingDtoOut> expectedDtos = List.of(bookingDtoOut);
         Mockito
-                .when(bookingService.findAllByUserId(anyLong(), anyString(), anyInt(), anyInt()))
+                .when(bookingService.findAllByUserId(any(), anyString(), anyInt(), anyInt()))
                 .thenReturn(expectedDtos);
 
         mvc.perform(get("/bookings")
@@ -180,14 +201,14 @@ public class BookingControllerTest {
                 .andExpect(jsonPath("$[0].status").value(bookingDtoOut.getStatus().toString()))
                 .andDo(print());
 
-        Mockito.verify(bookingService, times(1)).findAllByUserId(anyLong(), anyString(), anyInt(), anyInt());
+        Mockito.verify(bookingService, times(1)).findAllByUserId(any(), anyString(), anyInt(), anyInt());
     }
 
     @Test
     void findAllByOwnerId() throws Exception {
         List<BookingDtoOut> expectedDtos = List.of(bookingDtoOut);
         Mockito
-                .when(bookingService.findAllByOwnerId(anyLong(), anyString(), anyInt(), anyInt()))
+                .when(bookingService.findAllByOwnerId(any(), anyString(), anyInt(), anyInt()))
                 .thenReturn(expectedDtos);
 
         mvc.perform(get("/bookings/owner")
@@ -203,7 +224,102 @@ public class BookingControllerTest {
                 .andExpect(jsonPath("$[0].status").value(bookingDtoOut.getStatus().toString()))
                 .andDo(print());
 
-        Mockito.verify(bookingService, times(1)).findAllByOwnerId(anyLong(), anyString(), anyInt(), anyInt());
+        Mockito.verify(bookingService, times(1)).findAllByOwnerId(any(), anyString(), anyInt(), anyInt());
+    }
+
+    @Test
+    void findAllByUserId_whenCursorPassed_thenNextCursorHeader() throws Exception {
+        List<BookingDtoOut> expectedDtos = List.of(bookingDtoOut);
+        Mockito
+                .when(bookingService.findAllByUserId(any(), anyString(), anyString(), anyInt()))
+                .thenReturn(new CursorPage<>(expectedDtos, "next"));
+
+        mvc.perform(get("/bookings")
+                        .header("X-Sharer-User-Id", "1")
+                        .param("cursor", "")
+                        .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", "next"))
+                .andExpect(jsonPath("$.length()").value(expectedDtos.size()))
+                .andExpect(jsonPath("$[0].id").value(bookingDtoOut.getId()))
+                .andDo(print());
+
+        Mockito.verify(bookingService, times(1)).findAllByUserId(any(), eq("ALL"), eq(""), eq(1));
     }
 
+    @Test
+    void findAllByOwnerId_whenLastPage_thenNoNextCursorHeader() throws Exception {
+        List<BookingDtoOut> expectedDtos = List.of(bookingDtoOut);
+        Mockito
+                .when(bookingService.findAllByOwnerId(any(), anyString(), anyString(), anyInt()))
+                .thenReturn(new CursorPage<>(expectedDtos, null));
+
+        mvc.perform(get("/bookings/owner")
+                        .header("X-Sharer-User-Id", "2")
+                        .param("cursor", "abc"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Next-Cursor"))
+                .andExpect(jsonPath("$.length()").value(expectedDtos.size()))
+                .andDo(print());
+
+        Mockito.verify(bookingService, times(1)).findAllByOwnerId(any(), eq("ALL"), eq("abc"), eq(10));
+    }
+
+    @Test
+    void findAllByUserId_whenUserNotFound_thenNotFoundWithoutCallingService() throws Exception {
+        Mockito
+                .when(userCache.findById(999L))
+                .thenReturn(Optional.empty());
+
+        mvc.perform(get("/bookings")
+                        .header("X-Sharer-User-Id", "999"))
+                .andExpect(status().isNotFound())
+                .andDo(print());
+
+        Mockito.verifyNoInteractions(bookingService);
+    }
+
+    @Test
+    void findAllByUserId_whenHeaderMissing_thenBadRequest() throws Exception {
+        mvc.perform(get("/bookings"))
+                .andExpect(status().isBadRequest())
+                .andDo(print());
+
+        Mockito.verifyNoInteractions(bookingService);
+    }
+
+    @Test
+    void add_whenExclusionConstraintViolated_thenBadRequest() throws Exception {
+        Mockito
+                .when(bookingService.add(any(), any()))
+                .thenThrow(new DataIntegrityViolationException("overlap",
+                        new SQLException("conflicting key value violates exclusion constraint", "23P01")));
+
+        mvc.perform(post("/bookings")
+                        .header("X-Sharer-User-Id", "1")
+                        .content(mapper.writeValueAsString(bookingDtoIn))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Вещь уже забронирована на это время"))
+                .andDo(print());
+    }
+
+    @Test
+    void add_whenOtherIntegrityViolation_thenServerError() throws Exception {
+        Mockito
+                .when(bookingService.add(any(), any()))
+                .thenThrow(new DataIntegrityViolationException("fk",
+                        new SQLException("violates foreign key constraint", "23503")));
+
+        mvc.perform(post("/bookings")
+                        .header("X-Sharer-User-Id", "1")
+                        .content(mapper.writeValueAsString(bookingDtoIn))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isInternalServerError())
+                .andDo(print());
+    }
 }
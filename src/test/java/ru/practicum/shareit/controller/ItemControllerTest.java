@@ -12,14 +12,20 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import ru.practicum.shareit.common.ErrorHandler;
+import ru.practicum.shareit.common.SharerUserArgumentResolver;
 import ru.practicum.shareit.item.controller.ItemController;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.TimeSlotDto;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.cache.UserCache;
 import ru.practicum.shareit.user.exception.UserNotFoundException;
+import ru.practicum.shareit.user.model.User;
 
 import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.times;
@@ -33,6 +39,8 @@ public class ItemControllerTest {
     private final ObjectMapper mapper = new ObjectMapper();
     @Mock
     private ItemService itemService;
+    @Mock
+    private UserCache userCache;
     @InjectMocks
     private ItemController itemController;
     private MockMvc mvc;
@@ -46,8 +54,18 @@ public class ItemControllerTest {
         mvc = MockMvcBuilders
                 .standaloneSetup(itemController)
                 .setControllerAdvice(ErrorHandler.class)
+                .setCustomArgumentResolvers(new SharerUserArgumentResolver(userCache))
                 .build();
 
+        Mockito
+                .lenient()
+                .when(userCache.findById(anyLong()))
+                .thenReturn(Optional.of(User.builder()
+                        .id(1L)
+                        .name("user")
+                        .email("user@user.com")
+                        .build()));
+
         itemDto = ItemDto.builder()
                 .id(1L)
                 .name("Рулетка")
@@ -71,7 +89,7 @@ public class ItemControllerTest {
     void findAllByUserId() throws Exception {
         List<ItemDto> expectItems = List.of(itemDto);
         Mockito
-                .when(itemService.findAllByUserId(anyLong(), anyInt(), anyInt()))
+                .when(itemService.findAllByUserId(any(), anyInt(), anyInt()))
                 .thenReturn(expectItems);
 
         mvc.perform(get("/items")
@@ -91,13 +109,13 @@ public class ItemControllerTest {
                 .andExpect(jsonPath("$[0].available").value(itemDto.getAvailable()))
                 .andDo(print());
 
-        Mockito.verify(itemService, times(1)).findAllByUserId(anyLong(), anyInt(), anyInt());
+        Mockito.verify(itemService, times(1)).findAllByUserId(any(), anyInt(), anyInt());
     }
 
     @Test
     void finById() throws Exception {
         Mockito
-                .when(itemService.findById(anyLong(), anyLong()))
+                .when(itemService.findById(any(), anyLong()))
                 .thenReturn(itemDto);
 
         mvc.perform(get("/items/1")
@@ -113,13 +131,13 @@ public class ItemControllerTest {
                 .andExpect(jsonPath("$.available").value(itemDto.getAvailable()))
                 .andDo(print());
 
-        Mockito.verify(itemService, times(1)).findById(anyLong(), anyLong());
+        Mockito.verify(itemService, times(1)).findById(any(), anyLong());
     }
 
     @Test
     void add() throws Exception {
         Mockito
-                .when(itemService.add(anyLong(), any()))
+                .when(itemService.add(any(), any()))
                 .thenReturn(itemDto);
 
         mvc.perform(post("/items")
@@ -139,7 +157,7 @@ public class ItemControllerTest {
                 .andExpect(jsonPath("$.available").value(itemDto.getAvailable()))
                 .andDo(print());
 
-        Mockito.verify(itemService, times(1)).add(anyLong(), any());
+        Mockito.verify(itemService, times(1)).add(any(), any());
     }
 
     @Test
@@ -149,13 +167,13 @@ public class ItemControllerTest {
                 .andExpect(status().isOk())
                 .andDo(print());
 
-        Mockito.verify(itemService, times(1)).remove(anyLong(), anyLong());
+        Mockito.verify(itemService, times(1)).remove(any(), anyLong());
     }
 
     @Test
     void update() throws Exception {
         Mockito
-                .when(itemService.update(anyLong(), anyLong(), any()))
+                .when(itemService.update(any(), anyLong(), any()))
                 .thenReturn(updateItemDto);
 
         mvc.perform(patch("/items/1")
@@ -175,14 +193,14 @@ public class ItemControllerTest {
                 .andExpect(jsonPath("$.available").value(updateItemDto.getAvailable()))
                 .andDo(print());
 
-        Mockito.verify(itemService, times(1)).update(anyLong(), anyLong(), any());
+        Mockito.verify(itemService, times(1)).update(any(), anyLong(), any());
     }
 
     @Test
     void search() throws Exception {
         List<ItemDto> expectItems = List.of(itemDto);
         Mockito
-                .when(itemService.search(anyString(), anyInt(), anyInt()))
+                .when(itemService.search(anyString(), any(), any(), anyInt(), anyInt()))
                 .thenReturn(expectItems);
 
         mvc.perform(get("/items/search")
@@ -202,13 +220,80 @@ public class ItemControllerTest {
                 .andExpect(jsonPath("$[0].available").value(itemDto.getAvailable()))
                 .andDo(print());
 
-        Mockito.verify(itemService, times(1)).search(anyString(), anyInt(), anyInt());
+        Mockito.verify(itemService, times(1)).search(eq("рулетка"), isNull(), isNull(), eq(0), eq(10));
+    }
+
+    @Test
+    void search_whenPeriodPassed_thenPeriodForwarded() throws Exception {
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 10, 0);
+        LocalDateTime end = LocalDateTime.of(2030, 1, 2, 10, 0);
+        Mockito
+                .when(itemService.search(anyString(), any(), any(), anyInt(), anyInt()))
+                .thenReturn(List.of(itemDto));
+
+        mvc.perform(get("/items/search")
+                        .param("text", "рулетка")
+                        .param("start", "2030-01-01T10:00:00")
+                        .param("end", "2030-01-02T10:00:00"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1));
+
+        Mockito.verify(itemService, times(1)).search("рулетка", start, end, 0, 10);
+    }
+
+    @Test
+    void suggest() throws Exception {
+        List<String> expectNames = List.of("Рулетка", "Рубанок");
+        Mockito
+                .when(itemService.suggest(anyString(), anyInt()))
+                .thenReturn(expectNames);
+
+        mvc.perform(get("/items/search/suggest")
+                        .param("prefix", "ру")
+                        .param("size", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$").isArray())
+                .andExpect(jsonPath("$.length()").value(expectNames.size()))
+                .andExpect(jsonPath("$[0]").value(expectNames.get(0)))
+                .andDo(print());
+
+        Mockito.verify(itemService, times(1)).suggest("ру", 5);
+    }
+
+    @Test
+    void findAvailability() throws Exception {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        LocalDateTime to = from.plusDays(7);
+        List<TimeSlotDto> slots = List.of(new TimeSlotDto(from, from.plusDays(1)),
+                new TimeSlotDto(from.plusDays(3), to));
+        Mockito
+                .when(itemService.findAvailability(anyLong(), any(), any()))
+                .thenReturn(slots);
+
+        mvc.perform(get("/items/1/availability")
+                        .param("from", "2030-01-01T00:00:00")
+                        .param("to", "2030-01-08T00:00:00"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$").isArray())
+                .andExpect(jsonPath("$.length()").value(slots.size()))
+                .andDo(print());
+
+        Mockito.verify(itemService, times(1)).findAvailability(1L, from, to);
+    }
+
+    @Test
+    void findAvailability_whenToMissing_thenBadRequest() throws Exception {
+        mvc.perform(get("/items/1/availability")
+                        .param("from", "2030-01-01T00:00:00"))
+                .andExpect(status().isBadRequest());
+
+        Mockito.verifyNoInteractions(itemService);
     }
 
     @Test
     void addComment() throws Exception {
         Mockito
-                .when(itemService.addComment(anyLong(), anyLong(), any()))
+                .when(itemService.addComment(any(), anyLong(), any()))
                 .thenThrow(new UserNotFoundException("Пользователь не существует"));
 
         mvc.perform(post("/items/1/comment")
@@ -220,7 +305,7 @@ public class ItemControllerTest {
                 .andExpect(status().isNotFound())
                 .andDo(print());
 
-        Mockito.verify(itemService, times(1)).addComment(anyLong(), anyLong(), any());
+        Mockito.verify(itemService, times(1)).addComment(any(), anyLong(), any());
     }
 
 }
@@ -0,0 +1,79 @@
+package ru.practicum.shareit.controller;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.common.ErrorHandler;
+import ru.practicum.shareit.common.SharerUserArgumentResolver;
+import ru.practicum.shareit.notification.controller.NotificationController;
+import ru.practicum.shareit.notification.service.NotificationHub;
+import ru.practicum.shareit.user.cache.UserCache;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(MockitoExtension.class)
+public class NotificationControllerTest {
+    @Mock
+    private NotificationHub notificationHub;
+    @Mock
+    private UserCache userCache;
+    @InjectMocks
+    private NotificationController notificationController;
+    private MockMvc mvc;
+
+    @BeforeEach
+    void setUp() {
+        mvc = MockMvcBuilders
+                .standaloneSetup(notificationController)
+                .setControllerAdvice(ErrorHandler.class)
+                .setCustomArgumentResolvers(new SharerUserArgumentResolver(userCache))
+                .build();
+    }
+
+    @Test
+    void subscribe_whenUserFound_thenStreamStarted() throws Exception {
+        Mockito
+                .when(userCache.findById(1L))
+                .thenReturn(Optional.of(User.builder()
+                        .id(1L)
+                        .name("user")
+                        .email("user@user.com")
+                        .build()));
+        Mockito
+                .when(notificationHub.subscribe(1L))
+                .thenReturn(new SseEmitter());
+
+        mvc.perform(get("/notifications/stream")
+                        .header("X-Sharer-User-Id", "1")
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andDo(print());
+
+        Mockito.verify(notificationHub).subscribe(1L);
+    }
+
+    @Test
+    void subscribe_whenHeaderMissing_thenBadRequest() throws Exception {
+        mvc.perform(get("/notifications/stream"))
+                .andExpect(status().isBadRequest())
+                .andDo(print());
+
+        Mockito.verify(notificationHub, never()).subscribe(anyLong());
+    }
+}
@@ -11,19 +11,26 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import ru.practicum.shareit.common.CursorPage;
 import ru.practicum.shareit.common.ErrorHandler;
+import ru.practicum.shareit.common.SharerUserArgumentResolver;
 import ru.practicum.shareit.request.controller.RequestController;
 import ru.practicum.shareit.request.dto.RequestDto;
+import ru.practicum.shareit.request.dto.RequestMatchDto;
 import ru.practicum.shareit.request.service.RequestService;
+import ru.practicum.shareit.user.cache.UserCache;
+import ru.practicum.shareit.user.model.User;
 
 import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.times;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -32,6 +39,8 @@ public class RequestControllerTest {
     private final ObjectMapper mapper = new ObjectMapper();
     @Mock
     private RequestService requestService;
+    @Mock
+    private UserCache userCache;
     @InjectMocks
     private RequestController requestController;
     private MockMvc mvc;
@@ -43,8 +52,18 @@ public class RequestControllerTest {
         mvc = MockMvcBuilders
                 .standaloneSetup(requestController)
                 .setControllerAdvice(ErrorHandler.class)
+                .setCustomArgumentResolvers(new SharerUserArgumentResolver(userCache))
                 .build();
 
+        Mockito
+                .lenient()
+                .when(userCache.findById(anyLong()))
+                .thenReturn(Optional.of(User.builder()
+                        .id(1L)
+                        .name("user")
+                        .email("user@user.com")
+                        .build()));
+
         requestDto = RequestDto.builder()
                 .id(1L)
                 .description("Нужны ежовые руковицы для ловли ежа")
@@ -54,7 +73,7 @@ public class RequestControllerTest {
     @Test
     void add() throws Exception {
         Mockito
-                .when(requestService.add(anyLong(), any()))
+                .when(requestService.add(any(), any()))
                 .thenReturn(requestDto);
 
         mvc.perform(post("/requests")
@@ -73,14 +92,14 @@ public class RequestControllerTest {
                 .andExpect(jsonPath("$.items").isEmpty())
                 .andDo(print());
 
-        Mockito.verify(requestService, times(1)).add(anyLong(), any());
+        Mockito.verify(requestService, times(1)).add(any(), any());
     }
 
     @Test
     void findAllByUserId() throws Exception {
         List<RequestDto> expectedDtos = List.of(requestDto);
         Mockito
-                .when(requestService.findAllByUserId(anyLong()))
+                .when(requestService.findAllByUserId(any()))
                 .thenReturn(expectedDtos);
 
         mvc.perform(get("/requests")
@@ -97,14 +116,14 @@ public class RequestControllerTest {
                 .andExpect(jsonPath("$[0].items").isEmpty())
                 .andDo(print());
 
-        Mockito.verify(requestService, times(1)).findAllByUserId(anyLong());
+        Mockito.verify(requestService, times(1)).findAllByUserId(any());
     }
 
     @Test
     void findAll() throws Exception {
         List<RequestDto> expectedDtos = List.of(requestDto);
         Mockito
-                .when(requestService.findAll(anyLong(), anyInt(), anyInt()))
+                .when(requestService.findAll(any(), anyInt(), anyInt()))
                 .thenReturn(expectedDtos);
 
         mvc.perform(get("/requests/all")
@@ -123,13 +142,73 @@ public class RequestControllerTest {
                 .andExpect(jsonPath("$[0].items").isEmpty())
                 .andDo(print());
 
-        Mockito.verify(requestService, times(1)).findAll(anyLong(), anyInt(), anyInt());
+        Mockito.verify(requestService, times(1)).findAll(any(), anyInt(), anyInt());
+    }
+
+    @Test
+    void findMatches() throws Exception {
+        RequestMatchDto match = RequestMatchDto.builder()
+                .requestId(requestDto.getId())
+                .description(requestDto.getDescription())
+                .itemId(2L)
+                .itemName("рукавицы")
+                .score(1.5)
+                .build();
+        Mockito
+                .when(requestService.findMatches(any(), eq(0), eq(10)))
+                .thenReturn(List.of(match));
+
+        mvc.perform(get("/requests/matches")
+                        .header("X-Sharer-User-Id", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].requestId").value(match.getRequestId()))
+                .andExpect(jsonPath("$[0].itemId").value(match.getItemId()))
+                .andExpect(jsonPath("$[0].itemName").value(match.getItemName()))
+                .andExpect(jsonPath("$[0].score").value(match.getScore()))
+                .andDo(print());
+
+        Mockito.verify(requestService, Mockito.never()).findById(any(), anyLong());
+    }
+
+    @Test
+    void findAll_whenCursorPassed_thenNextCursorHeader() throws Exception {
+        List<RequestDto> expectedDtos = List.of(requestDto);
+        Mockito
+                .when(requestService.findAll(any(), anyString(), anyInt()))
+                .thenReturn(new CursorPage<>(expectedDtos, "next"));
+
+        mvc.perform(get("/requests/all")
+                        .header("X-Sharer-User-Id", "1")
+                        .param("cursor", "")
+                        .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", "next"))
+                .andExpect(jsonPath("$.length()").value(expectedDtos.size()))
+                .andExpect(jsonPath("$[0].id").value(requestDto.getId()))
+                .andDo(print());
+
+        Mockito.verify(requestService, times(1)).findAll(any(), anyString(), anyInt());
+    }
+
+    @Test
+    void findAll_whenCursorOnLastPage_thenNoNextCursorHeader() throws Exception {
+        Mockito
+                .when(requestService.findAll(any(), anyString(), anyInt()))
+                .thenReturn(new CursorPage<>(List.of(requestDto), null));
+
+        mvc.perform(get("/requests/all")
+                        .header("X-Sharer-User-Id", "1")
+                        .param("cursor", "abc"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Next-Cursor"))
+                .andDo(print());
     }
 
     @Test
     void findById() throws Exception {
         Mockito
-                .when(requestService.findById(anyLong(), anyLong()))
+                .when(requestService.findById(any(), anyLong()))
                 .thenReturn(requestDto);
 
         mvc.perform(get("/requests/1")
@@ -144,7 +223,7 @@ public class RequestControllerTest {
                 .andExpect(jsonPath("$.items").isEmpty())
                 .andDo(print());
 
-        Mockito.verify(requestService, times(1)).findById(anyLong(), anyLong());
+        Mockito.verify(requestService, times(1)).findById(any(), anyLong());
     }
 
 }
@@ -7,17 +7,24 @@ import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import ru.practicum.shareit.booking.dto.BookingView;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingFilter;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.model.State;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.common.SeekCursor;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -70,270 +77,361 @@ public class BookingRepositoryTest {
     }
 
     @Test
-    public void findAllByBooker_whenBookingNotFound_ThenReturnEmptyList() {
-        List<Booking> result = bookingRepository.findAllByBooker(user2, pageable);
+    public void findViewsByBooker_whenBookingNotFound_ThenReturnEmptyList() {
+        List<BookingView> result = bookingRepository.findViewsByBooker(user2,
+                BookingFilter.of(State.ALL, LocalDateTime.now()), pageable);
 
         assertTrue(result.isEmpty());
     }
 
     @Test
-    public void findAllByBooker_whenBookingFound_ThenReturnList() {
-        List<Booking> result = bookingRepository.findAllByBooker(user, pageable);
+    public void findViewsByBooker_whenStateCurrent_ThenReturnList() {
+        List<BookingView> result = bookingRepository.findViewsByBooker(user,
+                BookingFilter.of(State.CURRENT, LocalDateTime.now()), pageable);
 
-        assertEquals(result.size(), 1);
-        assertEquals(result.get(0).getBooker().getName(), user.getName());
-    }
-
-    @Test
-    public void findAllByBookerAndStartBeforeAndEndAfter_whenBookingNotFound_ThenReturnEmptyList() {
-        List<Booking> result = bookingRepository.findAllByBookerAndStartBeforeAndEndAfter(user,
-                LocalDateTime.now().minusDays(10), LocalDateTime.now().plusDays(10), pageable);
-
-        assertTrue(result.isEmpty());
-    }
-
-    @Test
-    public void findAllByBookerAndStartBeforeAndEndAfter_whenBookingFound_ThenReturnList() {
-        List<Booking> result = bookingRepository.findAllByBookerAndStartBeforeAndEndAfter(user,
-                LocalDateTime.now(), LocalDateTime.now(), pageable);
-
-        assertEquals(result.size(), 1);
-        assertEquals(result.get(0).getBooker().getName(), user.getName());
+        assertEquals(List.of(booking.getId()), ids(result));
         assertTrue(result.get(0).getStart().isBefore(LocalDateTime.now()));
         assertTrue(result.get(0).getEnd().isAfter(LocalDateTime.now()));
     }
 
     @Test
-    public void findAllByBookerAndEndBefore_whenBookingNotFound_ThenReturnEmptyList() {
-        List<Booking> result = bookingRepository.findAllByBookerAndEndBefore(user,
-                LocalDateTime.now(), pageable);
-
-        assertTrue(result.isEmpty());
+    public void findViewsByBooker_whenStatePastOrFuture_ThenReturnEmptyList() {
+        List<BookingView> past = bookingRepository.findViewsByBooker(user,
+                BookingFilter.of(State.PAST, LocalDateTime.now()), pageable);
+        List<BookingView> future = bookingRepository.findViewsByBooker(user,
+                BookingFilter.of(State.FUTURE, LocalDateTime.now()), pageable);
+
+        assertTrue(past.isEmpty());
+        assertTrue(future.isEmpty());
     }
 
     @Test
-    public void findAllByBookerAndEndBefore_whenBookingFound_ThenReturnList() {
-        List<Booking> result = bookingRepository.findAllByBookerAndEndBefore(user,
-                LocalDateTime.now().plusDays(10), pageable);
-
-        assertEquals(result.size(), 1);
-        assertEquals(result.get(0).getBooker().getName(), user.getName());
-        assertTrue(result.get(0).getEnd().isBefore(LocalDateTime.now().plusDays(10)));
+    public void findViewsByBooker_whenStatePastOrFutureMatches_ThenReturnList() {
+        List<BookingView> past = bookingRepository.findViewsByBooker(user,
+                BookingFilter.of(State.PAST, LocalDateTime.now().plusDays(10)), pageable);
+        List<BookingView> future = bookingRepository.findViewsByBooker(user,
+                BookingFilter.of(State.FUTURE, LocalDateTime.now().minusDays(10)), pageable);
+
+        assertEquals(List.of(booking.getId()), ids(past));
+        assertEquals(List.of(booking.getId()), ids(future));
     }
 
     @Test
-    public void findAllByBookerAndStartAfter_whenBookingNotFound_ThenReturnEmptyList() {
-        List<Booking> result = bookingRepository.findAllByBookerAndStartAfter(user,
-                LocalDateTime.now(), pageable);
-
-        assertTrue(result.isEmpty());
-    }
+    public void findViewsByBooker_whenStateWaiting_ThenReturnOnlyWaiting() {
+        Booking waiting = bookingRepository.save(Booking.builder()
+                .status(BookingStatus.WAITING)
+                .item(item)
+                .start(LocalDateTime.now().plusDays(10))
+                .end(LocalDateTime.now().plusDays(11))
+                .booker(user)
+                .build());
 
-    @Test
-    public void findAllByBookerAndStartAfter_whenBookingFound_ThenReturnList() {
-        List<Booking> result = bookingRepository.findAllByBookerAndStartAfter(user,
-                LocalDateTime.now().minusDays(10), pageable);
+        List<BookingView> result = bookingRepository.findViewsByBooker(user,
+                BookingFilter.of(State.WAITING, LocalDateTime.now()), pageable);
 
-        assertEquals(result.size(), 1);
-        assertEquals(result.get(0).getBooker().getName(), user.getName());
-        assertTrue(result.get(0).getStart().isAfter(LocalDateTime.now().minusDays(10)));
+        assertEquals(List.of(waiting.getId()), ids(result));
+        assertEquals(BookingStatus.WAITING, result.get(0).getStatus());
     }
 
     @Test
-    public void findAllByBookerAndStatus_whenBookingNotFound_ThenReturnEmptyList() {
-        List<Booking> result = bookingRepository.findAllByBookerAndStatus(user,
-                BookingStatus.WAITING, pageable);
+    public void findViewsByOwner_whenStateCurrent_ThenReturnList() {
+        List<BookingView> result = bookingRepository.findViewsByOwner(user,
+                BookingFilter.of(State.CURRENT, LocalDateTime.now()), pageable);
 
-        assertTrue(result.isEmpty());
+        assertEquals(List.of(booking.getId()), ids(result));
+        assertEquals(user.getName(), result.get(0).getBookerName());
     }
 
     @Test
-    public void findAllByBookerAndStatus_whenBookingFound_ThenReturnList() {
-        List<Booking> result = bookingRepository.findAllByBookerAndStatus(user,
-                BookingStatus.APPROVED, pageable);
-
-        assertEquals(result.size(), 1);
-        assertEquals(result.get(0).getBooker().getName(), user.getName());
-        assertEquals(result.get(0).getStatus(), BookingStatus.APPROVED);
+    public void findViewsByOwner_whenStatePastOrFuture_ThenReturnEmptyList() {
+        List<BookingView> past = bookingRepository.findViewsByOwner(user,
+                BookingFilter.of(State.PAST, LocalDateTime.now()), pageable);
+        List<BookingView> future = bookingRepository.findViewsByOwner(user,
+                BookingFilter.of(State.FUTURE, LocalDateTime.now()), pageable);
+
+        assertTrue(past.isEmpty());
+        assertTrue(future.isEmpty());
     }
 
     @Test
-    public void findAllByItem_Owner_whenBookingNotFound_ThenReturnEmptyList() {
-        List<Booking> result = bookingRepository.findAllByItem_Owner(user2,
-                pageable);
+    public void findViewsByOwner_whenStateRejected_ThenReturnOnlyRejected() {
+        List<BookingView> before = bookingRepository.findViewsByOwner(user,
+                BookingFilter.of(State.REJECTED, LocalDateTime.now()), pageable);
+        Booking rejected = bookingRepository.save(Booking.builder()
+                .status(BookingStatus.REJECTED)
+                .item(item)
+                .start(LocalDateTime.now().plusDays(10))
+                .end(LocalDateTime.now().plusDays(11))
+                .booker(user2)
+                .build());
 
-        assertTrue(result.isEmpty());
+        List<BookingView> result = bookingRepository.findViewsByOwner(user,
+                BookingFilter.of(State.REJECTED, LocalDateTime.now()), pageable);
+
+        assertTrue(before.isEmpty());
+        assertEquals(List.of(rejected.getId()), ids(result));
     }
 
     @Test
-    public void findAllByItem_Owner_whenBookingFound_ThenReturnList() {
-        List<Booking> result = bookingRepository.findAllByItem_Owner(user,
-                pageable);
+    public void findLastApprovedByItemIdIn_whenManyPastBookings_ThenReturnLatestOnly() {
+        Booking older = bookingRepository.save(Booking.builder()
+                .status(BookingStatus.APPROVED)
+                .item(item)
+                .start(LocalDateTime.now().minusDays(20))
+                .end(LocalDateTime.now().minusDays(15))
+                .booker(user2)
+                .build());
+        Booking rejected = bookingRepository.save(Booking.builder()
+                .status(BookingStatus.REJECTED)
+                .item(item)
+                .start(LocalDateTime.now().minusDays(1))
+                .end(LocalDateTime.now().plusDays(1))
+                .booker(user2)
+                .build());
+
+        List<Booking> result = bookingRepository.findLastApprovedByItemIdIn(List.of(item.getId()),
+                LocalDateTime.now());
 
         assertEquals(result.size(), 1);
-        assertEquals(result.get(0).getBooker().getName(), user.getName());
+        assertEquals(result.get(0).getId(), booking.getId());
     }
 
     @Test
-    public void findAllByItem_OwnerAndStartBeforeAndEndAfter_whenBookingNotFound_ThenReturnEmptyList() {
-        List<Booking> result = bookingRepository.findAllByItem_OwnerAndStartBeforeAndEndAfter(user2,
-                LocalDateTime.now(), LocalDateTime.now(), pageable);
+    public void findLastApprovedByItemIdIn_whenBookingNotFound_ThenReturnEmptyList() {
+        List<Booking> result = bookingRepository.findLastApprovedByItemIdIn(List.of(item.getId()),
+                LocalDateTime.now().minusDays(10));
 
         assertTrue(result.isEmpty());
     }
 
     @Test
-    public void findAllByItem_OwnerAndStartBeforeAndEndAfter_whenBookingFound_ThenReturnList() {
-        List<Booking> result = bookingRepository.findAllByItem_OwnerAndStartBeforeAndEndAfter(user,
-                LocalDateTime.now(), LocalDateTime.now(), pageable);
+    public void findNextApprovedByItemIdIn_whenManyFutureBookings_ThenReturnNearestOnly() {
+        Booking nearest = bookingRepository.save(Booking.builder()
+                .status(BookingStatus.APPROVED)
+                .item(item)
+                .start(LocalDateTime.now().plusDays(10))
+                .end(LocalDateTime.now().plusDays(11))
+                .booker(user2)
+                .build());
+        Booking farthest = bookingRepository.save(Booking.builder()
+                .status(BookingStatus.APPROVED)
+                .item(item)
+                .start(LocalDateTime.now().plusDays(20))
+                .end(LocalDateTime.now().plusDays(21))
+                .booker(user2)
+                .build());
 
-        assertEquals(result.size(), 1);
-        assertEquals(result.get(0).getBooker().getName(), user.getName());
-        assertTrue(result.get(0).getStart().isBefore(LocalDateTime.now()));
+        List<Booking> result = bookingRepository.findNextApprovedByItemIdIn(List.of(item.getId()),
+                LocalDateTime.now());
 
+        assertEquals(result.size(), 1);
+        assertEquals(result.get(0).getId(), nearest.getId());
     }
 
     @Test
-    public void findAllByItem_OwnerAndEndBefore_whenBookingNotFound_ThenReturnEmptyList() {
-        List<Booking> result = bookingRepository.findAllByItem_OwnerAndEndBefore(user,
-                LocalDateTime.now(), pageable);
+    public void findFirstBookingByItemAndBookerAndStatusAndEndBefore_whenBookingNotFound_ThenReturnEmptyList() {
+        Optional<Booking> result = bookingRepository.findFirstBookingByItemAndBookerAndStatusAndEndBefore(item,
+                user, BookingStatus.APPROVED, LocalDateTime.now(), byId);
 
-        assertTrue(result.isEmpty());
+        assertFalse(result.isPresent());
     }
 
     @Test
-    public void findAllByItem_OwnerAndEndBefore_whenBookingFound_ThenReturnList() {
-        List<Booking> result = bookingRepository.findAllByItem_OwnerAndEndBefore(user,
-                LocalDateTime.now().plusDays(10), pageable);
+    public void findFirstBookingByItemAndBookerAndStatusAndEndBefore_whenBookingFound_ThenReturnList() {
+        Optional<Booking> result = bookingRepository.findFirstBookingByItemAndBookerAndStatusAndEndBefore(item,
+                user, BookingStatus.APPROVED, LocalDateTime.now().plusDays(10), byId);
 
-        assertEquals(result.size(), 1);
-        assertEquals(result.get(0).getBooker().getName(), user.getName());
-        assertTrue(result.get(0).getEnd().isBefore(LocalDateTime.now().plusDays(10)));
+        assertTrue(result.isPresent());
+        assertEquals(result.get().getBooker().getName(), user.getName());
     }
 
     @Test
-    public void findAllByItem_OwnerAndStartAfter_whenBookingNotFound_ThenReturnEmptyList() {
-        List<Booking> result = bookingRepository.findAllByItem_OwnerAndStartAfter(user,
-                LocalDateTime.now(), pageable);
-
-        assertTrue(result.isEmpty());
+    public void findViewsByBookerAfterCursor_whenSeekingPageByPage_thenSameAsOffsetOrder() {
+        LocalDateTime start = LocalDateTime.now().minusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        for (int i = 0; i < 5; i++) {
+            bookingRepository.save(Booking.builder()
+                    .status(BookingStatus.WAITING)
+                    .item(item)
+                    .start(start)
+                    .end(start.plusHours(1))
+                    .booker(user)
+                    .build());
+        }
+        List<Booking> expected = bookingRepository.findAll(Sort.by(Sort.Direction.DESC, "start", "id"));
+
+        List<BookingView> result = new ArrayList<>();
+        SeekCursor cursor = SeekCursor.first();
+        List<BookingView> page = bookingRepository.findViewsByBookerAfterCursor(user,
+                BookingFilter.of(State.ALL, LocalDateTime.now()), cursor, PageRequest.of(0, 2));
+        while (!page.isEmpty()) {
+            result.addAll(page);
+            BookingView last = page.get(page.size() - 1);
+            cursor = new SeekCursor(last.getStart(), last.getId());
+            page = bookingRepository.findViewsByBookerAfterCursor(user,
+                    BookingFilter.of(State.ALL, LocalDateTime.now()), cursor, PageRequest.of(0, 2));
+        }
+
+        assertEquals(6, result.size());
+        assertEquals(expected.stream().map(Booking::getId).collect(Collectors.toList()),
+                result.stream().map(BookingView::getId).collect(Collectors.toList()));
     }
 
     @Test
-    public void findAllByItem_OwnerAndStartAfter_whenBookingFound_ThenReturnList() {
-        List<Booking> result = bookingRepository.findAllByItem_OwnerAndStartAfter(user,
-                LocalDateTime.now().minusDays(10), pageable);
-
-        assertEquals(result.size(), 1);
-        assertEquals(result.get(0).getBooker().getName(), user.getName());
-        assertTrue(result.get(0).getStart().isAfter(LocalDateTime.now().minusDays(10)));
+    public void findViewsByOwnerAfterCursor_whenStateFilters_thenReturnMatching() {
+        Booking future = bookingRepository.save(Booking.builder()
+                .status(BookingStatus.REJECTED)
+                .item(item)
+                .start(LocalDateTime.now().plusDays(10))
+                .end(LocalDateTime.now().plusDays(11))
+                .booker(user2)
+                .build());
+
+        List<BookingView> current = bookingRepository.findViewsByOwnerAfterCursor(user,
+                BookingFilter.of(State.CURRENT, LocalDateTime.now()), SeekCursor.first(), pageable);
+        List<BookingView> rejected = bookingRepository.findViewsByOwnerAfterCursor(user,
+                BookingFilter.of(State.REJECTED, LocalDateTime.now()), SeekCursor.first(), pageable);
+        List<BookingView> past = bookingRepository.findViewsByOwnerAfterCursor(user,
+                BookingFilter.of(State.PAST, LocalDateTime.now()), SeekCursor.first(), pageable);
+
+        assertEquals(List.of(booking.getId()), current.stream().map(BookingView::getId).collect(Collectors.toList()));
+        assertEquals(List.of(future.getId()), rejected.stream().map(BookingView::getId).collect(Collectors.toList()));
+        assertTrue(past.isEmpty());
     }
 
     @Test
-    public void findAllByItem_OwnerAndStatus_whenBookingNotFound_ThenReturnEmptyList() {
-        List<Booking> result = bookingRepository.findAllByItem_OwnerAndStatus(user,
-                BookingStatus.WAITING, pageable);
-
-        assertTrue(result.isEmpty());
+    public void findViewsByBooker_whenBookingFound_ThenReturnOnlyListColumns() {
+        List<BookingView> result = bookingRepository.findViewsByBooker(user,
+                BookingFilter.of(State.CURRENT, LocalDateTime.now()), PageRequest.of(0, 10));
+
+        assertEquals(1, result.size());
+        assertEquals(booking.getId(), result.get(0).getId());
+        assertEquals(BookingStatus.APPROVED, result.get(0).getStatus());
+        assertEquals(user.getId(), result.get(0).getBookerId());
+        assertEquals(user.getName(), result.get(0).getBookerName());
+        assertEquals(item.getId(), result.get(0).getItemId());
+        assertEquals(item.getName(), result.get(0).getItemName());
     }
 
     @Test
-    public void findAllByItem_OwnerAndStatus_whenBookingFound_ThenReturnList() {
-        List<Booking> result = bookingRepository.findAllByItem_OwnerAndStatus(user,
-                BookingStatus.APPROVED, pageable);
+    public void findViewsByOwner_whenBookingNotFound_ThenReturnEmptyList() {
+        List<BookingView> result = bookingRepository.findViewsByOwner(user2,
+                BookingFilter.of(State.ALL, LocalDateTime.now()), PageRequest.of(0, 10));
 
-        assertEquals(result.size(), 1);
-        assertEquals(result.get(0).getBooker().getName(), user.getName());
-        assertEquals(result.get(0).getStatus(), BookingStatus.APPROVED);
+        assertTrue(result.isEmpty());
     }
 
     @Test
-    public void findFirstBookingByItemAndStartBeforeAndStatus_whenBookingNotFound_ThenReturnEmptyList() {
-        Booking result = bookingRepository.findFirstBookingByItemAndStartBeforeAndStatus(item,
-                LocalDateTime.now().plusDays(10), BookingStatus.WAITING, byId);
-
-        assertNull(result);
+    public void findViewsByOwner_whenOffsetPaging_ThenSkipPreviousPages() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        Booking future = bookingRepository.save(Booking.builder()
+                .status(BookingStatus.WAITING)
+                .item(item)
+                .start(start)
+                .end(start.plusDays(1))
+                .booker(user2)
+                .build());
+
+        List<BookingView> first = bookingRepository.findViewsByOwner(user,
+                BookingFilter.of(State.ALL, LocalDateTime.now()), PageRequest.of(0, 1));
+        List<BookingView> second = bookingRepository.findViewsByOwner(user,
+                BookingFilter.of(State.ALL, LocalDateTime.now()), PageRequest.of(1, 1));
+
+        assertEquals(future.getId(), first.get(0).getId());
+        assertEquals(user2.getName(), first.get(0).getBookerName());
+        assertEquals(booking.getId(), second.get(0).getId());
     }
 
-    @Test
-    public void findFirstBookingByItemAndStartBeforeAndStatus_whenBookingFound_ThenReturnList() {
-        Booking result = bookingRepository.findFirstBookingByItemAndStartBeforeAndStatus(item,
-                LocalDateTime.now(), BookingStatus.APPROVED, byId);
-
-        assertNotNull(result);
-        assertEquals(result, booking);
-        assertEquals(result.getStatus(), BookingStatus.APPROVED);
-
-    }
 
     @Test
-    public void findFirstBookingByItemAndStartAfterAndStatus_whenBookingNotFound_ThenReturnEmptyList() {
-        Booking result = bookingRepository.findFirstBookingByItemAndStartAfterAndStatus(item,
-                LocalDateTime.now(), BookingStatus.APPROVED, byId);
+    public void findAllByStatusAndStartBefore_whenWaitingAndStarted_ThenReturnList() {
+        Booking stale = bookingRepository.save(Booking.builder()
+                .status(BookingStatus.WAITING)
+                .item(item)
+                .start(LocalDateTime.now().minusDays(1))
+                .end(LocalDateTime.now().plusDays(1))
+                .booker(user2)
+                .build());
+        bookingRepository.save(Booking.builder()
+                .status(BookingStatus.WAITING)
+                .item(item)
+                .start(LocalDateTime.now().plusDays(1))
+                .end(LocalDateTime.now().plusDays(2))
+                .booker(user2)
+                .build());
+
+        List<Booking> result = bookingRepository.findAllByStatusAndStartBefore(BookingStatus.WAITING,
+                LocalDateTime.now(), pageable);
 
-        assertNull(result);
+        assertEquals(List.of(stale.getId()), result.stream().map(Booking::getId).collect(Collectors.toList()));
     }
 
     @Test
-    public void findFirstBookingByItemAndStartAfterAndStatus_whenBookingFound_ThenReturnList() {
-        Booking result = bookingRepository.findFirstBookingByItemAndStartAfterAndStatus(item,
-                LocalDateTime.now().minusDays(10), BookingStatus.APPROVED, byId);
-
-        assertNotNull(result);
-        assertEquals(result, booking);
-        assertEquals(result.getStatus(), BookingStatus.APPROVED);
+    public void updateStatusByIdIn_whenStatusMatches_ThenUpdatedAndVersionIncremented() {
+        Booking stale = bookingRepository.save(Booking.builder()
+                .status(BookingStatus.WAITING)
+                .item(item)
+                .start(LocalDateTime.now().minusDays(1))
+                .end(LocalDateTime.now().plusDays(1))
+                .booker(user2)
+                .build());
+        Long version = stale.getVersion();
+
+        int result = bookingRepository.updateStatusByIdIn(List.of(stale.getId(), booking.getId()),
+                BookingStatus.WAITING, BookingStatus.EXPIRED);
+
+        assertEquals(1, result);
+        Booking expired = bookingRepository.findById(stale.getId()).orElseThrow();
+        assertEquals(BookingStatus.EXPIRED, expired.getStatus());
+        assertEquals(version + 1, expired.getVersion());
+        assertEquals(BookingStatus.APPROVED, bookingRepository.findById(booking.getId()).orElseThrow().getStatus());
     }
 
     @Test
-    public void findAllByItemInAndStartBeforeAndStatus_whenBookingNotFound_ThenReturnEmptyList() {
-        List<Booking> result = bookingRepository.findAllByItemInAndStartBeforeAndStatus(List.of(item),
-                LocalDateTime.now().minusDays(10), BookingStatus.APPROVED, byId);
+    public void existsByItem_IdAndIdNotAndStatusInAndStartBeforeAndEndAfter_whenOverlaps_ThenTrue() {
+        boolean result = bookingRepository.existsByItem_IdAndIdNotAndStatusInAndStartBeforeAndEndAfter(item.getId(),
+                -1L, List.of(BookingStatus.WAITING, BookingStatus.APPROVED),
+                LocalDateTime.now().plusDays(1), LocalDateTime.now());
 
-        assertTrue(result.isEmpty());
+        assertTrue(result);
     }
 
     @Test
-    public void findAllByItemInAndStartBeforeAndStatus_whenBookingFound_ThenReturnList() {
-        List<Booking> result = bookingRepository.findAllByItemInAndStartBeforeAndStatus(List.of(item),
-                LocalDateTime.now(), BookingStatus.APPROVED, byId);
+    public void existsByItem_IdAndIdNotAndStatusInAndStartBeforeAndEndAfter_whenOnlySelfOverlaps_ThenFalse() {
+        boolean result = bookingRepository.existsByItem_IdAndIdNotAndStatusInAndStartBeforeAndEndAfter(item.getId(),
+                booking.getId(), List.of(BookingStatus.WAITING, BookingStatus.APPROVED),
+                LocalDateTime.now().plusDays(1), LocalDateTime.now());
 
-        assertEquals(result.size(), 1);
-        assertEquals(result.get(0).getItem().getName(), item.getName());
-        assertEquals(result.get(0).getStatus(), BookingStatus.APPROVED);
+        assertFalse(result);
     }
 
     @Test
-    public void findAllByItemInAndStartAfterAndStatus_whenBookingNotFound_ThenReturnEmptyList() {
-        List<Booking> result = bookingRepository.findAllByItemInAndStartAfterAndStatus(List.of(item),
-                LocalDateTime.now(), BookingStatus.APPROVED, byId);
+    public void findAllByItem_IdAndStatusIn_whenStatusNotActive_ThenReturnEmptyList() {
+        List<Booking> result = bookingRepository.findAllByItem_IdAndStatusIn(item.getId(),
+                List.of(BookingStatus.WAITING));
 
         assertTrue(result.isEmpty());
     }
 
     @Test
-    public void findAllByItemInAndStartAfterAndStatus_whenBookingFound_ThenReturnList() {
-        List<Booking> result = bookingRepository.findAllByItemInAndStartAfterAndStatus(List.of(item),
-                LocalDateTime.now().minusDays(10), BookingStatus.APPROVED, byId);
+    public void findAllByItem_IdAndStatusInAndStartBeforeAndEndAfterOrderByStartAsc_whenInRange_ThenReturnList() {
+        List<Booking> result = bookingRepository.findAllByItem_IdAndStatusInAndStartBeforeAndEndAfterOrderByStartAsc(
+                item.getId(), BookingStatus.ACTIVE, LocalDateTime.now().plusDays(1), LocalDateTime.now());
 
-        assertEquals(result.size(), 1);
-        assertEquals(result.get(0).getBooker().getName(), user.getName());
+        assertEquals(1, result.size());
+        assertEquals(booking.getId(), result.get(0).getId());
     }
 
     @Test
-    public void findFirstBookingByItemAndBookerAndStatusAndEndBefore_whenBookingNotFound_ThenReturnEmptyList() {
-        Optional<Booking> result = bookingRepository.findFirstBookingByItemAndBookerAndStatusAndEndBefore(item,
-                user, BookingStatus.APPROVED, LocalDateTime.now(), byId);
+    public void findAllByItem_IdAndStatusInAndStartBeforeAndEndAfterOrderByStartAsc_whenOutOfRange_ThenReturnEmptyList() {
+        List<Booking> result = bookingRepository.findAllByItem_IdAndStatusInAndStartBeforeAndEndAfterOrderByStartAsc(
+                item.getId(), BookingStatus.ACTIVE, LocalDateTime.now().plusDays(20), LocalDateTime.now().plusDays(10));
 
-        assertFalse(result.isPresent());
+        assertTrue(result.isEmpty());
     }
 
-    @Test
-    public void findFirstBookingByItemAndBookerAndStatusAndEndBefore_whenBookingFound_ThenReturnList() {
-        Optional<Booking> result = bookingRepository.findFirstBookingByItemAndBookerAndStatusAndEndBefore(item,
-                user, BookingStatus.APPROVED, LocalDateTime.now().plusDays(10), byId);
-
-        assertTrue(result.isPresent());
-        assertEquals(result.get().getBooker().getName(), user.getName());
+    private List<Long> ids(List<BookingView> views) {
+        return views.stream()
+                .map(BookingView::getId)
+                .collect(Collectors.toList());
     }
-
 }
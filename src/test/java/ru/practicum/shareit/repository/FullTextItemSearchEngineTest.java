@@ -0,0 +1,91 @@
+package ru.practicum.shareit.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.impl.FullTextItemSearchEngine;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest(properties = "shareit.item.search.engine=fulltext")
+@Import(FullTextItemSearchEngine.class)
+public class FullTextItemSearchEngineTest {
+    private final Pageable pageable = PageRequest.of(0, 10);
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    ItemRepository itemRepository;
+    @Autowired
+    FullTextItemSearchEngine fullTextItemSearchEngine;
+    private Item drill;
+    private Item screwdriver;
+    private Item hiddenDrill;
+
+    @BeforeEach
+    void setUp() {
+        User user = userRepository.save(User.builder()
+                .name("user")
+                .email("user@user.com")
+                .build());
+        drill = itemRepository.save(Item.builder()
+                .name("Дрель")
+                .description("Аккумуляторная дрель")
+                .owner(user)
+                .available(true)
+                .build());
+        screwdriver = itemRepository.save(Item.builder()
+                .name("Отвертка")
+                .description("Подходит вместо дрель-шуруповерта")
+                .owner(user)
+                .available(true)
+                .build());
+        hiddenDrill = itemRepository.save(Item.builder()
+                .name("Дрель")
+                .description("Сломанная")
+                .owner(user)
+                .available(false)
+                .build());
+    }
+
+    @Test
+    public void search_whenWordMatches_thenReturnAvailableItems() {
+        List<Item> result = fullTextItemSearchEngine.search("дрель", pageable);
+
+        assertEquals(2, result.size());
+        assertTrue(result.stream().anyMatch(item -> item.getId().equals(drill.getId())));
+        assertTrue(result.stream().anyMatch(item -> item.getId().equals(screwdriver.getId())));
+    }
+
+    @Test
+    public void search_whenSeveralWords_thenReturnItemsWithAllWords() {
+        List<Item> result = fullTextItemSearchEngine.search("Аккумуляторная дрель", pageable);
+
+        assertEquals(1, result.size());
+        assertEquals(drill.getId(), result.get(0).getId());
+    }
+
+    @Test
+    public void search_whenNothingMatches_thenReturnEmptyList() {
+        List<Item> result = fullTextItemSearchEngine.search("перфоратор", pageable);
+
+        assertTrue(result.isEmpty());
+    }
+
+    @Test
+    public void search_whenOnlyPunctuation_thenReturnEmptyList() {
+        List<Item> result = fullTextItemSearchEngine.search("!!!", pageable);
+
+        assertTrue(result.isEmpty());
+    }
+}
@@ -0,0 +1,316 @@
+package ru.practicum.shareit.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingFilter;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.model.State;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.common.SeekCursor;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.model.Request;
+import ru.practicum.shareit.request.repository.RequestMatchRepository;
+import ru.practicum.shareit.request.repository.RequestRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+public class IndexPlanTest {
+    private static final LocalDateTime MOMENT = LocalDateTime.of(2023, 1, 1, 12, 0);
+    private static final SeekCursor CURSOR = new SeekCursor(MOMENT, 100L);
+    private static final PageRequest PAGE = PageRequest.of(0, 10);
+    @Autowired
+    DataSource dataSource;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    ItemRepository itemRepository;
+    @Autowired
+    BookingRepository bookingRepository;
+    @Autowired
+    CommentRepository commentRepository;
+    @Autowired
+    RequestRepository requestRepository;
+    @Autowired
+    RequestMatchRepository requestMatchRepository;
+    private User user;
+    private Item item;
+    private Request request;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(User.builder()
+                .name("user")
+                .email("user@user.com")
+                .build());
+        request = requestRepository.save(Request.builder()
+                .description("нужна дрель")
+                .requestor(user)
+                .created(MOMENT)
+                .build());
+        item = itemRepository.save(Item.builder()
+                .name("дрель")
+                .description("простая дрель")
+                .available(true)
+                .owner(user)
+                .request(request)
+                .build());
+        bookingRepository.save(Booking.builder()
+                .item(item)
+                .booker(user)
+                .start(MOMENT.minusDays(2))
+                .end(MOMENT.minusDays(1))
+                .status(BookingStatus.APPROVED)
+                .build());
+    }
+
+    @Test
+    public void findViewsByBooker_usesIndex() {
+        for (State state : State.values()) {
+            assertUsesIndex(() -> bookingRepository.findViewsByBooker(user, BookingFilter.of(state, MOMENT), PAGE),
+                    "bookings_booker_status_start_idx");
+        }
+    }
+
+    @Test
+    public void findViewsByOwner_usesIndex() {
+        for (State state : State.values()) {
+            assertUsesIndex(() -> bookingRepository.findViewsByOwner(user, BookingFilter.of(state, MOMENT), PAGE),
+                    "items_owner_id_idx", "bookings_item_status_start_idx");
+        }
+    }
+
+    @Test
+    public void findViewsByBookerAfterCursor_usesIndex() {
+        for (State state : State.values()) {
+            assertUsesIndex(() -> bookingRepository.findViewsByBookerAfterCursor(user,
+                    BookingFilter.of(state, MOMENT), CURSOR, PAGE), "bookings_booker_status_start_idx");
+        }
+    }
+
+    @Test
+    public void findViewsByOwnerAfterCursor_usesIndex() {
+        for (State state : State.values()) {
+            assertUsesIndex(() -> bookingRepository.findViewsByOwnerAfterCursor(user,
+                            BookingFilter.of(state, MOMENT), CURSOR, PAGE),
+                    "items_owner_id_idx", "bookings_item_status_start_idx");
+        }
+    }
+
+    @Test
+    public void findLastApprovedByItemIdIn_usesIndex() {
+        assertUsesIndex(() -> bookingRepository.findLastApprovedByItemIdIn(List.of(item.getId()), MOMENT),
+                "bookings_item_status_start_idx");
+    }
+
+    @Test
+    public void findFirstBookingByItemAndBookerAndStatusAndEndBefore_usesIndex() {
+        assertUsesIndex(() -> bookingRepository.findFirstBookingByItemAndBookerAndStatusAndEndBefore(item, user,
+                        BookingStatus.APPROVED, MOMENT, Sort.by(Sort.Direction.DESC, "end")),
+                "bookings_item_booker_status_end_idx");
+    }
+
+    @Test
+    public void findAllByOwner_usesIndex() {
+        assertUsesIndex(() -> itemRepository.findAllByOwner(user, PageRequest.of(0, 10, Sort.by("id"))),
+                "items_owner_id_idx");
+    }
+
+    @Test
+    public void findAllByRequestIn_usesIndex() {
+        assertUsesIndex(() -> itemRepository.findAllByRequestIn(List.of(request), Sort.by("id")),
+                "items_request_id_idx");
+    }
+
+    @Test
+    public void searchFreeInPeriod_whenItemsScanned_thenBookingsCheckedByIndex() {
+        List<String> plans = explain(() -> itemRepository.searchFreeInPeriod("дрель", MOMENT, MOMENT.plusDays(1),
+                BookingStatus.APPROVED, PAGE));
+
+        assertFalse(plans.isEmpty());
+        for (String plan : plans) {
+            assertFalse(plan.replace("PUBLIC.ITEMS.tableScan", "").contains("tableScan"), plan);
+        }
+        assertPlansContain(plans, "bookings_item_status_start_idx");
+    }
+
+    @Test
+    public void findAllByItemIn_usesIndex() {
+        assertUsesIndex(() -> commentRepository.findAllByItemIn(List.of(item), Sort.by("created")),
+                "comments_item_created_idx");
+    }
+
+    @Test
+    public void findItemIdsByAuthorId_usesIndex() {
+        assertUsesIndex(() -> commentRepository.findItemIdsByAuthorId(user.getId()), "comments_author_item_idx");
+    }
+
+    @Test
+    public void findAllByRequestor_usesIndex() {
+        assertUsesIndex(() -> requestRepository.findAllByRequestor(user, Sort.by(Sort.Direction.DESC, "created")),
+                "requests_requestor_created_idx");
+    }
+
+    @Test
+    public void findAllByRequestorNotAfterCursor_usesIndex() {
+        assertUsesIndex(() -> requestRepository.findAllByRequestorNotAfterCursor(user, CURSOR, PAGE),
+                "requests_created_id_idx");
+    }
+
+    @Test
+    public void findAllMatchesByOwner_usesIndex() {
+        assertUsesIndex(() -> requestMatchRepository.findAllByOwner(user, PAGE),
+                "items_owner_id_idx", "request_matches_item_score_idx");
+    }
+
+    private void assertUsesIndex(Runnable query, String... indexes) {
+        List<String> plans = explain(query);
+
+        assertFalse(plans.isEmpty());
+        for (String plan : plans) {
+            assertFalse(plan.contains("tableScan"), plan);
+        }
+        assertPlansContain(plans, indexes);
+    }
+
+    private void assertPlansContain(List<String> plans, String... indexes) {
+        String joined = String.join("\n", plans).toLowerCase(Locale.ROOT);
+        for (String index : indexes) {
+            assertTrue(joined.contains(index), joined);
+        }
+    }
+
+    private List<String> explain(Runnable query) {
+        List<CapturedStatement> statements = ((CapturingDataSource) dataSource).capture(query);
+        List<String> plans = new ArrayList<>();
+        for (CapturedStatement statement : statements) {
+            if (statement.sql.trim().toLowerCase(Locale.ROOT).startsWith("select")) {
+                plans.add(jdbcTemplate.queryForObject("EXPLAIN " + statement.sql, String.class,
+                        statement.parameters.toArray()));
+            }
+        }
+        return plans;
+    }
+
+    @TestConfiguration
+    static class CaptureConfig {
+        @Bean
+        static BeanPostProcessor capturingDataSourcePostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (bean instanceof DataSource && !(bean instanceof CapturingDataSource)) {
+                        return new CapturingDataSource((DataSource) bean);
+                    }
+                    return bean;
+                }
+            };
+        }
+    }
+
+    private static class CapturedStatement {
+        private final String sql;
+        private final List<Object> parameters;
+
+        CapturedStatement(String sql, List<Object> parameters) {
+            this.sql = sql;
+            this.parameters = parameters;
+        }
+    }
+
+    private static class CapturingDataSource extends DelegatingDataSource {
+        private final List<CapturedStatement> statements = new CopyOnWriteArrayList<>();
+        private volatile boolean capturing;
+
+        CapturingDataSource(DataSource dataSource) {
+            super(dataSource);
+        }
+
+        List<CapturedStatement> capture(Runnable query) {
+            statements.clear();
+            capturing = true;
+            try {
+                query.run();
+            } finally {
+                capturing = false;
+            }
+            return new ArrayList<>(statements);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return wrap(super.getConnection());
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return wrap(super.getConnection(username, password));
+        }
+
+        private Connection wrap(Connection connection) {
+            return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class},
+                    (proxy, method, args) -> {
+                        Object result = invoke(connection, method, args);
+                        if (capturing && method.getName().equals("prepareStatement")) {
+                            return wrap((PreparedStatement) result, (String) args[0]);
+                        }
+                        return result;
+                    });
+        }
+
+        private PreparedStatement wrap(PreparedStatement statement, String sql) {
+            Map<Integer, Object> parameters = new TreeMap<>();
+            return (PreparedStatement) Proxy.newProxyInstance(getClass().getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class},
+                    (proxy, method, args) -> {
+                        String name = method.getName();
+                        if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                            parameters.put((Integer) args[0], name.equals("setNull") ? null : args[1]);
+                        } else if (name.startsWith("execute")) {
+                            statements.add(new CapturedStatement(sql, new ArrayList<>(parameters.values())));
+                        }
+                        return invoke(statement, method, args);
+                    });
+        }
+
+        private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -7,6 +7,9 @@ import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.request.model.Request;
@@ -16,6 +19,7 @@ import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -31,6 +35,8 @@ public class ItemRepositoryTest {
     ItemRepository itemRepository;
     @Autowired
     RequestRepository requestRepository;
+    @Autowired
+    BookingRepository bookingRepository;
     private User user;
     private User user2;
     private User user3;
@@ -152,4 +158,100 @@ public class ItemRepositoryTest {
         assertEquals(result.get(0).getRequest().getId(), request.getId());
     }
 
+
+    @Test
+    public void searchFreeInPeriod_whenApprovedBookingOverlaps_thenItemExcluded() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        bookingRepository.save(Booking.builder()
+                .item(item)
+                .booker(user3)
+                .start(start)
+                .end(start.plusDays(2))
+                .status(BookingStatus.APPROVED)
+                .build());
+
+        List<Item> busy = itemRepository.searchFreeInPeriod("скотч", start.plusDays(1), start.plusDays(3),
+                BookingStatus.APPROVED, pageable);
+        List<Item> free = itemRepository.searchFreeInPeriod("скотч", start.plusDays(2), start.plusDays(3),
+                BookingStatus.APPROVED, pageable);
+
+        assertTrue(busy.isEmpty());
+        assertEquals(1, free.size());
+        assertEquals(item.getId(), free.get(0).getId());
+    }
+
+    @Test
+    public void searchFreeInPeriod_whenOnlyWaitingBookingOverlaps_thenItemReturned() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        bookingRepository.save(Booking.builder()
+                .item(item)
+                .booker(user3)
+                .start(start)
+                .end(start.plusDays(2))
+                .status(BookingStatus.WAITING)
+                .build());
+
+        List<Item> result = itemRepository.searchFreeInPeriod("СКОТЧ", start, start.plusDays(1),
+                BookingStatus.APPROVED, pageable);
+
+        assertEquals(1, result.size());
+    }
+
+    @Test
+    public void searchFreeInPeriod_whenTextHasWildcards_thenMatchedLiterally() {
+        Item percent = itemRepository.save(Item.builder()
+                .name("скидка 50%")
+                .description("на_всё")
+                .owner(user2)
+                .available(true)
+                .build());
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+
+        List<Item> byPercent = itemRepository.searchFreeInPeriod("%", start, start.plusDays(1),
+                BookingStatus.APPROVED, pageable);
+        List<Item> byUnderscore = itemRepository.searchFreeInPeriod("_", start, start.plusDays(1),
+                BookingStatus.APPROVED, pageable);
+
+        assertEquals(List.of(percent.getId()), byPercent.stream().map(Item::getId).collect(Collectors.toList()));
+        assertEquals(List.of(percent.getId()), byUnderscore.stream().map(Item::getId).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void searchFreeInPeriod_whenNameOrDescriptionMatches_thenAvailableItemsReturned() {
+        Item byDescription = itemRepository.save(Item.builder()
+                .name("лента")
+                .description("почти скотч")
+                .owner(user2)
+                .available(true)
+                .build());
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+
+        List<Item> result = itemRepository.searchFreeInPeriod("скотч", start, start.plusDays(1),
+                BookingStatus.APPROVED, pageable);
+
+        assertEquals(List.of(item.getId(), byDescription.getId()),
+                result.stream().map(Item::getId).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void searchFreeInPeriod_whenItemUnavailable_thenExcluded() {
+        itemRepository.save(Item.builder()
+                .name("скотч малярный")
+                .description("недоступен")
+                .owner(user2)
+                .available(false)
+                .build());
+        itemRepository.save(Item.builder()
+                .name("лента")
+                .description("почти скотч")
+                .owner(user2)
+                .available(false)
+                .build());
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+
+        List<Item> result = itemRepository.searchFreeInPeriod("скотч", start, start.plusDays(1),
+                BookingStatus.APPROVED, pageable);
+
+        assertEquals(List.of(item.getId()), result.stream().map(Item::getId).collect(Collectors.toList()));
+    }
 }
@@ -0,0 +1,93 @@
+package ru.practicum.shareit.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.outbox.model.DomainEventType;
+import ru.practicum.shareit.outbox.model.OutboxEvent;
+import ru.practicum.shareit.outbox.repository.OutboxEventRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+public class OutboxEventRepositoryTest {
+    @Autowired
+    OutboxEventRepository outboxEventRepository;
+    private OutboxEvent first;
+    private OutboxEvent second;
+    private OutboxEvent third;
+
+    @BeforeEach
+    void setUp() {
+        first = outboxEventRepository.save(event(DomainEventType.USER_CREATED, 1L));
+        second = outboxEventRepository.save(event(DomainEventType.ITEM_CREATED, 1L));
+        third = outboxEventRepository.save(event(DomainEventType.BOOKING_CREATED, 1L));
+    }
+
+    @Test
+    void findAllByIdGreaterThanOrderByIdAsc() {
+        List<OutboxEvent> result = outboxEventRepository.findAllByIdGreaterThanOrderByIdAsc(first.getId(),
+                PageRequest.of(0, 1));
+
+        assertEquals(1, result.size());
+        assertEquals(second.getId(), result.get(0).getId());
+        assertEquals(DomainEventType.ITEM_CREATED, result.get(0).getType());
+    }
+
+    @Test
+    void findMaxId() {
+        assertEquals(third.getId(), outboxEventRepository.findMaxId());
+
+        outboxEventRepository.deleteAll();
+
+        assertEquals(0L, outboxEventRepository.findMaxId());
+    }
+
+    @Test
+    void deleteAllByIdLessThanEqualAndCreatedBefore() {
+        first.setCreated(LocalDateTime.now().minusHours(2));
+        second.setCreated(LocalDateTime.now().minusHours(2));
+        outboxEventRepository.saveAllAndFlush(List.of(first, second));
+
+        int deleted = outboxEventRepository.deleteAllByIdLessThanEqualAndCreatedBefore(third.getId(),
+                LocalDateTime.now().minusHours(1));
+
+        assertEquals(2, deleted);
+        assertEquals(List.of(third.getId()), outboxEventRepository.findAll()
+                .stream()
+                .map(OutboxEvent::getId)
+                .collect(Collectors.toList()));
+    }
+
+    @Test
+    void deleteAllByIdLessThanEqualAndCreatedBefore_whenNotConsumed_thenKept() {
+        first.setCreated(LocalDateTime.now().minusHours(2));
+        second.setCreated(LocalDateTime.now().minusHours(2));
+        outboxEventRepository.saveAllAndFlush(List.of(first, second));
+
+        int deleted = outboxEventRepository.deleteAllByIdLessThanEqualAndCreatedBefore(first.getId(),
+                LocalDateTime.now().minusHours(1));
+
+        assertEquals(1, deleted);
+        assertEquals(List.of(second.getId(), third.getId()), outboxEventRepository.findAll()
+                .stream()
+                .map(OutboxEvent::getId)
+                .sorted()
+                .collect(Collectors.toList()));
+    }
+
+    private OutboxEvent event(DomainEventType type, Long aggregateId) {
+        return OutboxEvent.builder()
+                .type(type)
+                .aggregateId(aggregateId)
+                .payload("{}")
+                .created(LocalDateTime.now())
+                .build();
+    }
+}
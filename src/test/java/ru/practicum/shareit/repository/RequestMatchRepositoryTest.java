@@ -0,0 +1,122 @@
+package ru.practicum.shareit.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.dto.RequestMatchDto;
+import ru.practicum.shareit.request.model.Request;
+import ru.practicum.shareit.request.model.RequestMatch;
+import ru.practicum.shareit.request.repository.RequestMatchRepository;
+import ru.practicum.shareit.request.repository.RequestRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+public class RequestMatchRepositoryTest {
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    ItemRepository itemRepository;
+    @Autowired
+    RequestRepository requestRepository;
+    @Autowired
+    RequestMatchRepository requestMatchRepository;
+    private User owner;
+    private User owner2;
+    private Request request;
+    private Request request2;
+    private Item item;
+    private Item item2;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(User.builder()
+                .name("owner")
+                .email("owner@user.com")
+                .build());
+        owner2 = userRepository.save(User.builder()
+                .name("owner2")
+                .email("owner2@user.com")
+                .build());
+        User requestor = userRepository.save(User.builder()
+                .name("requestor")
+                .email("requestor@user.com")
+                .build());
+        request = requestRepository.save(Request.builder()
+                .requestor(requestor)
+                .created(LocalDateTime.now())
+                .description("нужна дрель")
+                .build());
+        request2 = requestRepository.save(Request.builder()
+                .requestor(requestor)
+                .created(LocalDateTime.now())
+                .description("нужна ударная дрель")
+                .build());
+        item = itemRepository.save(Item.builder()
+                .name("дрель ударная")
+                .description("мощная")
+                .owner(owner)
+                .available(true)
+                .build());
+        item2 = itemRepository.save(Item.builder()
+                .name("дрель")
+                .description("обычная")
+                .owner(owner2)
+                .available(true)
+                .build());
+
+        requestMatchRepository.saveAll(List.of(
+                match(request, item, 1.0),
+                match(request2, item, 2.0),
+                match(request, item2, 3.0)));
+    }
+
+    @Test
+    public void findAllByOwner_whenMatchesFound_ThenReturnOwnItemsByScore() {
+        List<RequestMatchDto> result = requestMatchRepository.findAllByOwner(owner, PageRequest.of(0, 10));
+
+        assertEquals(2, result.size());
+        assertEquals(request2.getId(), result.get(0).getRequestId());
+        assertEquals(request2.getDescription(), result.get(0).getDescription());
+        assertEquals(item.getName(), result.get(0).getItemName());
+        assertEquals(2.0, result.get(0).getScore());
+        assertEquals(request.getId(), result.get(1).getRequestId());
+    }
+
+    @Test
+    public void findAllByOwner_whenPaged_ThenReturnPage() {
+        List<RequestMatchDto> result = requestMatchRepository.findAllByOwner(owner, PageRequest.of(1, 1));
+
+        assertEquals(1, result.size());
+        assertEquals(request.getId(), result.get(0).getRequestId());
+    }
+
+    @Test
+    public void findAllByOwner_whenNoMatches_ThenReturnEmptyList() {
+        User stranger = userRepository.save(User.builder()
+                .name("stranger")
+                .email("stranger@user.com")
+                .build());
+
+        assertTrue(requestMatchRepository.findAllByOwner(stranger, PageRequest.of(0, 10)).isEmpty());
+    }
+
+    private RequestMatch match(Request request, Item item, double score) {
+        return RequestMatch.builder()
+                .request(request)
+                .item(item)
+                .score(score)
+                .created(LocalDateTime.now())
+                .build();
+    }
+}
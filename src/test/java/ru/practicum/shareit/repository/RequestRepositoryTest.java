@@ -7,13 +7,17 @@ import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import ru.practicum.shareit.common.SeekCursor;
 import ru.practicum.shareit.request.model.Request;
 import ru.practicum.shareit.request.repository.RequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -49,12 +53,12 @@ public class RequestRepositoryTest {
                 .build();
         request = Request.builder()
                 .requestor(user)
-                .created(LocalDateTime.now())
+                .created(LocalDateTime.now().truncatedTo(ChronoUnit.MICROS))
                 .description("нужен скотч склеить книгу")
                 .build();
         request2 = Request.builder()
                 .requestor(user2)
-                .created(LocalDateTime.now())
+                .created(LocalDateTime.now().truncatedTo(ChronoUnit.MICROS))
                 .description("нужен гаечный глюч на 88")
                 .build();
 
@@ -90,4 +94,34 @@ public class RequestRepositoryTest {
         assertEquals(result.get(1).getRequestor().getName(), user2.getName());
     }
 
+    @Test
+    public void findAllByRequestorNotAfterCursor_whenPaged_ThenEachRequestOnce() {
+        LocalDateTime created = LocalDateTime.of(2030, 1, 1, 12, 0);
+        for (int i = 0; i < 5; i++) {
+            requestRepository.save(Request.builder()
+                    .requestor(user2)
+                    .created(i < 3 ? created : created.minusDays(i))
+                    .description("запрос " + i)
+                    .build());
+        }
+
+        List<Long> seen = new ArrayList<>();
+        SeekCursor cursor = SeekCursor.first();
+        List<Request> page;
+        do {
+            page = requestRepository.findAllByRequestorNotAfterCursor(user, cursor, PageRequest.of(0, 2));
+            for (Request current : page) {
+                seen.add(current.getId());
+            }
+            if (!page.isEmpty()) {
+                Request last = page.get(page.size() - 1);
+                cursor = new SeekCursor(last.getCreated(), last.getId());
+            }
+        } while (page.size() == 2);
+
+        List<Request> expected = requestRepository.findAllByRequestorNot(user,
+                PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "created", "id")));
+        assertEquals(expected.stream().map(Request::getId).collect(Collectors.toList()), seen);
+        assertEquals(6, seen.size());
+    }
 }
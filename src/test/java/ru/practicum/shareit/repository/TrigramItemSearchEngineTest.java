@@ -0,0 +1,97 @@
+package ru.practicum.shareit.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.impl.TrigramItemSearchEngine;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest(properties = "shareit.item.search.engine=trigram")
+@Import(TrigramItemSearchEngine.class)
+public class TrigramItemSearchEngineTest {
+    private final Sort byId = Sort.by(Sort.Direction.ASC, "id");
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    ItemRepository itemRepository;
+    @Autowired
+    TrigramItemSearchEngine trigramItemSearchEngine;
+
+    @BeforeEach
+    void setUp() {
+        User user = userRepository.save(User.builder()
+                .name("user")
+                .email("user@user.com")
+                .build());
+        String[] names = {"Дрель аккумуляторная", "Дрель", "Отвертка", "Шуруповерт", "Молоток", "Скотч",
+                "Лестница", "Пылесос", "Клей", "Ключ гаечный"};
+        String[] descriptions = {"Мощная", "Для дрели подойдет", "Крестовая", "С аккумулятором", "Обычный",
+                "Прозрачный 50%", "Стремянка 2 м", "Моющий", "Суперклей_момент", "На 12"};
+        for (int i = 0; i < 40; i++) {
+            itemRepository.save(Item.builder()
+                    .name(names[i % names.length] + (i >= names.length ? " " + i : ""))
+                    .description(descriptions[(i * 7) % descriptions.length])
+                    .owner(user)
+                    .available(i % 3 != 0)
+                    .build());
+        }
+        trigramItemSearchEngine.rebuild();
+    }
+
+    @Test
+    public void search_whenQueriesVary_thenSameRowsAsContainingIgnoreCase() {
+        List<String> queries = List.of("дрел", "ДРЕЛЬ", "аккум", "ел", "к", "1", "12", "50%", "клей_", "_",
+                "ключ гаечный", "ртка", "мост", "нет такого");
+        for (String query : queries) {
+            for (int page = 0; page < 3; page++) {
+                Pageable pageable = PageRequest.of(page, 7, byId);
+
+                List<Long> expected = ids(itemRepository
+                        .findAllByNameContainingIgnoreCaseOrDescriptionContainingIgnoreCaseAndAvailable(query, query,
+                                true, pageable));
+                List<Long> actual = ids(trigramItemSearchEngine.search(query, pageable));
+
+                assertEquals(expected, actual, String.format("query '%s', page %d", query, page));
+            }
+        }
+    }
+
+    @Test
+    public void search_whenItemUpdated_thenSameRowsAsContainingIgnoreCase() {
+        Item item = itemRepository.findAll(byId).get(0);
+        item.setName("Перфоратор");
+        item.setAvailable(false);
+        itemRepository.save(item);
+        trigramItemSearchEngine.index(item);
+        Pageable pageable = PageRequest.of(0, 50, byId);
+
+        for (String query : List.of("перфо", "дрель", "мощ")) {
+            List<Long> expected = ids(itemRepository
+                    .findAllByNameContainingIgnoreCaseOrDescriptionContainingIgnoreCaseAndAvailable(query, query,
+                            true, pageable));
+            List<Long> actual = ids(trigramItemSearchEngine.search(query, pageable));
+
+            assertEquals(expected, actual, String.format("query '%s'", query));
+        }
+    }
+
+    private List<Long> ids(List<Item> items) {
+        return items
+                .stream()
+                .map(Item::getId)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,158 @@
+package ru.practicum.shareit.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.shareit.booking.dto.BookingDtoOutToItem;
+import ru.practicum.shareit.booking.expiry.BookingExpiryScheduler;
+import ru.practicum.shareit.booking.index.BookingIntervalIndex;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.outbox.model.DomainEventType;
+import ru.practicum.shareit.outbox.service.OutboxWriter;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+
+@ExtendWith(MockitoExtension.class)
+public class BookingExpirySchedulerTest {
+    @Mock
+    private BookingRepository bookingRepository;
+    @Mock
+    private BookingIntervalIndex bookingIntervalIndex;
+    @Mock
+    private OutboxWriter outboxWriter;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    private MeterRegistry meterRegistry;
+    private BookingExpiryScheduler scheduler;
+    private Item item;
+    private User booker;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        scheduler = new BookingExpiryScheduler(bookingRepository, bookingIntervalIndex, outboxWriter,
+                transactionManager, meterRegistry, 2, 3);
+        item = Item.builder()
+                .id(1L)
+                .name("дрель")
+                .description("ударная")
+                .available(true)
+                .build();
+        booker = User.builder()
+                .id(2L)
+                .name("booker")
+                .email("booker@user.com")
+                .build();
+    }
+
+    @Test
+    void expireStale_whenLessThanBatch_thenSingleBatchAndMetricsRecorded() {
+        List<Booking> stale = bookings(1L);
+        Mockito
+                .when(bookingRepository.findAllByStatusAndStartBefore(eq(BookingStatus.WAITING), any(), any()))
+                .thenReturn(stale);
+        Mockito
+                .when(bookingRepository.updateStatusByIdIn(List.of(1L), BookingStatus.WAITING, BookingStatus.EXPIRED))
+                .thenReturn(1);
+
+        int result = scheduler.expireStale();
+
+        assertEquals(1, result);
+        Mockito.verify(bookingIntervalIndex).releaseAfterCommit(stale);
+        Mockito.verify(outboxWriter).append(eq(DomainEventType.BOOKING_EXPIRED), eq(1L),
+                argThat(payload -> ((BookingDtoOutToItem) payload).getStatus() == BookingStatus.EXPIRED));
+        Mockito.verify(bookingRepository, never()).findIdsByIdInAndStatus(anyList(), any());
+        Mockito.verify(transactionManager, times(1)).commit(any());
+        assertEquals(1.0, meterRegistry.get("bookings.expired").counter().count());
+        assertEquals(1.0, meterRegistry.get("bookings.expiry.run.rows").summary().totalAmount());
+    }
+
+    @Test
+    void expireStale_whenBacklogExceedsBatches_thenStopsAfterMaxBatches() {
+        Mockito
+                .when(bookingRepository.findAllByStatusAndStartBefore(eq(BookingStatus.WAITING), any(), any()))
+                .thenReturn(bookings(1L, 2L), bookings(3L, 4L), bookings(5L, 6L));
+        Mockito
+                .when(bookingRepository.updateStatusByIdIn(anyList(), eq(BookingStatus.WAITING),
+                        eq(BookingStatus.EXPIRED)))
+                .thenReturn(2);
+
+        int result = scheduler.expireStale();
+
+        assertEquals(6, result);
+        Mockito.verify(bookingRepository, times(3)).updateStatusByIdIn(anyList(), any(), any());
+        Mockito.verify(transactionManager, times(3)).commit(any());
+        assertEquals(6.0, meterRegistry.get("bookings.expired").counter().count());
+    }
+
+    @Test
+    void expireStale_whenBookingChangedConcurrently_thenOnlyExpiredReleased() {
+        List<Booking> stale = bookings(1L, 2L);
+        Mockito
+                .when(bookingRepository.findAllByStatusAndStartBefore(eq(BookingStatus.WAITING), any(), any()))
+                .thenReturn(stale);
+        Mockito
+                .when(bookingRepository.updateStatusByIdIn(List.of(1L, 2L), BookingStatus.WAITING,
+                        BookingStatus.EXPIRED))
+                .thenReturn(1);
+        Mockito
+                .when(bookingRepository.findIdsByIdInAndStatus(List.of(1L, 2L), BookingStatus.EXPIRED))
+                .thenReturn(List.of(2L));
+
+        int result = scheduler.expireStale();
+
+        assertEquals(1, result);
+        Mockito.verify(bookingIntervalIndex).releaseAfterCommit(List.of(stale.get(1)));
+        Mockito.verify(outboxWriter).append(eq(DomainEventType.BOOKING_EXPIRED), eq(2L), any());
+        Mockito.verify(outboxWriter, never()).append(eq(DomainEventType.BOOKING_EXPIRED), eq(1L), any());
+    }
+
+    @Test
+    void expireStale_whenNothingStale_thenNoUpdate() {
+        Mockito
+                .when(bookingRepository.findAllByStatusAndStartBefore(eq(BookingStatus.WAITING), any(), any()))
+                .thenReturn(List.of());
+
+        int result = scheduler.expireStale();
+
+        assertEquals(0, result);
+        Mockito.verify(bookingRepository, never()).updateStatusByIdIn(anyList(), any(), any());
+        Mockito.verifyNoInteractions(outboxWriter);
+        assertEquals(1L, meterRegistry.get("bookings.expiry.run.rows").summary().count());
+    }
+
+    private List<Booking> bookings(Long... ids) {
+        List<Booking> bookings = new ArrayList<>();
+        for (Long id : ids) {
+            bookings.add(Booking.builder()
+                    .id(id)
+                    .item(item)
+                    .booker(booker)
+                    .start(LocalDateTime.now().minusDays(1))
+                    .end(LocalDateTime.now().plusDays(1))
+                    .status(BookingStatus.WAITING)
+                    .build());
+        }
+        return bookings;
+    }
+}
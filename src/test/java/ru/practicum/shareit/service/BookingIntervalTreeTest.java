@@ -0,0 +1,78 @@
+package ru.practicum.shareit.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.index.BookingIntervalTree;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BookingIntervalTreeTest {
+    private final LocalDateTime base = LocalDateTime.of(2030, 1, 1, 0, 0);
+    private BookingIntervalTree tree;
+
+    @BeforeEach
+    void setUp() {
+        tree = new BookingIntervalTree();
+    }
+
+    @Test
+    void overlaps_whenIntervalsTouch_thenFalse() {
+        tree.insert(1L, base, base.plusHours(2));
+
+        assertFalse(tree.overlaps(base.plusHours(2), base.plusHours(3)));
+        assertFalse(tree.overlaps(base.minusHours(1), base));
+        assertTrue(tree.overlaps(base.plusHours(1), base.plusHours(3)));
+        assertTrue(tree.overlaps(base.minusHours(1), base.plusHours(5)));
+    }
+
+    @Test
+    void overlaps_whenLongIntervalHiddenBehindShortOne_thenTrue() {
+        tree.insert(1L, base, base.plusDays(10));
+        tree.insert(2L, base.plusDays(1), base.plusDays(2));
+        tree.insert(3L, base.plusDays(3), base.plusDays(4));
+
+        assertTrue(tree.overlaps(base.plusDays(5), base.plusDays(6)));
+    }
+
+    @Test
+    void remove_whenRemoved_thenNoOverlap() {
+        tree.insert(1L, base, base.plusHours(2));
+        tree.insert(2L, base.plusHours(4), base.plusHours(6));
+
+        tree.remove(1L, base);
+
+        assertEquals(1, tree.size());
+        assertFalse(tree.overlaps(base, base.plusHours(1)));
+        assertTrue(tree.overlaps(base.plusHours(5), base.plusHours(7)));
+    }
+
+    @Test
+    void overlaps_whenRandomIntervals_thenSameAsLinearScan() {
+        Random random = new Random(42);
+        List<LocalDateTime[]> intervals = new ArrayList<>();
+        for (long id = 0; id < 2000; id++) {
+            LocalDateTime start = base.plusHours(random.nextInt(20000));
+            LocalDateTime end = start.plusHours(1 + random.nextInt(48));
+            tree.insert(id, start, end);
+            intervals.add(new LocalDateTime[]{start, end});
+        }
+        for (long id = 0; id < 2000; id += 3) {
+            tree.remove(id, intervals.get((int) id)[0]);
+            intervals.set((int) id, null);
+        }
+
+        for (int i = 0; i < 1000; i++) {
+            LocalDateTime start = base.plusHours(random.nextInt(20000));
+            LocalDateTime end = start.plusHours(1 + random.nextInt(48));
+            boolean expected = intervals.stream()
+                    .anyMatch(interval -> interval != null
+                            && interval[0].isBefore(end) && start.isBefore(interval[1]));
+            assertEquals(expected, tree.overlaps(start, end));
+        }
+    }
+}
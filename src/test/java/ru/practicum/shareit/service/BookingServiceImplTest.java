@@ -4,21 +4,30 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import ru.practicum.shareit.booking.dto.BookingDtoIn;
 import ru.practicum.shareit.booking.dto.BookingDtoOut;
+import ru.practicum.shareit.booking.dto.BookingView;
+import ru.practicum.shareit.booking.event.BookingChangedEvent;
 import ru.practicum.shareit.booking.exception.BookingNotFoundException;
 import ru.practicum.shareit.booking.exception.BookingValidationException;
+import ru.practicum.shareit.booking.index.BookingIntervalIndex;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.booking.service.impl.BookingServiceImpl;
+import ru.practicum.shareit.common.CursorPage;
 import ru.practicum.shareit.common.ErrorHandler;
+import ru.practicum.shareit.common.SeekCursor;
+import ru.practicum.shareit.common.StripedLock;
+import ru.practicum.shareit.item.cache.ItemCache;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.exception.ItemNotFoundException;
@@ -28,10 +37,10 @@ import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.outbox.model.DomainEventType;
+import ru.practicum.shareit.outbox.service.OutboxWriter;
 import ru.practicum.shareit.request.model.Request;
-import ru.practicum.shareit.user.exception.UserNotFoundException;
 import ru.practicum.shareit.user.model.User;
-import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -48,9 +57,17 @@ public class BookingServiceImplTest {
     @Mock
     private ItemRepository itemRepository;
     @Mock
-    private UserRepository userRepository;
-    @Mock
     private BookingRepository bookingRepository;
+    @Mock
+    private ItemCache itemCache;
+    @Mock
+    private BookingIntervalIndex bookingIntervalIndex;
+    @Mock
+    private StripedLock itemLocks;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private OutboxWriter outboxWriter;
     @InjectMocks
     private BookingServiceImpl bookingService;
     private MockMvc mvc;
@@ -69,6 +86,7 @@ public class BookingServiceImplTest {
 
     private BookingDtoIn bookingDtoIn;
     private List<Booking> bookingList;
+    private List<BookingView> bookingViewList;
 
     private Comment comment;
 
@@ -113,6 +131,15 @@ public class BookingServiceImplTest {
 
         bookingList = List.of(booking);
 
+        bookingViewList = List.of(BookingView.builder()
+                .id(1L)
+                .status(BookingStatus.APPROVED)
+                .bookerId(user.getId())
+                .bookerName(user.getName())
+                .itemId(item.getId())
+                .itemName(item.getName())
+                .build());
+
         comment = Comment.builder()
                 .id(1L)
                 .text("комментарий")
@@ -131,81 +158,51 @@ public class BookingServiceImplTest {
                 .build();
     }
 
-    @Test
-    void add_whenUserNotFound_thenException() throws Exception {
-        Long userId = 1L;
-        Long id = 1L;
-        bookingDtoIn = new BookingDtoIn();
-
-        Mockito
-                .when(userRepository.findById(anyLong()))
-                .thenReturn(Optional.empty());
-
-        UserNotFoundException userNotFoundException = assertThrows(
-                UserNotFoundException.class, () -> bookingService.add(userId, bookingDtoIn));
-    }
-
     @Test
     void add_whenItemNotFound_thenException() throws Exception {
-        Long userId = 1L;
         Long id = 1L;
         bookingDtoIn = new BookingDtoIn();
         bookingDtoIn.setItemId(1L);
 
-        Mockito
-                .when(userRepository.findById(anyLong()))
-                .thenReturn(Optional.of(user));
-
         Mockito
                 .when(itemRepository.findById(anyLong()))
                 .thenReturn(Optional.empty());
 
         ItemNotFoundException itemNotFoundException = assertThrows(
-                ItemNotFoundException.class, () -> bookingService.add(userId, bookingDtoIn));
+                ItemNotFoundException.class, () -> bookingService.add(user, bookingDtoIn));
     }
 
     @Test
     void add_whenItemNotAvailable_thenException() throws Exception {
-        Long userId = 1L;
         Long id = 1L;
         bookingDtoIn = new BookingDtoIn();
         bookingDtoIn.setItemId(1L);
         item.setAvailable(false);
 
-        Mockito
-                .when(userRepository.findById(anyLong()))
-                .thenReturn(Optional.of(user));
-
         Mockito
                 .when(itemRepository.findById(anyLong()))
                 .thenReturn(Optional.of(item));
 
         ItemValidationException itemValidationException = assertThrows(
-                ItemValidationException.class, () -> bookingService.add(userId, bookingDtoIn));
+                ItemValidationException.class, () -> bookingService.add(user, bookingDtoIn));
     }
 
     @Test
     void add_whenUserIsOwner_thenException() throws Exception {
-        Long userId = 1L;
         Long id = 1L;
         bookingDtoIn = new BookingDtoIn();
         bookingDtoIn.setItemId(1L);
 
-        Mockito
-                .when(userRepository.findById(anyLong()))
-                .thenReturn(Optional.of(user));
-
         Mockito
                 .when(itemRepository.findById(anyLong()))
                 .thenReturn(Optional.of(item));
 
         ItemNotFoundException itemNotFoundException = assertThrows(
-                ItemNotFoundException.class, () -> bookingService.add(userId, bookingDtoIn));
+                ItemNotFoundException.class, () -> bookingService.add(user, bookingDtoIn));
     }
 
     @Test
     void add_whenStartAfterEnd_thenException() throws Exception {
-        Long userId = 1L;
         Long id = 1L;
         bookingDtoIn = new BookingDtoIn();
         bookingDtoIn.setItemId(1L);
@@ -213,21 +210,16 @@ public class BookingServiceImplTest {
         bookingDtoIn.setEnd(LocalDateTime.now().plusDays(2));
         item.setOwner(new User(3L, "", ""));
 
-        Mockito
-                .when(userRepository.findById(anyLong()))
-                .thenReturn(Optional.of(user));
-
         Mockito
                 .when(itemRepository.findById(anyLong()))
                 .thenReturn(Optional.of(item));
 
         BookingValidationException bookingValidationException = assertThrows(
-                BookingValidationException.class, () -> bookingService.add(userId, bookingDtoIn));
+                BookingValidationException.class, () -> bookingService.add(user, bookingDtoIn));
     }
 
     @Test
     void add_whenStartEqualsEnd_thenException() throws Exception {
-        Long userId = 1L;
         Long id = 1L;
         bookingDtoIn = new BookingDtoIn();
         bookingDtoIn.setItemId(1L);
@@ -236,21 +228,16 @@ public class BookingServiceImplTest {
         bookingDtoIn.setEnd(curTime.plusDays(3));
         item.setOwner(new User(3L, "", ""));
 
-        Mockito
-                .when(userRepository.findById(anyLong()))
-                .thenReturn(Optional.of(user));
-
         Mockito
                 .when(itemRepository.findById(anyLong()))
                 .thenReturn(Optional.of(item));
 
         BookingValidationException bookingValidationException = assertThrows(
-                BookingValidationException.class, () -> bookingService.add(userId, bookingDtoIn));
+                BookingValidationException.class, () -> bookingService.add(user, bookingDtoIn));
     }
 
     @Test
     void add_whenParamIsOk_thenReturn() throws Exception {
-        Long userId = 1L;
         Long id = 1L;
         bookingDtoIn = new BookingDtoIn();
         bookingDtoIn.setItemId(1L);
@@ -258,10 +245,6 @@ public class BookingServiceImplTest {
         bookingDtoIn.setEnd(LocalDateTime.now().plusDays(4));
         item.setOwner(new User(3L, "", ""));
 
-        Mockito
-                .when(userRepository.findById(anyLong()))
-                .thenReturn(Optional.of(user));
-
         Mockito
                 .when(itemRepository.findById(anyLong()))
                 .thenReturn(Optional.of(item));
@@ -270,72 +253,89 @@ public class BookingServiceImplTest {
                 .when(bookingRepository.save(any()))
                 .thenReturn(booking);
 
-        BookingDtoOut result = bookingService.add(userId, bookingDtoIn);
+        Mockito
+                .when(bookingIntervalIndex.tryReserve(any()))
+                .thenReturn(true);
+
+        BookingDtoOut result = bookingService.add(user, bookingDtoIn);
 
         assertEquals(result.getId(), itemDto.getId());
+        ArgumentCaptor<BookingChangedEvent> event = ArgumentCaptor.forClass(BookingChangedEvent.class);
+        Mockito.verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(3L, event.getValue().getOwnerId());
+        assertEquals(user.getId(), event.getValue().getBookerId());
+        assertEquals(result, event.getValue().getBooking());
+        Mockito.verify(outboxWriter, times(1)).append(DomainEventType.BOOKING_CREATED, booking.getId(), result);
     }
 
     @Test
-    void update_whenUserNotFound_thenException() throws Exception {
-        Long userId = 1L;
-        Long id = 1L;
-        boolean approved = true;
+    void add_whenIntervalOverlaps_thenException() throws Exception {
+        bookingDtoIn = new BookingDtoIn();
+        bookingDtoIn.setItemId(1L);
+        bookingDtoIn.setStart(LocalDateTime.now().plusDays(3));
+        bookingDtoIn.setEnd(LocalDateTime.now().plusDays(4));
+        item.setOwner(new User(3L, "", ""));
 
         Mockito
-                .when(userRepository.findById(anyLong()))
-                .thenReturn(Optional.empty());
+                .when(itemRepository.findById(anyLong()))
+                .thenReturn(Optional.of(item));
 
-        UserNotFoundException userNotFoundException = assertThrows(
-                UserNotFoundException.class, () -> bookingService.update(userId, id, approved));
+        Mockito
+                .when(bookingRepository.save(any()))
+                .thenReturn(booking);
+
+        Mockito
+                .when(bookingIntervalIndex.tryReserve(any()))
+                .thenReturn(false);
+
+        BookingValidationException bookingValidationException = assertThrows(
+                BookingValidationException.class, () -> bookingService.add(user, bookingDtoIn));
+        Mockito.verify(itemCache, Mockito.never()).evictBookings(anyLong());
+        Mockito.verify(eventPublisher, Mockito.never()).publishEvent(any());
+        Mockito.verifyNoInteractions(outboxWriter);
     }
 
     @Test
     void update_whenBookingNotFound_thenException() throws Exception {
-        Long userId = 1L;
         Long id = 1L;
         boolean approved = true;
 
         Mockito
-                .when(userRepository.findById(anyLong()))
-                .thenReturn(Optional.of(user));
-
-        Mockito
-                .when(bookingRepository.findById(anyLong()))
+                .when(bookingRepository.findItemIdById(anyLong()))
                 .thenReturn(Optional.empty());
 
         BookingNotFoundException bookingNotFoundException = assertThrows(
-                BookingNotFoundException.class, () -> bookingService.update(userId, id, approved));
+                BookingNotFoundException.class, () -> bookingService.update(user, id, approved));
+        Mockito.verifyNoInteractions(itemLocks);
     }
 
     @Test
     void update_whenUserNotOwner_thenException() throws Exception {
-        Long userId = 1L;
         Long id = 1L;
         boolean approved = true;
         item.setOwner(new User(3L, "", ""));
 
         Mockito
-                .when(userRepository.findById(anyLong()))
-                .thenReturn(Optional.of(user));
+                .when(bookingRepository.findItemIdById(anyLong()))
+                .thenReturn(Optional.of(item.getId()));
 
         Mockito
                 .when(bookingRepository.findById(anyLong()))
                 .thenReturn(Optional.of(booking));
 
         BookingNotFoundException bookingNotFoundException = assertThrows(
-                BookingNotFoundException.class, () -> bookingService.update(userId, id, approved));
+                BookingNotFoundException.class, () -> bookingService.update(user, id, approved));
     }
 
     @Test
     void update_whenDoubleUpdate_thenException() throws Exception {
-        Long userId = 1L;
         Long id = 1L;
         boolean approved = true;
         booking.setStatus(BookingStatus.WAITING);
 
         Mockito
-                .when(userRepository.findById(anyLong()))
-                .thenReturn(Optional.of(user));
+                .when(bookingRepository.findItemIdById(anyLong()))
+                .thenReturn(Optional.of(item.getId()));
 
         Mockito
                 .when(bookingRepository.findById(anyLong()))
@@ -345,24 +345,23 @@ public class BookingServiceImplTest {
                 .when(bookingRepository.save(any()))
                 .thenReturn(booking);
 
-        bookingService.update(userId, id, approved);
+        bookingService.update(user, id, approved);
 
         BookingValidationException bookingValidationException = assertThrows(
-                BookingValidationException.class, () -> bookingService.update(userId, id, approved));
+                BookingValidationException.class, () -> bookingService.update(user, id, approved));
 
         Mockito.verify(bookingRepository, times(1)).save(booking);
     }
 
     @Test
     void update_whenUserIsOwner_thenReturn() throws Exception {
-        Long userId = 1L;
         Long id = 1L;
         boolean approved = true;
         booking.setStatus(BookingStatus.WAITING);
 
         Mockito
-                .when(userRepository.findById(anyLong()))
-                .thenReturn(Optional.of(user));
+                .when(bookingRepository.findItemIdById(anyLong()))
+                .thenReturn(Optional.of(item.getId()));
 
         Mockito
                 .when(bookingRepository.findById(anyLong()))
@@ -372,279 +371,268 @@ public class BookingServiceImplTest {
                 .when(bookingRepository.save(any()))
                 .thenReturn(booking);
 
-        BookingDtoOut result = bookingService.update(userId, id, approved);
+        BookingDtoOut result = bookingService.update(user, id, approved);
 
         assertEquals(result.getId(), booking.getId());
         assertNotNull(result.getItem());
+        Mockito.verify(itemCache, times(1)).evictBookings(item.getId());
+        Mockito.verify(itemLocks, times(1)).lockUntilTransactionCompletes(item.getId());
+        ArgumentCaptor<BookingChangedEvent> event = ArgumentCaptor.forClass(BookingChangedEvent.class);
+        Mockito.verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(user.getId(), event.getValue().getOwnerId());
+        assertEquals(BookingStatus.APPROVED, event.getValue().getBooking().getStatus());
+        Mockito.verify(outboxWriter, times(1)).append(DomainEventType.BOOKING_APPROVED, booking.getId(), result);
     }
 
     @Test
-    void findById_whenUserNotFound_thenException() throws Exception {
-        Long userId = 1L;
+    void update_whenRejected_thenIntervalReleased() throws Exception {
         Long id = 1L;
+        booking.setStatus(BookingStatus.WAITING);
 
         Mockito
-                .when(userRepository.findById(anyLong()))
-                .thenReturn(Optional.empty());
+                .when(bookingRepository.findItemIdById(anyLong()))
+                .thenReturn(Optional.of(item.getId()));
+
+        Mockito
+                .when(bookingRepository.findById(anyLong()))
+                .thenReturn(Optional.of(booking));
 
-        UserNotFoundException userNotFoundException = assertThrows(
-                UserNotFoundException.class, () -> bookingService.findById(userId, id));
+        Mockito
+                .when(bookingRepository.save(any()))
+                .thenReturn(booking);
+
+        BookingDtoOut result = bookingService.update(user, id, false);
+
+        assertEquals(BookingStatus.REJECTED, result.getStatus());
+        Mockito.verify(bookingIntervalIndex, times(1)).release(booking);
     }
 
     @Test
     void findById_whenBookingNotFound_thenException() throws Exception {
-        Long userId = 1L;
         Long id = 1L;
 
-        Mockito
-                .when(userRepository.findById(anyLong()))
-                .thenReturn(Optional.of(user));
-
         Mockito
                 .when(bookingRepository.findById(anyLong()))
                 .thenReturn(Optional.empty());
 
         BookingNotFoundException bookingNotFoundException = assertThrows(
-                BookingNotFoundException.class, () -> bookingService.findById(userId, id));
+                BookingNotFoundException.class, () -> bookingService.findById(user, id));
     }
 
     @Test
     void findById_whenUserIsNotBooker_thenException() throws Exception {
-        Long userId = 1L;
         Long id = 1L;
         booking.setBooker(new User(3L, "", ""));
         item.setOwner(new User(5L, "", ""));
 
-        Mockito
-                .when(userRepository.findById(anyLong()))
-                .thenReturn(Optional.of(user));
-
         Mockito
                 .when(bookingRepository.findById(anyLong()))
                 .thenReturn(Optional.of(booking));
 
         BookingNotFoundException bookingNotFoundException = assertThrows(
-                BookingNotFoundException.class, () -> bookingService.findById(userId, id));
+                BookingNotFoundException.class, () -> bookingService.findById(user, id));
     }
 
     @Test
     void findById_whenUserIsBooker_thenReturn() throws Exception {
-        Long userId = 1L;
         Long id = 1L;
         item.setOwner(new User(5L, "", ""));
 
-        Mockito
-                .when(userRepository.findById(anyLong()))
-                .thenReturn(Optional.of(user));
-
         Mockito
                 .when(bookingRepository.findById(anyLong()))
                 .thenReturn(Optional.of(booking));
 
-        BookingDtoOut result = bookingService.findById(userId, id);
+        BookingDtoOut result = bookingService.findById(user, id);
 
         assertEquals(result.getId(), booking.getId());
         assertNotNull(result.getItem());
     }
 
     @Test
-    void findAllByUserId_whenUserNotFound_thenException() throws Exception {
-        Long userId = 1L;
+    void findAllByUserId_whenUnknownStatus_thenException() throws Exception {
         int from = 0;
         int size = 10;
-        String stateIn = "ALL";
-
-        Mockito
-                .when(userRepository.findById(anyLong()))
-                .thenReturn(Optional.empty());
+        String stateIn = "badState";
 
-        UserNotFoundException userNotFoundException = assertThrows(
-                UserNotFoundException.class, () -> bookingService.findAllByUserId(userId, stateIn, from, size));
+        BookingValidationException bookingValidationException = assertThrows(
+                BookingValidationException.class, () -> bookingService.findAllByUserId(user, stateIn, from, size));
     }
 
     @Test
-    void findAllByUserId_whenUnknownStatus_thenException() throws Exception {
-        Long userId = 1L;
+    void findAllByUserId_whenStatusAll_thenReturn() throws Exception {
         int from = 0;
         int size = 10;
-        String stateIn = "badState";
+        String stateIn = "ALL";
 
         Mockito
-                .when(userRepository.findById(anyLong()))
-                .thenReturn(Optional.of(user));
+                .when(bookingRepository.findViewsByBooker(any(), any(), any()))
+                .thenReturn(bookingViewList);
 
-        BookingValidationException bookingValidationException = assertThrows(
-                BookingValidationException.class, () -> bookingService.findAllByUserId(userId, stateIn, from, size));
+        List<BookingDtoOut> result = bookingService.findAllByUserId(user, stateIn, from, size);
+
+        assertEquals(result.size(), bookingViewList.size());
     }
 
     @Test
-    void findAllByUserId_whenStatusAll_thenReturn() throws Exception {
-        Long userId = 1L;
-        int from = 0;
-        int size = 10;
-        String stateIn = "ALL";
+    void findAllByUserId_whenCursorPageFull_thenReturnNextCursor() throws Exception {
+        LocalDateTime start = LocalDateTime.now().minusDays(5);
+        BookingView newer = BookingView.builder()
+                .id(1L)
+                .start(start)
+                .end(start.plusDays(1))
+                .status(BookingStatus.APPROVED)
+                .bookerId(user.getId())
+                .itemId(item.getId())
+                .build();
+        BookingView older = BookingView.builder()
+                .id(2L)
+                .start(start.minusDays(1))
+                .end(start)
+                .status(BookingStatus.APPROVED)
+                .bookerId(user.getId())
+                .itemId(item.getId())
+                .build();
 
         Mockito
-                .when(userRepository.findById(anyLong()))
-                .thenReturn(Optional.of(user));
+                .when(bookingRepository.findViewsByBookerAfterCursor(any(), any(), any(), any()))
+                .thenReturn(List.of(newer, older));
 
+        CursorPage<BookingDtoOut> result = bookingService.findAllByUserId(user, "ALL", "", 1);
+
+        assertEquals(1, result.getContent().size());
+        assertEquals(newer.getId(), result.getContent().get(0).getId());
+        assertEquals(new SeekCursor(start, newer.getId()), SeekCursor.decode(result.getNextCursor()));
+    }
+
+    @Test
+    void findAllByUserId_whenCursorPageNotFull_thenNoNextCursor() throws Exception {
         Mockito
-                .when(bookingRepository.findAllByBooker(any(), any()))
-                .thenReturn(bookingList);
+                .when(bookingRepository.findViewsByBookerAfterCursor(any(), any(), any(), any()))
+                .thenReturn(bookingViewList);
 
-        List<BookingDtoOut> result = bookingService.findAllByUserId(userId, stateIn, from, size);
+        CursorPage<BookingDtoOut> result = bookingService.findAllByUserId(user, "ALL", "", 10);
 
-        assertEquals(result.size(), bookingList.size());
+        assertEquals(1, result.getContent().size());
+        assertNull(result.getNextCursor());
     }
 
     @Test
-    void findAllByOwnerId_whenUserNotFound_thenException() throws Exception {
-        Long userId = 1L;
-        int from = 0;
-        int size = 10;
-        String stateIn = "ALL";
+    void findAllByUserId_whenCursorMalformed_thenException() throws Exception {
+        assertThrows(IllegalArgumentException.class, () -> bookingService.findAllByUserId(user, "ALL", "???", 10));
+    }
 
+    @Test
+    void findAllByOwnerId_whenCursorPassed_thenReturn() throws Exception {
         Mockito
-                .when(userRepository.findById(anyLong()))
-                .thenReturn(Optional.empty());
+                .when(bookingRepository.findViewsByOwnerAfterCursor(any(), any(), any(), any()))
+                .thenReturn(bookingViewList);
+
+        SeekCursor cursor = new SeekCursor(LocalDateTime.now(), 10L);
+        CursorPage<BookingDtoOut> result = bookingService.findAllByOwnerId(user, "FUTURE", cursor.encode(), 10);
 
-        UserNotFoundException userNotFoundException = assertThrows(
-                UserNotFoundException.class, () -> bookingService.findAllByOwnerId(userId, stateIn, from, size));
+        assertEquals(1, result.getContent().size());
+        Mockito.verify(bookingRepository, times(1))
+                .findViewsByOwnerAfterCursor(any(), any(), Mockito.eq(cursor), any());
     }
 
     @Test
     void findAllByOwnerId_whenUnknownStatus_thenException() throws Exception {
-        Long userId = 1L;
         int from = 0;
         int size = 10;
         String stateIn = "badState";
 
-        Mockito
-                .when(userRepository.findById(anyLong()))
-                .thenReturn(Optional.of(user));
-
         BookingValidationException bookingValidationException = assertThrows(
-                BookingValidationException.class, () -> bookingService.findAllByOwnerId(userId, stateIn, from, size));
+                BookingValidationException.class, () -> bookingService.findAllByOwnerId(user, stateIn, from, size));
     }
 
     @Test
     void findAllByOwnerId_whenStatusAll_thenReturn() throws Exception {
-        Long userId = 1L;
         int from = 0;
         int size = 10;
         String stateIn = "ALL";
 
         Mockito
-                .when(userRepository.findById(anyLong()))
-                .thenReturn(Optional.of(user));
-
-        Mockito
-                .when(bookingRepository.findAllByItem_Owner(any(), any()))
-                .thenReturn(bookingList);
+                .when(bookingRepository.findViewsByOwner(any(), any(), any()))
+                .thenReturn(bookingViewList);
 
-        List<BookingDtoOut> result = bookingService.findAllByOwnerId(userId, stateIn, from, size);
+        List<BookingDtoOut> result = bookingService.findAllByOwnerId(user, stateIn, from, size);
 
-        assertEquals(result.size(), bookingList.size());
+        assertEquals(result.size(), bookingViewList.size());
     }
 
     @Test
     void findAllByOwnerId_whenStatusCURRENT_thenReturn() throws Exception {
-        Long userId = 1L;
         int from = 0;
         int size = 10;
         String stateIn = "CURRENT";
 
         Mockito
-                .when(userRepository.findById(anyLong()))
-                .thenReturn(Optional.of(user));
+                .when(bookingRepository.findViewsByOwner(any(), any(), any()))
+                .thenReturn(bookingViewList);
 
-        Mockito
-                .when(bookingRepository.findAllByItem_OwnerAndStartBeforeAndEndAfter(any(), any(), any(), any()))
-                .thenReturn(bookingList);
-
-        List<BookingDtoOut> result = bookingService.findAllByOwnerId(userId, stateIn, from, size);
+        List<BookingDtoOut> result = bookingService.findAllByOwnerId(user, stateIn, from, size);
 
-        assertEquals(result.size(), bookingList.size());
+        assertEquals(result.size(), bookingViewList.size());
     }
 
     @Test
     void findAllByOwnerId_whenStatusPAST_thenReturn() throws Exception {
-        Long userId = 1L;
         int from = 0;
         int size = 10;
         String stateIn = "PAST";
 
         Mockito
-                .when(userRepository.findById(anyLong()))
-                .thenReturn(Optional.of(user));
-
-        Mockito
-                .when(bookingRepository.findAllByItem_OwnerAndEndBefore(any(), any(), any()))
-                .thenReturn(bookingList);
+                .when(bookingRepository.findViewsByOwner(any(), any(), any()))
+                .thenReturn(bookingViewList);
 
-        List<BookingDtoOut> result = bookingService.findAllByOwnerId(userId, stateIn, from, size);
+        List<BookingDtoOut> result = bookingService.findAllByOwnerId(user, stateIn, from, size);
 
-        assertEquals(result.size(), bookingList.size());
+        assertEquals(result.size(), bookingViewList.size());
     }
 
     @Test
     void findAllByOwnerId_whenStatusFUTURE_thenReturn() throws Exception {
-        Long userId = 1L;
         int from = 0;
         int size = 10;
         String stateIn = "FUTURE";
 
         Mockito
-                .when(userRepository.findById(anyLong()))
-                .thenReturn(Optional.of(user));
-
-        Mockito
-                .when(bookingRepository.findAllByItem_OwnerAndStartAfter(any(), any(), any()))
-                .thenReturn(bookingList);
+                .when(bookingRepository.findViewsByOwner(any(), any(), any()))
+                .thenReturn(bookingViewList);
 
-        List<BookingDtoOut> result = bookingService.findAllByOwnerId(userId, stateIn, from, size);
+        List<BookingDtoOut> result = bookingService.findAllByOwnerId(user, stateIn, from, size);
 
-        assertEquals(result.size(), bookingList.size());
+        assertEquals(result.size(), bookingViewList.size());
     }
 
     @Test
     void findAllByOwnerId_whenStatusWAITING_thenReturn() throws Exception {
-        Long userId = 1L;
         int from = 0;
         int size = 10;
         String stateIn = "WAITING";
 
         Mockito
-                .when(userRepository.findById(anyLong()))
-                .thenReturn(Optional.of(user));
+                .when(bookingRepository.findViewsByOwner(any(), any(), any()))
+                .thenReturn(bookingViewList);
 
-        Mockito
-                .when(bookingRepository.findAllByItem_OwnerAndStatus(any(), any(), any()))
-                .thenReturn(bookingList);
+        List<BookingDtoOut> result = bookingService.findAllByOwnerId(user, stateIn, from, size);
 
-        List<BookingDtoOut> result = bookingService.findAllByOwnerId(userId, stateIn, from, size);
-
-        assertEquals(result.size(), bookingList.size());
+        assertEquals(result.size(), bookingViewList.size());
     }
 
     @Test
     void findAllByOwnerId_whenStatusREJECTED_thenReturn() throws Exception {
-        Long userId = 1L;
         int from = 0;
         int size = 10;
         String stateIn = "REJECTED";
 
         Mockito
-                .when(userRepository.findById(anyLong()))
-                .thenReturn(Optional.of(user));
-
-        Mockito
-                .when(bookingRepository.findAllByItem_OwnerAndStatus(any(), any(), any()))
-                .thenReturn(bookingList);
+                .when(bookingRepository.findViewsByOwner(any(), any(), any()))
+                .thenReturn(bookingViewList);
 
-        List<BookingDtoOut> result = bookingService.findAllByOwnerId(userId, stateIn, from, size);
+        List<BookingDtoOut> result = bookingService.findAllByOwnerId(user, stateIn, from, size);
 
-        assertEquals(result.size(), bookingList.size());
+        assertEquals(result.size(), bookingViewList.size());
     }
 
 }
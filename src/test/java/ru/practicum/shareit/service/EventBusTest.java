@@ -0,0 +1,302 @@
+package ru.practicum.shareit.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.shareit.outbox.bus.EventBus;
+import ru.practicum.shareit.outbox.bus.EventConsumer;
+import ru.practicum.shareit.outbox.bus.OutboxRelay;
+import ru.practicum.shareit.outbox.model.DomainEventType;
+import ru.practicum.shareit.outbox.model.OutboxEvent;
+import ru.practicum.shareit.outbox.model.OutboxOffset;
+import ru.practicum.shareit.outbox.model.OutboxOffsetId;
+import ru.practicum.shareit.outbox.repository.OutboxEventRepository;
+import ru.practicum.shareit.outbox.repository.OutboxOffsetRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+
+@ExtendWith(MockitoExtension.class)
+public class EventBusTest {
+    private static final String NODE = "node-1";
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+    @Mock
+    private OutboxOffsetRepository outboxOffsetRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    private final List<OutboxEvent> events = new ArrayList<>();
+    private final Map<OutboxOffsetId, Long> storedOffsets = new HashMap<>();
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        Mockito.lenient()
+                .when(outboxEventRepository.findMaxId())
+                .thenAnswer(invocation -> events.stream().mapToLong(OutboxEvent::getId).max().orElse(0));
+        Mockito.lenient()
+                .when(outboxEventRepository.findAllByIdGreaterThanOrderByIdAsc(anyLong(), any()))
+                .thenAnswer(invocation -> {
+                    long after = invocation.getArgument(0);
+                    Pageable pageable = invocation.getArgument(1);
+                    return events.stream()
+                            .filter(event -> event.getId() > after)
+                            .limit(pageable.getPageSize())
+                            .collect(Collectors.toList());
+                });
+        Mockito.lenient()
+                .when(outboxOffsetRepository.findAllByNode(anyString()))
+                .thenAnswer(invocation -> storedOffsets.entrySet()
+                        .stream()
+                        .filter(entry -> entry.getKey().getNode().equals(invocation.getArgument(0)))
+                        .map(entry -> new OutboxOffset(entry.getKey().getNode(), entry.getKey().getConsumer(),
+                                entry.getValue()))
+                        .collect(Collectors.toList()));
+        Mockito.lenient()
+                .when(outboxOffsetRepository.save(any()))
+                .thenAnswer(invocation -> {
+                    OutboxOffset offset = invocation.getArgument(0);
+                    storedOffsets.put(new OutboxOffsetId(offset.getNode(), offset.getConsumer()),
+                            offset.getLastEventId());
+                    return offset;
+                });
+    }
+
+    @Test
+    void dispatch_whenSeveralConsumers_thenEachReceivesAllEventsInOrder() {
+        RecordingConsumer first = new RecordingConsumer("first");
+        RecordingConsumer second = new RecordingConsumer("second");
+        EventBus bus = bus(Duration.ZERO, first, second);
+        append(1L, 2L, 3L);
+
+        int result = bus.dispatch(10);
+
+        assertEquals(6, result);
+        assertEquals(List.of(1L, 2L, 3L), first.received);
+        assertEquals(List.of(1L, 2L, 3L), second.received);
+        assertEquals(3L, stored("first"));
+        assertEquals(3L, stored("second"));
+        assertEquals(3L, bus.consumedUpTo());
+        assertEquals(0.0, lag("first"));
+        assertEquals(6.0, meterRegistry.get("outbox.events.delivered").counter().count());
+    }
+
+    @Test
+    void dispatch_whenBatchSmallerThanBacklog_thenResumesFromStoredOffset() {
+        RecordingConsumer consumer = new RecordingConsumer("consumer");
+        EventBus bus = bus(Duration.ZERO, consumer);
+        append(1L, 2L, 3L);
+
+        assertEquals(2, bus.dispatch(2));
+        assertEquals(1.0, lag("consumer"));
+        assertEquals(1, bus.dispatch(2));
+        assertEquals(0, bus.dispatch(2));
+
+        assertEquals(List.of(1L, 2L, 3L), consumer.received);
+    }
+
+    @Test
+    void dispatch_whenConsumerFails_thenEventRedeliveredAndOthersNotBlocked() {
+        RecordingConsumer healthy = new RecordingConsumer("healthy");
+        RecordingConsumer flaky = new RecordingConsumer("flaky");
+        flaky.failOn = 2L;
+        EventBus bus = bus(Duration.ZERO, healthy, flaky);
+        append(1L, 2L, 3L);
+
+        bus.dispatch(10);
+
+        assertEquals(List.of(1L, 2L, 3L), healthy.received);
+        assertEquals(List.of(1L), flaky.received);
+        assertEquals(1L, stored("flaky"));
+        assertEquals(2.0, lag("flaky"));
+        assertEquals(1L, bus.consumedUpTo());
+        assertEquals(1.0, meterRegistry.get("outbox.events.failed").counter().count());
+
+        flaky.failOn = null;
+        bus.dispatch(10);
+
+        assertEquals(List.of(1L, 2L, 3L), flaky.received);
+        assertEquals(List.of(1L, 2L, 3L), healthy.received);
+        assertEquals(0.0, lag("flaky"));
+    }
+
+    @Test
+    void dispatch_whenIdGapIsFresh_thenWaitsUntilSettled() throws InterruptedException {
+        RecordingConsumer consumer = new RecordingConsumer("consumer");
+        EventBus bus = bus(Duration.ofMillis(50), consumer);
+        append(1L, 3L);
+
+        bus.dispatch(10);
+        assertEquals(List.of(1L), consumer.received);
+
+        Thread.sleep(100);
+        bus.dispatch(10);
+        assertEquals(List.of(1L, 3L), consumer.received);
+    }
+
+    @Test
+    void dispatch_whenGapFilledByLongTransaction_thenLateEventDelivered() {
+        RecordingConsumer consumer = new RecordingConsumer("consumer");
+        EventBus bus = bus(Duration.ofMinutes(1), consumer);
+        append(1L, 3L);
+        events.get(1).setCreated(LocalDateTime.now().minusMinutes(10));
+
+        bus.dispatch(10);
+        assertEquals(List.of(1L), consumer.received);
+
+        events.add(1, OutboxEvent.builder()
+                .id(2L)
+                .type(DomainEventType.ITEM_CREATED)
+                .aggregateId(2L)
+                .payload("{}")
+                .created(LocalDateTime.now().minusMinutes(20))
+                .build());
+        bus.dispatch(10);
+        assertEquals(List.of(1L, 2L, 3L), consumer.received);
+    }
+
+    @Test
+    void dispatch_whenOffsetStored_thenStartsAfterIt() {
+        storedOffsets.put(new OutboxOffsetId(NODE, "consumer"), 2L);
+        RecordingConsumer consumer = new RecordingConsumer("consumer");
+        EventBus bus = bus(Duration.ZERO, consumer);
+        append(1L, 2L, 3L);
+
+        bus.dispatch(10);
+
+        assertEquals(List.of(3L), consumer.received);
+    }
+
+    @Test
+    void dispatch_whenOffsetStoredByOtherNode_thenReplaysFromStart() {
+        storedOffsets.put(new OutboxOffsetId("node-2", "consumer"), 2L);
+        RecordingConsumer consumer = new RecordingConsumer("consumer");
+        EventBus bus = bus(Duration.ZERO, consumer);
+        append(1L, 2L, 3L);
+
+        bus.dispatch(10);
+
+        assertEquals(List.of(1L, 2L, 3L), consumer.received);
+        assertEquals(3L, stored("consumer"));
+        assertEquals(2L, storedOffsets.get(new OutboxOffsetId("node-2", "consumer")));
+    }
+
+    @Test
+    void eventBus_whenDuplicateConsumerName_thenException() {
+        assertThrows(IllegalStateException.class,
+                () -> bus(Duration.ZERO, new RecordingConsumer("same"), new RecordingConsumer("same")));
+    }
+
+    @Test
+    void relay_whenConsumersCaughtUp_thenConsumedEventsDeleted() {
+        RecordingConsumer consumer = new RecordingConsumer("consumer");
+        OutboxRelay relay = relay(bus(Duration.ZERO, consumer));
+        append(1L, 2L, 3L);
+
+        int result = relay.relay();
+
+        assertEquals(3, result);
+        Mockito.verify(outboxEventRepository).deleteAllByIdLessThanEqualAndCreatedBefore(eq(3L),
+                argThat(created -> created.isBefore(LocalDateTime.now().minusMinutes(59))));
+    }
+
+    @Test
+    void relay_whenNothingConsumed_thenNothingDeleted() {
+        RecordingConsumer consumer = new RecordingConsumer("consumer");
+        consumer.failOn = 1L;
+        OutboxRelay relay = relay(bus(Duration.ZERO, consumer));
+        append(1L);
+
+        int result = relay.relay();
+
+        assertEquals(0, result);
+        Mockito.verify(outboxEventRepository, never()).deleteAllByIdLessThanEqualAndCreatedBefore(anyLong(), any());
+    }
+
+    @Test
+    void relay_whenNoConsumers_thenOnlyExpiredEventsDeleted() {
+        EventBus bus = bus(Duration.ZERO);
+        OutboxRelay relay = relay(bus);
+        append(1L);
+
+        assertEquals(0, relay.relay());
+        assertEquals(0L, bus.consumedUpTo());
+        Mockito.verify(outboxEventRepository).deleteAllByIdLessThanEqualAndCreatedBefore(eq(Long.MAX_VALUE),
+                argThat(created -> created.isBefore(LocalDateTime.now().minusMinutes(59))));
+        Mockito.verify(outboxEventRepository, never()).findAllByIdGreaterThanOrderByIdAsc(anyLong(), any());
+    }
+
+    private EventBus bus(Duration settleTime, EventConsumer... consumers) {
+        return new EventBus(List.of(consumers), outboxEventRepository, outboxOffsetRepository, meterRegistry, NODE,
+                settleTime);
+    }
+
+    private OutboxRelay relay(EventBus bus) {
+        return new OutboxRelay(bus, outboxEventRepository, transactionManager, 2, 10, Duration.ofHours(1));
+    }
+
+    private Long stored(String consumer) {
+        return storedOffsets.get(new OutboxOffsetId(NODE, consumer));
+    }
+
+    private void append(Long... ids) {
+        for (Long id : ids) {
+            events.add(OutboxEvent.builder()
+                    .id(id)
+                    .type(DomainEventType.ITEM_CREATED)
+                    .aggregateId(id)
+                    .payload("{}")
+                    .created(LocalDateTime.now())
+                    .build());
+        }
+    }
+
+    private double lag(String consumer) {
+        return meterRegistry.get("outbox.consumer.lag").tag("consumer", consumer).gauge().value();
+    }
+
+    private static class RecordingConsumer implements EventConsumer {
+        private final String name;
+        private final List<Long> received = new ArrayList<>();
+        private Long failOn;
+
+        RecordingConsumer(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public void accept(OutboxEvent event) {
+            if (event.getId().equals(failOn)) {
+                throw new IllegalStateException("Получатель недоступен");
+            }
+            received.add(event.getId());
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package ru.practicum.shareit.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.impl.InvertedIndexItemSearchEngine;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.eq;
+
+@ExtendWith(MockitoExtension.class)
+public class InvertedIndexItemSearchEngineTest {
+    private final Pageable pageable = PageRequest.of(0, 10);
+    @Mock
+    private ItemRepository itemRepository;
+    @InjectMocks
+    private InvertedIndexItemSearchEngine itemSearchEngine;
+
+    private List<Item> items;
+
+    @BeforeEach
+    void setUp() {
+        User user = User.builder()
+                .id(1L)
+                .name("user")
+                .email("user@user.com")
+                .build();
+
+        items = new ArrayList<>();
+        items.add(item(1L, "Дрель", "Аккумуляторная дрель", true, user));
+        items.add(item(2L, "Отвертка", "Крестовая отвертка", true, user));
+        items.add(item(3L, "Дрель", "Сетевая дрель, сломана", false, user));
+        items.add(item(4L, "Шуруповерт", "Аккумуляторный", true, user));
+
+        Mockito
+                .when(itemRepository.findAllByIdGreaterThanOrderByIdAsc(eq(0L), any()))
+                .thenReturn(items);
+        Mockito
+                .when(itemRepository.findAllByIdGreaterThanOrderByIdAsc(eq(4L), any()))
+                .thenReturn(List.of());
+
+        itemSearchEngine.rebuild();
+    }
+
+    @Test
+    void search_whenTokenMatches_thenReturnAvailableItems() {
+        stubFindAllById();
+
+        List<Item> result = itemSearchEngine.search("ДРЕЛЬ", pageable);
+
+        assertEquals(List.of(1L), ids(result));
+    }
+
+    @Test
+    void search_whenSeveralTokens_thenIntersect() {
+        stubFindAllById();
+
+        List<Item> result = itemSearchEngine.search("крестовая отвертка", pageable);
+
+        assertEquals(List.of(2L), ids(result));
+    }
+
+    @Test
+    void search_whenTokenNotIndexed_thenReturnEmptyListWithoutDatabase() {
+        List<Item> result = itemSearchEngine.search("перфоратор", pageable);
+
+        assertTrue(result.isEmpty());
+        Mockito.verify(itemRepository, Mockito.never()).findAllById(anyIterable());
+    }
+
+    @Test
+    void search_whenPageRequested_thenHydrateOnlyPage() {
+        for (long id = 5; id <= 30; id++) {
+            Item item = item(id, "Молоток " + id, "Обычный молоток", true, null);
+            items.add(item);
+            itemSearchEngine.index(item);
+        }
+        stubFindAllById();
+
+        List<Item> result = itemSearchEngine.search("молоток", PageRequest.of(1, 10));
+
+        assertEquals(10, result.size());
+        assertEquals(15L, result.get(0).getId());
+        assertEquals(24L, result.get(9).getId());
+    }
+
+    @Test
+    void index_whenItemUpdated_thenSearchSeesNewTokens() {
+        stubFindAllById();
+        Item item = items.get(1);
+        item.setName("Стамеска");
+        item.setDescription("Острая");
+
+        itemSearchEngine.index(item);
+
+        assertTrue(itemSearchEngine.search("отвертка", pageable).isEmpty());
+        assertEquals(List.of(2L), ids(itemSearchEngine.search("стамеска", pageable)));
+    }
+
+    @Test
+    void index_whenItemBecomesAvailable_thenFound() {
+        stubFindAllById();
+        Item item = items.get(2);
+        item.setAvailable(true);
+
+        itemSearchEngine.index(item);
+
+        assertEquals(List.of(1L, 3L), ids(itemSearchEngine.search("дрель", pageable)));
+    }
+
+    @Test
+    void remove_whenItemRemoved_thenNotFound() {
+        itemSearchEngine.remove(1L);
+
+        assertTrue(itemSearchEngine.search("дрель", pageable).isEmpty());
+    }
+
+    private void stubFindAllById() {
+        Mockito
+                .when(itemRepository.findAllById(anyIterable()))
+                .thenAnswer(invocation -> {
+                    List<Long> ids = new ArrayList<>();
+                    invocation.<Iterable<Long>>getArgument(0).forEach(ids::add);
+                    return items
+                            .stream()
+                            .filter(item -> ids.contains(item.getId()))
+                            .collect(Collectors.toList());
+                });
+    }
+
+    private List<Long> ids(List<Item> result) {
+        return result
+                .stream()
+                .map(Item::getId)
+                .collect(Collectors.toList());
+    }
+
+    private Item item(Long id, String name, String description, boolean available, User owner) {
+        return Item.builder()
+                .id(id)
+                .name(name)
+                .description(description)
+                .available(available)
+                .owner(owner)
+                .build();
+    }
+}
@@ -0,0 +1,90 @@
+package ru.practicum.shareit.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.cache.ItemCache;
+import ru.practicum.shareit.item.cache.ItemCacheConsumer;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.outbox.model.DomainEventType;
+import ru.practicum.shareit.outbox.model.OutboxEvent;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+
+@ExtendWith(MockitoExtension.class)
+public class ItemCacheConsumerTest {
+    @Mock
+    private ItemCache itemCache;
+    @Mock
+    private BookingRepository bookingRepository;
+    @Mock
+    private CommentRepository commentRepository;
+    @InjectMocks
+    private ItemCacheConsumer itemCacheConsumer;
+
+    @Test
+    void accept_whenBookingEvent_thenBookingsOfItemEvicted() {
+        Mockito
+                .when(bookingRepository.findItemIdById(7L))
+                .thenReturn(Optional.of(3L));
+
+        itemCacheConsumer.accept(event(DomainEventType.BOOKING_EXPIRED, 7L));
+
+        Mockito.verify(itemCache).evictBookings(3L);
+        Mockito.verify(itemCache, never()).evict(anyLong());
+    }
+
+    @Test
+    void accept_whenBookingRemoved_thenNothingEvicted() {
+        Mockito
+                .when(bookingRepository.findItemIdById(7L))
+                .thenReturn(Optional.empty());
+
+        itemCacheConsumer.accept(event(DomainEventType.BOOKING_APPROVED, 7L));
+
+        Mockito.verifyNoInteractions(itemCache);
+    }
+
+    @Test
+    void accept_whenCommentCreated_thenItemEvicted() {
+        Mockito
+                .when(commentRepository.findItemIdById(9L))
+                .thenReturn(Optional.of(3L));
+
+        itemCacheConsumer.accept(event(DomainEventType.COMMENT_CREATED, 9L));
+
+        Mockito.verify(itemCache).evict(3L);
+    }
+
+    @Test
+    void accept_whenUserUpdated_thenCommentedItemsEvicted() {
+        itemCacheConsumer.accept(event(DomainEventType.USER_UPDATED, 2L));
+
+        Mockito.verify(itemCache).evictCommentedBy(2L);
+    }
+
+    @Test
+    void accept_whenOtherEvent_thenIgnored() {
+        itemCacheConsumer.accept(event(DomainEventType.ITEM_CREATED, 1L));
+
+        Mockito.verifyNoInteractions(itemCache, bookingRepository, commentRepository);
+    }
+
+    private OutboxEvent event(DomainEventType type, Long aggregateId) {
+        return OutboxEvent.builder()
+                .id(1L)
+                .type(type)
+                .aggregateId(aggregateId)
+                .payload("{}")
+                .created(LocalDateTime.now())
+                .build();
+    }
+}
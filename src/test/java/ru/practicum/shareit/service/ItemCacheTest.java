@@ -0,0 +1,257 @@
+package ru.practicum.shareit.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.cache.ItemCache;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+
+@ExtendWith(MockitoExtension.class)
+public class ItemCacheTest {
+    @Mock
+    private ItemRepository itemRepository;
+    @Mock
+    private BookingRepository bookingRepository;
+    @Mock
+    private CommentRepository commentRepository;
+    private MeterRegistry meterRegistry;
+    private ItemCache itemCache;
+    private User owner;
+    private User booker;
+    private Item item;
+    private Comment comment;
+    private Booking lastBooking;
+    private Booking nextBooking;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        itemCache = new ItemCache(itemRepository, bookingRepository, commentRepository, meterRegistry,
+                100, Duration.ofMinutes(1));
+
+        owner = User.builder()
+                .id(1L)
+                .name("owner")
+                .email("owner@user.com")
+                .build();
+
+        booker = User.builder()
+                .id(2L)
+                .name("booker")
+                .email("booker@user.com")
+                .build();
+
+        item = Item.builder()
+                .id(1L)
+                .name("дрель")
+                .description("простая дрель")
+                .available(true)
+                .owner(owner)
+                .build();
+
+        comment = Comment.builder()
+                .id(1L)
+                .text("комментарий")
+                .item(item)
+                .author(booker)
+                .created(LocalDateTime.now())
+                .build();
+
+        lastBooking = Booking.builder()
+                .id(1L)
+                .start(LocalDateTime.now().minusDays(2))
+                .end(LocalDateTime.now().minusDays(1))
+                .item(item)
+                .booker(booker)
+                .status(BookingStatus.APPROVED)
+                .build();
+
+        nextBooking = Booking.builder()
+                .id(2L)
+                .start(LocalDateTime.now().plusDays(1))
+                .end(LocalDateTime.now().plusDays(2))
+                .item(item)
+                .booker(booker)
+                .status(BookingStatus.APPROVED)
+                .build();
+    }
+
+    @Test
+    void findById_whenCalledTwice_thenRepositoriesCalledOnce() {
+        Mockito
+                .when(itemRepository.findById(1L))
+                .thenReturn(Optional.of(item));
+        Mockito
+                .when(commentRepository.findAllByItem(any(), any()))
+                .thenReturn(List.of(comment));
+
+        itemCache.findById(1L, booker.getId());
+        ItemDto result = itemCache.findById(1L, booker.getId()).get();
+
+        assertEquals(item.getName(), result.getName());
+        assertEquals(1, result.getComments().size());
+        assertNull(result.getLastBooking());
+        assertNull(result.getNextBooking());
+        Mockito.verify(itemRepository, times(1)).findById(1L);
+        Mockito.verify(commentRepository, times(1)).findAllByItem(any(), any());
+        Mockito.verify(bookingRepository, never()).findLastApprovedByItemIdIn(anyList(), any());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "items").tag("result", "hit")
+                .functionCounter().count());
+    }
+
+    @Test
+    void findById_whenViewerIsOwner_thenBookingsAdded() {
+        Mockito
+                .when(itemRepository.findById(1L))
+                .thenReturn(Optional.of(item));
+        Mockito
+                .when(commentRepository.findAllByItem(any(), any()))
+                .thenReturn(List.of());
+        Mockito
+                .when(bookingRepository.findLastApprovedByItemIdIn(anyList(), any()))
+                .thenReturn(List.of(lastBooking));
+        Mockito
+                .when(bookingRepository.findNextApprovedByItemIdIn(anyList(), any()))
+                .thenReturn(List.of(nextBooking));
+
+        itemCache.findById(1L, owner.getId());
+        ItemDto result = itemCache.findById(1L, owner.getId()).get();
+
+        assertEquals(lastBooking.getId(), result.getLastBooking().getId());
+        assertEquals(nextBooking.getId(), result.getNextBooking().getId());
+        Mockito.verify(bookingRepository, times(1)).findLastApprovedByItemIdIn(anyList(), any());
+    }
+
+    @Test
+    void findById_whenItemNotFound_thenNotCached() {
+        Mockito
+                .when(itemRepository.findById(1L))
+                .thenReturn(Optional.empty());
+
+        assertTrue(itemCache.findById(1L, owner.getId()).isEmpty());
+        assertTrue(itemCache.findById(1L, owner.getId()).isEmpty());
+        Mockito.verify(itemRepository, times(2)).findById(1L);
+    }
+
+    @Test
+    void findById_whenCachedItemModified_thenCacheNotAffected() {
+        Mockito
+                .when(itemRepository.findById(1L))
+                .thenReturn(Optional.of(item));
+        Mockito
+                .when(commentRepository.findAllByItem(any(), any()))
+                .thenReturn(List.of(comment));
+
+        ItemDto first = itemCache.findById(1L, booker.getId()).get();
+        first.setName("изменено");
+        first.getComments().clear();
+
+        ItemDto second = itemCache.findById(1L, booker.getId()).get();
+        assertEquals("дрель", second.getName());
+        assertEquals(1, second.getComments().size());
+    }
+
+    @Test
+    void evictBookings_whenEvicted_thenOnlyBookingsReloaded() {
+        Mockito
+                .when(itemRepository.findById(1L))
+                .thenReturn(Optional.of(item));
+        Mockito
+                .when(commentRepository.findAllByItem(any(), any()))
+                .thenReturn(List.of());
+        Mockito
+                .when(bookingRepository.findLastApprovedByItemIdIn(anyList(), any()))
+                .thenReturn(List.of());
+        Mockito
+                .when(bookingRepository.findNextApprovedByItemIdIn(anyList(), any()))
+                .thenReturn(List.of(), List.of(nextBooking));
+
+        assertNull(itemCache.findById(1L, owner.getId()).get().getNextBooking());
+        itemCache.evictBookings(1L);
+
+        assertEquals(nextBooking.getId(), itemCache.findById(1L, owner.getId()).get().getNextBooking().getId());
+        Mockito.verify(itemRepository, times(1)).findById(1L);
+        Mockito.verify(bookingRepository, times(2)).findNextApprovedByItemIdIn(anyList(), any());
+    }
+
+    @Test
+    void evict_whenEvicted_thenItemReloaded() {
+        Item updated = Item.builder()
+                .id(1L)
+                .name("перфоратор")
+                .description("простая дрель")
+                .available(true)
+                .owner(owner)
+                .build();
+        Mockito
+                .when(itemRepository.findById(1L))
+                .thenReturn(Optional.of(item), Optional.of(updated));
+        Mockito
+                .when(commentRepository.findAllByItem(any(), any()))
+                .thenReturn(List.of());
+
+        itemCache.findById(1L, booker.getId());
+        itemCache.evict(1L);
+
+        assertEquals("перфоратор", itemCache.findById(1L, booker.getId()).get().getName());
+    }
+
+    @Test
+    void evictUser_whenUserRemoved_thenOwnedItemReloadedAndOthersKept() {
+        Mockito
+                .when(itemRepository.findById(anyLong()))
+                .thenAnswer(invocation -> Optional.of(Item.builder()
+                        .id(invocation.getArgument(0))
+                        .name("дрель")
+                        .description("простая дрель")
+                        .available(true)
+                        .owner(invocation.<Long>getArgument(0) == 1L ? owner : booker)
+                        .build()));
+        Mockito
+                .when(commentRepository.findAllByItem(any(), any()))
+                .thenReturn(List.of());
+        Mockito
+                .when(itemRepository.findIdsByOwnerId(owner.getId()))
+                .thenReturn(List.of(1L));
+        Mockito
+                .when(commentRepository.findItemIdsByAuthorId(owner.getId()))
+                .thenReturn(List.of());
+        Mockito
+                .when(bookingRepository.findItemIdsByBookerId(owner.getId()))
+                .thenReturn(List.of());
+
+        itemCache.findById(1L, booker.getId());
+        itemCache.findById(2L, booker.getId());
+        itemCache.evictUser(owner.getId());
+        itemCache.findById(1L, booker.getId());
+        itemCache.findById(2L, booker.getId());
+
+        Mockito.verify(itemRepository, times(2)).findById(1L);
+        Mockito.verify(itemRepository, times(1)).findById(2L);
+    }
+}
@@ -0,0 +1,114 @@
+package ru.practicum.shareit.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.item.cache.ItemCache;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemIndexConsumer;
+import ru.practicum.shareit.item.search.ItemNameSuggester;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.item.search.ItemTokenIndex;
+import ru.practicum.shareit.outbox.model.DomainEventType;
+import ru.practicum.shareit.outbox.model.OutboxEvent;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.Cache;
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+
+@ExtendWith(MockitoExtension.class)
+public class ItemIndexConsumerTest {
+    @Mock
+    private ItemRepository itemRepository;
+    @Mock
+    private ItemSearchEngine itemSearchEngine;
+    @Mock
+    private ItemNameSuggester itemNameSuggester;
+    @Mock
+    private ItemTokenIndex itemTokenIndex;
+    @Mock
+    private ItemCache itemCache;
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+    @Mock
+    private Cache secondLevelCache;
+    @InjectMocks
+    private ItemIndexConsumer itemIndexConsumer;
+    private Item item;
+
+    @BeforeEach
+    void setUp() {
+        item = Item.builder()
+                .id(1L)
+                .name("дрель")
+                .description("ударная")
+                .available(true)
+                .owner(User.builder().id(1L).name("owner").email("owner@user.com").build())
+                .build();
+    }
+
+    @Test
+    void accept_whenItemExists_thenIndexedAndEvicted() {
+        Mockito
+                .when(entityManagerFactory.getCache())
+                .thenReturn(secondLevelCache);
+        Mockito
+                .when(itemRepository.findById(1L))
+                .thenReturn(Optional.of(item));
+
+        itemIndexConsumer.accept(event(DomainEventType.ITEM_UPDATED));
+        itemIndexConsumer.accept(event(DomainEventType.ITEM_UPDATED));
+
+        Mockito.verify(secondLevelCache, times(2)).evict(Item.class, 1L);
+        Mockito.verify(itemSearchEngine, times(2)).index(item);
+        Mockito.verify(itemNameSuggester, times(2)).index(item);
+        Mockito.verify(itemTokenIndex, times(2)).index(item);
+        Mockito.verify(itemCache, times(2)).evict(1L);
+        Mockito.verify(itemSearchEngine, never()).remove(1L);
+    }
+
+    @Test
+    void accept_whenItemDeleted_thenRemovedFromIndexes() {
+        Mockito
+                .when(entityManagerFactory.getCache())
+                .thenReturn(secondLevelCache);
+        Mockito
+                .when(itemRepository.findById(1L))
+                .thenReturn(Optional.empty());
+
+        itemIndexConsumer.accept(event(DomainEventType.ITEM_DELETED));
+
+        Mockito.verify(itemSearchEngine).remove(1L);
+        Mockito.verify(itemNameSuggester).remove(1L);
+        Mockito.verify(itemTokenIndex).remove(1L);
+        Mockito.verify(itemCache).evict(1L);
+    }
+
+    @Test
+    void accept_whenNotItemEvent_thenIgnored() {
+        itemIndexConsumer.accept(event(DomainEventType.BOOKING_CREATED));
+
+        Mockito.verifyNoInteractions(itemRepository, itemSearchEngine, itemNameSuggester, itemTokenIndex, itemCache,
+                entityManagerFactory);
+    }
+
+    private OutboxEvent event(DomainEventType type) {
+        return OutboxEvent.builder()
+                .id(1L)
+                .type(type)
+                .aggregateId(1L)
+                .payload("{}")
+                .created(LocalDateTime.now())
+                .build();
+    }
+}
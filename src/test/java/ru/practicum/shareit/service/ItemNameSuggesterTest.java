@@ -0,0 +1,95 @@
+package ru.practicum.shareit.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemNameSuggester;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+
+@ExtendWith(MockitoExtension.class)
+public class ItemNameSuggesterTest {
+    @Mock
+    private ItemRepository itemRepository;
+    @InjectMocks
+    private ItemNameSuggester itemNameSuggester;
+
+    @BeforeEach
+    void setUp() {
+        List<Item> items = List.of(
+                item(1L, "Дрель аккумуляторная", true),
+                item(2L, "Дрель", true),
+                item(3L, "Дрель ударная", false),
+                item(4L, "Аккумулятор для шуруповерта", true),
+                item(5L, "Дрезина", true));
+
+        Mockito
+                .when(itemRepository.findAllByIdGreaterThanOrderByIdAsc(eq(0L), any()))
+                .thenReturn(items);
+        Mockito
+                .when(itemRepository.findAllByIdGreaterThanOrderByIdAsc(eq(5L), any()))
+                .thenReturn(List.of());
+
+        itemNameSuggester.rebuild();
+    }
+
+    @Test
+    void suggest_whenPrefixMatchesAnyNameToken_thenReturnAvailableNames() {
+        assertEquals(List.of("Дрезина", "Дрель аккумуляторная", "Дрель"), itemNameSuggester.suggest("ДРе", 10));
+        assertEquals(List.of("Аккумулятор для шуруповерта", "Дрель аккумуляторная"),
+                itemNameSuggester.suggest("аккум", 10));
+    }
+
+    @Test
+    void suggest_whenLimitReached_thenStop() {
+        assertEquals(List.of("Дрезина", "Дрель аккумуляторная"), itemNameSuggester.suggest("дре", 2));
+    }
+
+    @Test
+    void suggest_whenPrefixBlank_thenReturnEmptyList() {
+        assertTrue(itemNameSuggester.suggest("  ", 10).isEmpty());
+    }
+
+    @Test
+    void index_whenItemRenamed_thenOldTokensGone() {
+        itemNameSuggester.index(item(5L, "Пила", true));
+
+        assertEquals(List.of("Дрель аккумуляторная", "Дрель"), itemNameSuggester.suggest("дре", 10));
+        assertEquals(List.of("Пила"), itemNameSuggester.suggest("пи", 10));
+    }
+
+    @Test
+    void index_whenItemBecomesAvailable_thenSuggested() {
+        itemNameSuggester.index(item(3L, "Дрель ударная", true));
+
+        assertEquals(List.of("Дрезина", "Дрель аккумуляторная", "Дрель", "Дрель ударная"),
+                itemNameSuggester.suggest("дре", 10));
+    }
+
+    @Test
+    void remove_whenItemRemoved_thenNotSuggested() {
+        itemNameSuggester.remove(5L);
+
+        assertEquals(List.of("Дрель аккумуляторная", "Дрель"), itemNameSuggester.suggest("дре", 10));
+    }
+
+    private Item item(Long id, String name, boolean available) {
+        return Item.builder()
+                .id(id)
+                .name(name)
+                .description("описание")
+                .available(available)
+                .build();
+    }
+}
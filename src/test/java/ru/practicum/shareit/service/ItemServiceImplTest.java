@@ -4,18 +4,21 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.common.ErrorHandler;
+import ru.practicum.shareit.item.cache.ItemCache;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.TimeSlotDto;
 import ru.practicum.shareit.item.exception.ItemNotFoundException;
 import ru.practicum.shareit.item.exception.ItemValidationException;
 import ru.practicum.shareit.item.mapper.CommentMapper;
@@ -24,16 +27,23 @@ import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemNameSuggester;
+import ru.practicum.shareit.item.search.ItemTokenIndex;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
 import ru.practicum.shareit.item.service.impl.ItemServiceImpl;
+import ru.practicum.shareit.outbox.service.OutboxWriter;
 import ru.practicum.shareit.request.exception.RequestNotFoundException;
 import ru.practicum.shareit.request.model.Request;
 import ru.practicum.shareit.request.repository.RequestRepository;
-import ru.practicum.shareit.user.exception.UserNotFoundException;
 import ru.practicum.shareit.user.model.User;
-import ru.practicum.shareit.user.repository.UserRepository;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
+import java.util.Random;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -45,14 +55,21 @@ public class ItemServiceImplTest {
     @Mock
     private ItemRepository itemRepository;
     @Mock
-    private UserRepository userRepository;
+    private ItemCache itemCache;
     @Mock
     private BookingRepository bookingRepository;
     @Mock
     private CommentRepository commentRepository;
     @Mock
     private RequestRepository requestRepository;
-    @InjectMocks
+    @Mock
+    private ItemSearchEngine itemSearchEngine;
+    @Mock
+    private ItemNameSuggester itemNameSuggester;
+    @Mock
+    private ItemTokenIndex itemTokenIndex;
+    @Mock
+    private OutboxWriter outboxWriter;
     private ItemServiceImpl itemService;
     private MockMvc mvc;
 
@@ -79,6 +96,8 @@ public class ItemServiceImplTest {
 
     @BeforeEach
     void setUp() {
+        itemService = new ItemServiceImpl(itemRepository, bookingRepository, commentRepository, requestRepository,
+                itemSearchEngine, itemNameSuggester, itemTokenIndex, itemCache, outboxWriter, 50);
         mvc = MockMvcBuilders
                 .standaloneSetup(itemService)
                 .setControllerAdvice(ErrorHandler.class)
@@ -131,30 +150,13 @@ public class ItemServiceImplTest {
                 .build();
     }
 
-    @Test
-    void findAllByUserId_whenUserNotFount_thenException() throws Exception {
-        Long id = 1L;
-        int from = 0;
-        int size = 10;
-        Mockito
-                .when(userRepository.findById(anyLong()))
-                .thenReturn(Optional.empty());
-
-        UserNotFoundException userNotFoundException = assertThrows(
-                UserNotFoundException.class, () -> itemService.findAllByUserId(id, from, size));
-    }
-
     @Test
     void findAllByUserId_whenFromLess0_thenException() throws Exception {
         Long id = 1L;
         int from = -1;
         int size = 10;
-        Mockito
-                .when(userRepository.findById(anyLong()))
-                .thenReturn(Optional.of(user));
-
         ItemValidationException itemValidationException = assertThrows(
-                ItemValidationException.class, () -> itemService.findAllByUserId(id, from, size));
+                ItemValidationException.class, () -> itemService.findAllByUserId(user, from, size));
     }
 
     @Test
@@ -162,12 +164,8 @@ public class ItemServiceImplTest {
         Long id = 1L;
         int from = 0;
         int size = -1;
-        Mockito
-                .when(userRepository.findById(anyLong()))
-                .thenReturn(Optional.of(user));
-
         ItemValidationException itemValidationException = assertThrows(
-                ItemValidationException.class, () -> itemService.findAllByUserId(id, from, size));
+                ItemValidationException.class, () -> itemService.findAllByUserId(user, from, size));
     }
 
     @Test
@@ -175,152 +173,221 @@ public class ItemServiceImplTest {
         Long id = 1L;
         int from = 0;
         int size = 10;
-        Mockito
-                .when(userRepository.findById(anyLong()))
-                .thenReturn(Optional.of(user));
-
         Mockito
                 .when(itemRepository.findAllByOwner(any(), any()))
                 .thenReturn(itemList);
 
         Mockito
-                .when(bookingRepository.findAllByItemInAndStartBeforeAndStatus(any(), any(), any(), any()))
+                .when(bookingRepository.findLastApprovedByItemIdIn(any(), any()))
                 .thenReturn(bookingList);
 
         Mockito
-                .when(bookingRepository.findAllByItemInAndStartAfterAndStatus(any(), any(), any(), any()))
+                .when(bookingRepository.findNextApprovedByItemIdIn(any(), any()))
                 .thenReturn(bookingList);
 
         Mockito
                 .when(commentRepository.findAllByItemIn(any(), any()))
                 .thenReturn(commentList);
 
-        List<ItemDto> result = itemService.findAllByUserId(id, from, size);
+        List<ItemDto> result = itemService.findAllByUserId(user, from, size);
 
         assertEquals(itemList.size(), result.size());
     }
 
     @Test
-    void findById_whenUserNotFound_thenException() throws Exception {
-        Long userId = 1L;
-        Long id = 1L;
-        Mockito
-                .when(userRepository.findById(anyLong()))
-                .thenReturn(Optional.empty());
+    void findAllByUserId_whenOwnerHasManyBookings_thenSameAsPerItemScan() throws Exception {
+        int itemCount = 500;
+        int bookingCount = 20000;
+        int commentCount = 5000;
+        Random random = new Random(42);
+        LocalDateTime curTime = LocalDateTime.now();
+
+        List<Item> items = new ArrayList<>();
+        for (long i = 1; i <= itemCount; i++) {
+            items.add(Item.builder()
+                    .id(i)
+                    .name("вещь " + i)
+                    .description("описание " + i)
+                    .available(true)
+                    .owner(user)
+                    .build());
+        }
+        List<Booking> lastBookings = new ArrayList<>();
+        List<Booking> nextBookings = new ArrayList<>();
+        for (long i = 1; i <= bookingCount; i++) {
+            Item bookedItem = items.get(random.nextInt(itemCount - 10));
+            LocalDateTime start = curTime.plusHours(random.nextInt(20000) - 10000);
+            Booking booking = Booking.builder()
+                    .id(i)
+                    .item(bookedItem)
+                    .booker(user)
+                    .start(start)
+                    .end(start.plusHours(1))
+                    .status(BookingStatus.APPROVED)
+                    .build();
+            if (start.isBefore(curTime)) {
+                lastBookings.add(booking);
+            } else {
+                nextBookings.add(booking);
+            }
+        }
+        lastBookings.sort(Comparator.comparing(Booking::getStart).reversed());
+        nextBookings.sort(Comparator.comparing(Booking::getStart));
+        List<Comment> comments = new ArrayList<>();
+        for (long i = 1; i <= commentCount; i++) {
+            comments.add(Comment.builder()
+                    .id(i)
+                    .text("комментарий " + i)
+                    .item(items.get(random.nextInt(itemCount)))
+                    .author(user)
+                    .created(curTime.minusMinutes(commentCount - i))
+                    .build());
+        }
 
-        UserNotFoundException userNotFoundException = assertThrows(
-                UserNotFoundException.class, () -> itemService.findById(userId, id));
+        Mockito
+                .when(itemRepository.findAllByOwner(any(), any()))
+                .thenReturn(items);
+        Mockito
+                .when(bookingRepository.findLastApprovedByItemIdIn(any(), any()))
+                .thenReturn(lastBookings);
+        Mockito
+                .when(bookingRepository.findNextApprovedByItemIdIn(any(), any()))
+                .thenReturn(nextBookings);
+        Mockito
+                .when(commentRepository.findAllByItemIn(any(), any()))
+                .thenReturn(comments);
+
+        List<ItemDto> result = itemService.findAllByUserId(user, 0, itemCount);
+
+        assertEquals(itemCount, result.size());
+        for (ItemDto itemDto : result) {
+            Long expectedLast = lastBookings.stream()
+                    .filter(booking -> booking.getItem().getId().equals(itemDto.getId()))
+                    .map(Booking::getId)
+                    .findFirst()
+                    .orElse(null);
+            Long expectedNext = nextBookings.stream()
+                    .filter(booking -> booking.getItem().getId().equals(itemDto.getId()))
+                    .map(Booking::getId)
+                    .findFirst()
+                    .orElse(null);
+            List<Long> expectedComments = comments.stream()
+                    .filter(comment -> comment.getItem().getId().equals(itemDto.getId()))
+                    .map(Comment::getId)
+                    .collect(Collectors.toList());
+
+            assertEquals(expectedLast, itemDto.getLastBooking() == null ? null : itemDto.getLastBooking().getId());
+            assertEquals(expectedNext, itemDto.getNextBooking() == null ? null : itemDto.getNextBooking().getId());
+            assertEquals(expectedComments, itemDto.getComments()
+                    .stream()
+                    .map(CommentDto::getId)
+                    .collect(Collectors.toList()));
+        }
     }
 
     @Test
     void findById_whenItemNotFound_thenException() throws Exception {
-        Long userId = 1L;
         Long id = 1L;
         Mockito
-                .when(userRepository.findById(anyLong()))
-                .thenReturn(Optional.of(user));
-
-        Mockito
-                .when(itemRepository.findById(anyLong()))
+                .when(itemCache.findById(anyLong(), anyLong()))
                 .thenReturn(Optional.empty());
 
         ItemNotFoundException itemNotFoundException = assertThrows(
-                ItemNotFoundException.class, () -> itemService.findById(userId, id));
+                ItemNotFoundException.class, () -> itemService.findById(user, id));
     }
 
     @Test
     void findById_whenItemFound_thenReturn() throws Exception {
-        Long userId = 1L;
         Long id = 1L;
         Mockito
-                .when(userRepository.findById(anyLong()))
-                .thenReturn(Optional.of(user));
-
-        Mockito
-                .when(itemRepository.findById(anyLong()))
-                .thenReturn(Optional.of(item));
-
-        Mockito
-                .when(bookingRepository.findFirstBookingByItemAndStartBeforeAndStatus(any(), any(), any(), any()))
-                .thenReturn(booking);
+                .when(itemCache.findById(anyLong(), anyLong()))
+                .thenReturn(Optional.of(itemDto));
 
-        Mockito
-                .when(bookingRepository.findFirstBookingByItemAndStartAfterAndStatus(any(), any(), any(), any()))
-                .thenReturn(booking);
-
-        Mockito
-                .when(commentRepository.findAllByItem(any(), any()))
-                .thenReturn(commentList);
-
-        ItemDto result = itemService.findById(userId, id);
+        ItemDto result = itemService.findById(user, id);
 
         assertEquals(result.getId(), itemDto.getId());
         assertEquals(result.getName(), itemDto.getName());
         assertEquals(result.getDescription(), itemDto.getDescription());
+        Mockito.verify(itemCache, times(1)).findById(id, user.getId());
     }
 
     @Test
-    void add_whenUserNotFound_thenException() throws Exception {
-        Long userId = 1L;
+    void add_whenUserFoundAndRequestIsNull_thenReturn() throws Exception {
         Long id = 1L;
         Mockito
-                .when(userRepository.findById(anyLong()))
-                .thenReturn(Optional.empty());
+                .when(itemRepository.save(any()))
+                .thenReturn(item);
+
+        ItemDto result = itemService.add(user, itemDto);
 
-        UserNotFoundException userNotFoundException = assertThrows(
-                UserNotFoundException.class, () -> itemService.add(userId, itemDto));
+        assertEquals(result.getId(), itemDto.getId());
+        assertEquals(result.getName(), itemDto.getName());
+        assertEquals(result.getDescription(), itemDto.getDescription());
     }
 
     @Test
-    void add_whenUserFoundAndRequestIsNull_thenReturn() throws Exception {
-        Long userId = 1L;
-        Long id = 1L;
-        Mockito
-                .when(userRepository.findById(anyLong()))
-                .thenReturn(Optional.of(user));
-
+    void add_whenTransactionActive_thenIndexedAfterCommit() throws Exception {
         Mockito
                 .when(itemRepository.save(any()))
                 .thenReturn(item);
 
-        ItemDto result = itemService.add(userId, itemDto);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            itemService.add(user, itemDto);
+
+            Mockito.verify(itemSearchEngine, Mockito.never()).index(any());
+            Mockito.verify(itemNameSuggester, Mockito.never()).index(any());
+            Mockito.verify(itemTokenIndex, Mockito.never()).index(any());
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        Mockito.verify(itemSearchEngine, times(1)).index(item);
+        Mockito.verify(itemNameSuggester, times(1)).index(item);
+        Mockito.verify(itemTokenIndex, times(1)).index(item);
+    }
 
-        assertEquals(result.getId(), itemDto.getId());
-        assertEquals(result.getName(), itemDto.getName());
-        assertEquals(result.getDescription(), itemDto.getDescription());
+    @Test
+    void remove_whenTransactionRolledBack_thenIndexNotChanged() throws Exception {
+        Mockito
+                .when(itemRepository.findById(anyLong()))
+                .thenReturn(Optional.of(item));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            itemService.remove(user, item.getId());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(synchronization ->
+                    synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        Mockito.verify(itemSearchEngine, Mockito.never()).remove(anyLong());
+        Mockito.verify(itemNameSuggester, Mockito.never()).remove(anyLong());
+        Mockito.verify(itemTokenIndex, Mockito.never()).remove(anyLong());
     }
 
     @Test
     void add_whenUserFoundAndRequestNotFound_thenException() throws Exception {
-        Long userId = 1L;
         Long id = 1L;
         itemDto.setRequestId(99999L);
 
-        Mockito
-                .when(userRepository.findById(anyLong()))
-                .thenReturn(Optional.of(user));
-
         Mockito
                 .when(requestRepository.findById(anyLong()))
                 .thenReturn(Optional.empty());
 
         RequestNotFoundException requestNotFoundException = assertThrows(
-                RequestNotFoundException.class, () -> itemService.add(userId, itemDto));
+                RequestNotFoundException.class, () -> itemService.add(user, itemDto));
     }
 
     @Test
     void add_whenUserFoundAndRequestFound_thenReturn() throws Exception {
-        Long userId = 1L;
         Long id = 1L;
 
         itemDto.setRequestId(1L);
         item = ItemMapper.toItem(itemDto);
         item.setRequest(request);
 
-        Mockito
-                .when(userRepository.findById(anyLong()))
-                .thenReturn(Optional.of(user));
-
         Mockito
                 .when(requestRepository.findById(anyLong()))
                 .thenReturn(Optional.of(request));
@@ -329,7 +396,7 @@ public class ItemServiceImplTest {
                 .when(itemRepository.save(any()))
                 .thenReturn(item);
 
-        ItemDto result = itemService.add(userId, itemDto);
+        ItemDto result = itemService.add(user, itemDto);
 
         assertEquals(result.getId(), itemDto.getId());
         assertEquals(result.getName(), itemDto.getName());
@@ -337,112 +404,63 @@ public class ItemServiceImplTest {
         assertEquals(result.getRequestId(), itemDto.getRequestId());
     }
 
-    @Test
-    void remove_whenUserNotFound_thenException() throws Exception {
-        Long userId = 1L;
-        Long id = 1L;
-        Mockito
-                .when(userRepository.findById(anyLong()))
-                .thenReturn(Optional.empty());
-
-        UserNotFoundException userNotFoundException = assertThrows(
-                UserNotFoundException.class, () -> itemService.remove(userId, id));
-    }
-
     @Test
     void remove_whenUserFoundAndItemNotFound_thenException() throws Exception {
-        Long userId = 1L;
         Long id = 1L;
 
-        Mockito
-                .when(userRepository.findById(anyLong()))
-                .thenReturn(Optional.of(user));
-
         Mockito
                 .when(itemRepository.findById(anyLong()))
                 .thenReturn(Optional.empty());
 
         ItemNotFoundException itemNotFoundException = assertThrows(
-                ItemNotFoundException.class, () -> itemService.remove(userId, id));
+                ItemNotFoundException.class, () -> itemService.remove(user, id));
     }
 
     @Test
     void remove_whenUserNotOwner_thenException() throws Exception {
-        Long userId = 1L;
         Long id = 1L;
 
         item.setOwner(new User(5L, "newOwner", ""));
 
-        Mockito
-                .when(userRepository.findById(anyLong()))
-                .thenReturn(Optional.of(user));
-
         Mockito
                 .when(itemRepository.findById(anyLong()))
                 .thenReturn(Optional.of(item));
 
         ItemNotFoundException itemNotFoundException = assertThrows(
-                ItemNotFoundException.class, () -> itemService.remove(userId, id));
+                ItemNotFoundException.class, () -> itemService.remove(user, id));
     }
 
     @Test
     void remove_whenUserIsOwner_thenDelete() throws Exception {
-        Long userId = 1L;
         Long id = 1L;
 
-        Mockito
-                .when(userRepository.findById(anyLong()))
-                .thenReturn(Optional.of(user));
-
         Mockito
                 .when(itemRepository.findById(anyLong()))
                 .thenReturn(Optional.of(item));
 
-        itemService.remove(userId, id);
+        itemService.remove(user, id);
         Mockito.verify(itemRepository, times(1)).deleteById(id);
     }
 
-    @Test
-    void update_whenUserNotFound_thenException() throws Exception {
-        Long userId = 1L;
-        Long id = 1L;
-        Mockito
-                .when(userRepository.findById(anyLong()))
-                .thenReturn(Optional.empty());
-
-        UserNotFoundException userNotFoundException = assertThrows(
-                UserNotFoundException.class, () -> itemService.update(userId, id, itemDto));
-    }
-
     @Test
     void update_whenUserFoundAndItemNotFound_thenException() throws Exception {
-        Long userId = 1L;
         Long id = 1L;
 
-        Mockito
-                .when(userRepository.findById(anyLong()))
-                .thenReturn(Optional.of(user));
-
         Mockito
                 .when(itemRepository.findById(anyLong()))
                 .thenReturn(Optional.empty());
 
         ItemNotFoundException itemNotFoundException = assertThrows(
-                ItemNotFoundException.class, () -> itemService.update(userId, id, itemDto));
+                ItemNotFoundException.class, () -> itemService.update(user, id, itemDto));
     }
 
     @Test
     void update_whenUserFoundAndRequestFound_thenReturn() throws Exception {
-        Long userId = 1L;
         Long id = 1L;
 
         itemDto.setRequestId(1L);
         item = ItemMapper.toItem(itemDto);
 
-        Mockito
-                .when(userRepository.findById(anyLong()))
-                .thenReturn(Optional.of(user));
-
         Mockito
                 .when(itemRepository.findById(anyLong()))
                 .thenReturn(Optional.of(item));
@@ -451,7 +469,7 @@ public class ItemServiceImplTest {
                 .when(itemRepository.save(any()))
                 .thenReturn(item);
 
-        ItemDto result = itemService.update(userId, id, itemDto);
+        ItemDto result = itemService.update(user, id, itemDto);
 
         assertEquals(result.getId(), itemDto.getId());
         assertEquals(result.getName(), itemDto.getName());
@@ -498,7 +516,7 @@ public class ItemServiceImplTest {
         int size = 10;
 
         Mockito
-                .when(itemRepository.findAllByNameContainingIgnoreCaseOrDescriptionContainingIgnoreCaseAndAvailable(anyString(), anyString(), anyBoolean(), any()))
+                .when(itemSearchEngine.search(anyString(), any()))
                 .thenReturn(itemList);
 
         List<ItemDto> result = itemService.search(text, from, size);
@@ -507,43 +525,146 @@ public class ItemServiceImplTest {
     }
 
     @Test
-    void addComment_whenUserNotFound_thenException() throws Exception {
-        Long userId = 1L;
-        Long id = 1L;
+    void search_whenPeriodNotPassed_thenSearchEngineUsed() throws Exception {
         Mockito
-                .when(userRepository.findById(anyLong()))
-                .thenReturn(Optional.empty());
+                .when(itemSearchEngine.search(anyString(), any()))
+                .thenReturn(itemList);
 
-        UserNotFoundException userNotFoundException = assertThrows(
-                UserNotFoundException.class, () -> itemService.addComment(userId, id, CommentMapper.toDto(comment)));
+        List<ItemDto> result = itemService.search("text", null, null, 0, 10);
+
+        assertEquals(itemList.size(), result.size());
+        Mockito.verify(itemRepository, Mockito.never()).searchFreeInPeriod(any(), any(), any(), any(), any());
     }
 
     @Test
-    void addComment_whenItemNotFound_thenException() throws Exception {
-        Long userId = 1L;
-        Long id = 1L;
+    void search_whenOnlyStartPassed_thenException() throws Exception {
+        ItemValidationException itemValidationException = assertThrows(ItemValidationException.class,
+                () -> itemService.search("text", LocalDateTime.now(), null, 0, 10));
+    }
 
+    @Test
+    void search_whenPeriodPassed_thenFreeItemsReturned() throws Exception {
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 0, 0);
         Mockito
-                .when(userRepository.findById(anyLong()))
-                .thenReturn(Optional.of(user));
+                .when(itemRepository.searchFreeInPeriod(anyString(), any(), any(), any(), any()))
+                .thenReturn(itemList);
+
+        List<ItemDto> result = itemService.search("text", start, start.plusDays(1), 0, 10);
+
+        assertEquals(itemList.size(), result.size());
+        Mockito.verify(itemRepository, times(1)).searchFreeInPeriod(eq("text"), eq(start), eq(start.plusDays(1)),
+                eq(BookingStatus.APPROVED), any());
+        Mockito.verifyNoInteractions(itemSearchEngine);
+    }
+
+    @Test
+    void suggest_whenSizeIs0_thenException() throws Exception {
+        ItemValidationException itemValidationException = assertThrows(
+                ItemValidationException.class, () -> itemService.suggest("дре", 0));
+    }
+
+    @Test
+    void suggest_whenSizeAboveMaximum_thenException() throws Exception {
+        ItemValidationException itemValidationException = assertThrows(
+                ItemValidationException.class, () -> itemService.suggest("дре", Integer.MAX_VALUE));
+
+        assertEquals("Количество подсказок не должно превышать 50", itemValidationException.getMessage());
+        Mockito.verifyNoInteractions(itemNameSuggester);
+    }
+
+    @Test
+    void suggest_whenParamIsOk_thenReturn() throws Exception {
+        Mockito
+                .when(itemNameSuggester.suggest(anyString(), anyInt()))
+                .thenReturn(List.of("Дрель"));
+
+        List<String> result = itemService.suggest("дре", 10);
+
+        assertEquals(List.of("Дрель"), result);
+    }
+
+    @Test
+    void findAvailability_whenFromNotBeforeTo_thenException() throws Exception {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+        ItemValidationException itemValidationException = assertThrows(
+                ItemValidationException.class, () -> itemService.findAvailability(1L, from, from));
+    }
+
+    @Test
+    void findAvailability_whenItemNotAvailable_thenEmptyList() throws Exception {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        item.setAvailable(false);
+        Mockito
+                .when(itemRepository.findById(anyLong()))
+                .thenReturn(Optional.of(item));
+
+        assertTrue(itemService.findAvailability(1L, from, from.plusDays(1)).isEmpty());
+    }
+
+    @Test
+    void findAvailability_whenBookingsOverlapAndTouch_thenGapsReturned() throws Exception {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        LocalDateTime to = from.plusDays(10);
+        List<Booking> bookings = List.of(
+                Booking.builder().start(from.minusDays(1)).end(from.plusDays(1)).build(),
+                Booking.builder().start(from.plusDays(2)).end(from.plusDays(5)).build(),
+                Booking.builder().start(from.plusDays(3)).end(from.plusDays(4)).build(),
+                Booking.builder().start(from.plusDays(5)).end(from.plusDays(6)).build(),
+                Booking.builder().start(from.plusDays(8)).end(from.plusDays(9)).build());
+        Mockito
+                .when(itemRepository.findById(anyLong()))
+                .thenReturn(Optional.of(item));
+        Mockito
+                .when(bookingRepository.findAllByItem_IdAndStatusInAndStartBeforeAndEndAfterOrderByStartAsc(
+                        anyLong(), any(), any(), any()))
+                .thenReturn(bookings);
+
+        List<TimeSlotDto> result = itemService.findAvailability(1L, from, to);
+
+        assertEquals(3, result.size());
+        assertEquals(from.plusDays(1), result.get(0).getStart());
+        assertEquals(from.plusDays(2), result.get(0).getEnd());
+        assertEquals(from.plusDays(6), result.get(1).getStart());
+        assertEquals(from.plusDays(8), result.get(1).getEnd());
+        assertEquals(from.plusDays(9), result.get(2).getStart());
+        assertEquals(to, result.get(2).getEnd());
+    }
+
+    @Test
+    void findAvailability_whenNoBookings_thenWholePeriod() throws Exception {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        Mockito
+                .when(itemRepository.findById(anyLong()))
+                .thenReturn(Optional.of(item));
+        Mockito
+                .when(bookingRepository.findAllByItem_IdAndStatusInAndStartBeforeAndEndAfterOrderByStartAsc(
+                        anyLong(), any(), any(), any()))
+                .thenReturn(List.of());
+
+        List<TimeSlotDto> result = itemService.findAvailability(1L, from, from.plusDays(1));
+
+        assertEquals(1, result.size());
+        assertEquals(from, result.get(0).getStart());
+        assertEquals(from.plusDays(1), result.get(0).getEnd());
+    }
+
+    @Test
+    void addComment_whenItemNotFound_thenException() throws Exception {
+        Long id = 1L;
 
         Mockito
                 .when(itemRepository.findById(anyLong()))
                 .thenReturn(Optional.empty());
 
         ItemNotFoundException itemNotFoundException = assertThrows(
-                ItemNotFoundException.class, () -> itemService.addComment(userId, id, CommentMapper.toDto(comment)));
+                ItemNotFoundException.class, () -> itemService.addComment(user, id, CommentMapper.toDto(comment)));
     }
 
     @Test
     void addComment_whenBookingIsRuning_thenException() throws Exception {
-        Long userId = 1L;
         Long id = 1L;
 
-        Mockito
-                .when(userRepository.findById(anyLong()))
-                .thenReturn(Optional.of(user));
-
         Mockito
                 .when(itemRepository.findById(anyLong()))
                 .thenReturn(Optional.of(item));
@@ -553,18 +674,13 @@ public class ItemServiceImplTest {
                 .thenReturn(Optional.empty());
 
         ItemValidationException itemValidationException = assertThrows(
-                ItemValidationException.class, () -> itemService.addComment(userId, id, CommentMapper.toDto(comment)));
+                ItemValidationException.class, () -> itemService.addComment(user, id, CommentMapper.toDto(comment)));
     }
 
     @Test
     void addComment_whenParamIsOk_thenReturn() throws Exception {
-        Long userId = 1L;
         Long id = 1L;
 
-        Mockito
-                .when(userRepository.findById(anyLong()))
-                .thenReturn(Optional.of(user));
-
         Mockito
                 .when(itemRepository.findById(anyLong()))
                 .thenReturn(Optional.of(item));
@@ -577,7 +693,7 @@ public class ItemServiceImplTest {
                 .when(commentRepository.save(any()))
                 .thenReturn(comment);
 
-        CommentDto result = itemService.addComment(userId, id, commentDto);
+        CommentDto result = itemService.addComment(user, id, commentDto);
 
         assertEquals(result.getText(), commentDto.getText());
     }
@@ -0,0 +1,126 @@
+package ru.practicum.shareit.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemTokenIndex;
+import ru.practicum.shareit.item.search.ItemTokenizer;
+import ru.practicum.shareit.item.search.index.ItemScore;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+
+@ExtendWith(MockitoExtension.class)
+public class ItemTokenIndexTest {
+    private final User owner = User.builder().id(1L).name("owner").email("owner@user.com").build();
+    private final User requestor = User.builder().id(2L).name("requestor").email("requestor@user.com").build();
+    @Mock
+    private ItemRepository itemRepository;
+    @InjectMocks
+    private ItemTokenIndex itemTokenIndex;
+
+    @BeforeEach
+    void setUp() {
+        List<Item> items = List.of(
+                item(1L, "Дрель ударная", "мощная дрель для бетона", owner, true),
+                item(2L, "Дрель", "обычная", owner, true),
+                item(3L, "Перфоратор", "для бетона", owner, true),
+                item(4L, "Дрель ударная", "для бетона", owner, false),
+                item(5L, "Дрель ударная", "для бетона", requestor, true));
+
+        Mockito
+                .when(itemRepository.findAllByIdGreaterThanOrderByIdAsc(eq(0L), any()))
+                .thenReturn(items);
+        Mockito
+                .when(itemRepository.findAllByIdGreaterThanOrderByIdAsc(eq(5L), any()))
+                .thenReturn(List.of());
+    }
+
+    @Test
+    void match_whenSeveralTokensMatch_thenRankedByScore() {
+        List<ItemScore> result = itemTokenIndex.match(tokens("Нужна ударная дрель для бетона"), requestor.getId(), 10);
+
+        assertEquals(List.of(1L, 3L, 2L), ids(result));
+        assertTrue(result.get(0).getScore() > result.get(1).getScore());
+    }
+
+    @Test
+    void match_whenLimitReached_thenKeepBest() {
+        List<ItemScore> result = itemTokenIndex.match(tokens("ударная дрель для бетона"), requestor.getId(), 1);
+
+        assertEquals(List.of(1L), ids(result));
+    }
+
+    @Test
+    void match_whenOwnItemsOrUnavailable_thenExcluded() {
+        List<ItemScore> result = itemTokenIndex.match(tokens("ударная дрель"), owner.getId(), 10);
+
+        assertEquals(List.of(5L), ids(result));
+    }
+
+    @Test
+    void index_whenItemBecomesUnavailable_thenNotMatched() {
+        itemTokenIndex.match(tokens("дрель"), requestor.getId(), 10);
+        itemTokenIndex.index(item(3L, "Перфоратор", "для бетона", owner, false));
+        itemTokenIndex.remove(2L);
+
+        List<ItemScore> result = itemTokenIndex.match(tokens("дрель перфоратор"), requestor.getId(), 10);
+
+        assertEquals(List.of(1L), ids(result));
+    }
+
+    @Test
+    void match_whenCalledRepeatedly_thenBuiltOnce() {
+        itemTokenIndex.match(tokens("дрель"), requestor.getId(), 10);
+        itemTokenIndex.match(tokens("перфоратор"), requestor.getId(), 10);
+
+        Mockito.verify(itemRepository, times(1)).findAllByIdGreaterThanOrderByIdAsc(eq(0L), any());
+    }
+
+    @Test
+    void index_whenNotBuilt_thenChangeLeftToBuild() {
+        itemTokenIndex.index(item(6L, "Лопата", "штыковая", owner, true));
+        itemTokenIndex.remove(1L);
+
+        Mockito.verifyNoInteractions(itemRepository);
+        assertEquals(List.of(1L), ids(itemTokenIndex.match(tokens("ударная лопата"), requestor.getId(), 10)));
+    }
+
+    @Test
+    void match_whenNoTokensMatch_thenReturnEmptyList() {
+        assertTrue(itemTokenIndex.match(tokens("лопата"), requestor.getId(), 10).isEmpty());
+    }
+
+    private List<String> tokens(String text) {
+        return ItemTokenizer.tokenize(text);
+    }
+
+    private List<Long> ids(List<ItemScore> scores) {
+        return scores.stream()
+                .map(ItemScore::getItemId)
+                .collect(Collectors.toList());
+    }
+
+    private Item item(Long id, String name, String description, User owner, boolean available) {
+        return Item.builder()
+                .id(id)
+                .name(name)
+                .description(description)
+                .owner(owner)
+                .available(available)
+                .build();
+    }
+}
@@ -0,0 +1,175 @@
+package ru.practicum.shareit.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.booking.dto.BookingDtoOut;
+import ru.practicum.shareit.booking.event.BookingChangedEvent;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.notification.model.NotificationType;
+import ru.practicum.shareit.notification.service.NotificationHub;
+import ru.practicum.shareit.request.event.RequestCreatedEvent;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NotificationHubTest {
+    private static final Pattern EVENT_NAME = Pattern.compile("event:(\\w+)");
+    private MeterRegistry meterRegistry;
+    private NotificationHub hub;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        hub = new NotificationHub(meterRegistry, 1, 2, Duration.ofMinutes(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        hub.shutdown();
+    }
+
+    @Test
+    void onBookingChanged_whenCreated_thenOnlyOwnerNotified() throws Exception {
+        RecordingEmitter owner = new RecordingEmitter();
+        RecordingEmitter booker = new RecordingEmitter();
+        hub.subscribe(1L, owner);
+        hub.subscribe(2L, booker);
+
+        hub.onBookingChanged(new BookingChangedEvent(1L, 2L, booking(BookingStatus.WAITING)));
+
+        assertEquals("BOOKING_CREATED", owner.next());
+        assertNull(booker.events.poll(100, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void onBookingChanged_whenApproved_thenBookerNotified() throws Exception {
+        RecordingEmitter booker = new RecordingEmitter();
+        hub.subscribe(2L, booker);
+
+        hub.onBookingChanged(new BookingChangedEvent(1L, 2L, booking(BookingStatus.APPROVED)));
+
+        assertEquals("BOOKING_APPROVED", booker.next());
+    }
+
+    @Test
+    void onRequestCreated_whenSeveralSubscribers_thenAllButRequestorNotified() throws Exception {
+        RecordingEmitter requestor = new RecordingEmitter();
+        RecordingEmitter first = new RecordingEmitter();
+        RecordingEmitter second = new RecordingEmitter();
+        hub.subscribe(1L, requestor);
+        hub.subscribe(2L, first);
+        hub.subscribe(3L, second);
+
+        hub.onRequestCreated(new RequestCreatedEvent(10L, 1L, "нужна дрель", LocalDateTime.now()));
+
+        assertEquals("REQUEST_CREATED", first.next());
+        assertEquals("REQUEST_CREATED", second.next());
+        assertNull(requestor.events.poll(100, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void publish_whenSubscriberSlow_thenOldestBufferedDropped() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingEmitter slow = new RecordingEmitter(release);
+        hub.subscribe(1L, slow);
+
+        hub.publish(1L, NotificationType.BOOKING_CREATED, "1");
+        assertTrue(slow.sendStarted.await(5, TimeUnit.SECONDS));
+        hub.publish(1L, NotificationType.BOOKING_APPROVED, "2");
+        hub.publish(1L, NotificationType.BOOKING_REJECTED, "3");
+        hub.publish(1L, NotificationType.REQUEST_CREATED, "4");
+        release.countDown();
+
+        List<String> received = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            received.add(slow.next());
+        }
+        assertEquals(List.of("BOOKING_CREATED", "BOOKING_REJECTED", "REQUEST_CREATED"), received);
+        assertNull(slow.events.poll(100, TimeUnit.MILLISECONDS));
+        assertEquals(1.0, meterRegistry.get("notifications.dropped").counter().count());
+    }
+
+    @Test
+    void publish_whenSendFails_thenSubscriptionRemoved() throws Exception {
+        FailingEmitter broken = new FailingEmitter();
+        hub.subscribe(1L, broken);
+        assertEquals(1, hub.subscriberCount());
+
+        hub.publish(1L, NotificationType.BOOKING_CREATED, "1");
+
+        assertTrue(broken.failed.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 50 && hub.subscriberCount() > 0; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, hub.subscriberCount());
+    }
+
+    private BookingDtoOut booking(BookingStatus status) {
+        return BookingDtoOut.builder()
+                .id(1L)
+                .status(status)
+                .build();
+    }
+
+    private static class RecordingEmitter extends SseEmitter {
+        private final BlockingQueue<String> events = new LinkedBlockingQueue<>();
+        private final CountDownLatch sendStarted = new CountDownLatch(1);
+        private final CountDownLatch release;
+
+        RecordingEmitter() {
+            this(new CountDownLatch(0));
+        }
+
+        RecordingEmitter(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            sendStarted.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException(e);
+            }
+            for (DataWithMediaType data : builder.build()) {
+                Matcher matcher = EVENT_NAME.matcher(String.valueOf(data.getData()));
+                if (matcher.find()) {
+                    events.add(matcher.group(1));
+                }
+            }
+        }
+
+        String next() throws InterruptedException {
+            String event = events.poll(5, TimeUnit.SECONDS);
+            assertNotNull(event);
+            return event;
+        }
+    }
+
+    private static class FailingEmitter extends SseEmitter {
+        private final CountDownLatch failed = new CountDownLatch(1);
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            failed.countDown();
+            throw new IOException("Соединение закрыто");
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package ru.practicum.shareit.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.outbox.model.DomainEventType;
+import ru.practicum.shareit.outbox.model.OutboxEvent;
+import ru.practicum.shareit.outbox.repository.OutboxEventRepository;
+import ru.practicum.shareit.outbox.service.OutboxWriter;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@ExtendWith(MockitoExtension.class)
+public class OutboxWriterTest {
+    private final ObjectMapper mapper = new ObjectMapper();
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    @Test
+    void append_whenEnabled_thenEventSaved() {
+        new OutboxWriter(outboxEventRepository, mapper, true)
+                .append(DomainEventType.ITEM_CREATED, 1L, Map.of("name", "дрель"));
+
+        ArgumentCaptor<OutboxEvent> captor = ArgumentCaptor.forClass(OutboxEvent.class);
+        Mockito.verify(outboxEventRepository).save(captor.capture());
+        assertEquals(DomainEventType.ITEM_CREATED, captor.getValue().getType());
+        assertEquals(1L, captor.getValue().getAggregateId());
+        assertEquals("{\"name\":\"дрель\"}", captor.getValue().getPayload());
+    }
+
+    @Test
+    void append_whenDisabled_thenNothingSaved() {
+        new OutboxWriter(outboxEventRepository, mapper, false)
+                .append(DomainEventType.ITEM_CREATED, 1L, Map.of());
+
+        Mockito.verifyNoInteractions(outboxEventRepository);
+    }
+}
@@ -0,0 +1,90 @@
+package ru.practicum.shareit.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemTokenIndex;
+import ru.practicum.shareit.item.search.index.ItemScore;
+import ru.practicum.shareit.request.event.RequestCreatedEvent;
+import ru.practicum.shareit.request.matching.RequestMatcher;
+import ru.practicum.shareit.request.model.Request;
+import ru.practicum.shareit.request.model.RequestMatch;
+import ru.practicum.shareit.request.repository.RequestMatchRepository;
+import ru.practicum.shareit.request.repository.RequestRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+
+@ExtendWith(MockitoExtension.class)
+public class RequestMatcherTest {
+    @Mock
+    private ItemTokenIndex itemTokenIndex;
+    @Mock
+    private RequestRepository requestRepository;
+    @Mock
+    private ItemRepository itemRepository;
+    @Mock
+    private RequestMatchRepository requestMatchRepository;
+    private MeterRegistry meterRegistry;
+    private RequestMatcher requestMatcher;
+    private RequestCreatedEvent event;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        requestMatcher = new RequestMatcher(itemTokenIndex, requestRepository, itemRepository, requestMatchRepository,
+                meterRegistry, 5);
+        event = new RequestCreatedEvent(1L, 2L, "Нужна ударная дрель", LocalDateTime.now());
+    }
+
+    @Test
+    void match_whenCandidatesFound_thenExistingItemsStoredInRankOrder() {
+        Request request = Request.builder().id(1L).build();
+        Mockito
+                .when(itemTokenIndex.match(List.of("нужна", "ударная", "дрель"), 2L, 5))
+                .thenReturn(List.of(new ItemScore(7L, 2.5), new ItemScore(5L, 1.5), new ItemScore(3L, 1.0)));
+        Mockito
+                .when(requestRepository.getReferenceById(1L))
+                .thenReturn(request);
+        Mockito
+                .when(itemRepository.findAllById(List.of(7L, 5L, 3L)))
+                .thenReturn(List.of(Item.builder().id(3L).build(), Item.builder().id(7L).build()));
+        Mockito
+                .when(requestMatchRepository.saveAll(anyList()))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<RequestMatch> result = requestMatcher.match(event);
+
+        assertEquals(2, result.size());
+        assertEquals(7L, result.get(0).getItem().getId());
+        assertEquals(2.5, result.get(0).getScore());
+        assertEquals(3L, result.get(1).getItem().getId());
+        assertTrue(result.stream().allMatch(match -> match.getRequest() == request));
+        assertEquals(2.0, meterRegistry.get("requests.matches.stored").counter().count());
+    }
+
+    @Test
+    void match_whenNoCandidates_thenNothingStored() {
+        Mockito
+                .when(itemTokenIndex.match(anyList(), eq(2L), eq(5)))
+                .thenReturn(List.of());
+
+        List<RequestMatch> result = requestMatcher.match(event);
+
+        assertTrue(result.isEmpty());
+        Mockito.verify(requestMatchRepository, never()).saveAll(anyList());
+    }
+}
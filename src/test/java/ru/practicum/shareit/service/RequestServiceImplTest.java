@@ -4,16 +4,21 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import ru.practicum.shareit.booking.dto.BookingDtoIn;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.common.CursorPage;
 import ru.practicum.shareit.common.ErrorHandler;
+import ru.practicum.shareit.common.SeekCursor;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.mapper.CommentMapper;
@@ -21,34 +26,47 @@ import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.outbox.service.OutboxWriter;
 import ru.practicum.shareit.request.dto.RequestDto;
+import ru.practicum.shareit.request.dto.RequestMatchDto;
+import ru.practicum.shareit.request.event.RequestCreatedEvent;
 import ru.practicum.shareit.request.exception.RequestNotFoundException;
 import ru.practicum.shareit.request.exception.RequestValidationException;
 import ru.practicum.shareit.request.mapper.RequestMapper;
 import ru.practicum.shareit.request.model.Request;
+import ru.practicum.shareit.request.repository.RequestMatchRepository;
 import ru.practicum.shareit.request.repository.RequestRepository;
 import ru.practicum.shareit.request.service.impl.RequestServiceImpl;
-import ru.practicum.shareit.user.exception.UserNotFoundException;
 import ru.practicum.shareit.user.model.User;
-import ru.practicum.shareit.user.repository.UserRepository;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
 
 @ExtendWith(MockitoExtension.class)
 public class RequestServiceImplTest {
     private final ObjectMapper mapper = new ObjectMapper();
     @Mock
-    private UserRepository userRepository;
-    @Mock
     private RequestRepository requestRepository;
     @Mock
     private ItemRepository itemRepository;
+    @Mock
+    private RequestMatchRepository requestMatchRepository;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private OutboxWriter outboxWriter;
     @InjectMocks
     private RequestServiceImpl requestService;
     private MockMvc mvc;
@@ -133,57 +151,28 @@ public class RequestServiceImplTest {
         requestList = List.of(request);
     }
 
-    @Test
-    void add_whenUserNotFound_thenException() throws Exception {
-        Long userId = 1L;
-
-        Mockito
-                .when(userRepository.findById(anyLong()))
-                .thenReturn(Optional.empty());
-
-        UserNotFoundException userNotFoundException = assertThrows(
-                UserNotFoundException.class, () -> requestService.add(userId, requestDto));
-    }
-
     @Test
     void add_whenUserFound_thenReturn() throws Exception {
-        Long userId = 1L;
-
-        Mockito
-                .when(userRepository.findById(anyLong()))
-                .thenReturn(Optional.of(user));
 
         Mockito
                 .when(requestRepository.save(any()))
                 .thenReturn(request);
 
-        RequestDto result = requestService.add(userId, requestDto);
+        RequestDto result = requestService.add(user, requestDto);
 
         assertEquals(result.getId(), requestDto.getId());
         assertEquals(result.getDescription(), requestDto.getDescription());
-    }
-
-    @Test
-    void findAllByUserId_whenUserNotFound_thenException() throws Exception {
-        Long userId = 1L;
-
-        Mockito
-                .when(userRepository.findById(anyLong()))
-                .thenReturn(Optional.empty());
-
-        UserNotFoundException userNotFoundException = assertThrows(
-                UserNotFoundException.class, () -> requestService.findAllByUserId(userId));
+        ArgumentCaptor<RequestCreatedEvent> event = ArgumentCaptor.forClass(RequestCreatedEvent.class);
+        Mockito.verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(request.getId(), event.getValue().getRequestId());
+        assertEquals(user.getId(), event.getValue().getRequestorId());
+        assertEquals(request.getDescription(), event.getValue().getDescription());
     }
 
     @Test
     void findAllByUserId_whenUserFound_thenReturn() throws Exception {
-        Long userId = 1L;
         item.setRequest(request);
 
-        Mockito
-                .when(userRepository.findById(anyLong()))
-                .thenReturn(Optional.of(user));
-
         Mockito
                 .when(requestRepository.findAllByRequestor(any(), any()))
                 .thenReturn(requestList);
@@ -192,64 +181,81 @@ public class RequestServiceImplTest {
                 .when(itemRepository.findAllByRequestIn(any(), any()))
                 .thenReturn(itemList);
 
-        List<RequestDto> result = requestService.findAllByUserId(userId);
+        List<RequestDto> result = requestService.findAllByUserId(user);
 
         assertEquals(result.size(), requestList.size());
     }
 
     @Test
-    void findAll_whenUserNotFound_thenException() throws Exception {
-        Long userId = 1L;
-        int from = 0;
-        int size = 10;
+    void findAllByUserId_whenThousandsOfRequestsAndAnswers_thenGroupedWithSingleItemQuery() {
+        int requestCount = 10_000;
+        int answersPerRequest = 3;
+        List<Request> requests = new ArrayList<>(requestCount);
+        List<Item> items = new ArrayList<>(requestCount * answersPerRequest);
+        for (long requestId = 1; requestId <= requestCount; requestId++) {
+            Request current = Request.builder()
+                    .id(requestId)
+                    .description("запрос " + requestId)
+                    .requestor(user)
+                    .build();
+            requests.add(current);
+            for (int answer = 0; answer < answersPerRequest; answer++) {
+                items.add(Item.builder()
+                        .id(requestId * answersPerRequest + answer)
+                        .name("ответ " + answer)
+                        .description("ответ на запрос " + requestId)
+                        .available(true)
+                        .owner(user)
+                        .request(current)
+                        .build());
+            }
+        }
+        Collections.shuffle(items, new Random(42));
 
         Mockito
-                .when(userRepository.findById(anyLong()))
-                .thenReturn(Optional.empty());
-
-        UserNotFoundException userNotFoundException = assertThrows(
-                UserNotFoundException.class, () -> requestService.findAll(userId, from, size));
+                .when(requestRepository.findAllByRequestor(any(), any()))
+                .thenReturn(requests);
+        Mockito
+                .when(itemRepository.findAllByRequestIn(any(), any()))
+                .thenReturn(items);
+
+        List<RequestDto> result = requestService.findAllByUserId(user);
+
+        assertEquals(requestCount, result.size());
+        for (int i = 0; i < requestCount; i++) {
+            RequestDto dto = result.get(i);
+            assertEquals(requests.get(i).getId(), dto.getId());
+            assertEquals(answersPerRequest, dto.getItems().size());
+            assertTrue(dto.getItems().stream().allMatch(answer -> answer.getRequestId().equals(dto.getId())));
+        }
+        Mockito.verify(itemRepository, times(1)).findAllByRequestIn(eq(requests), any());
+        Mockito.verifyNoMoreInteractions(itemRepository);
     }
 
     @Test
     void findAll_whenFromLess0_thenException() throws Exception {
-        Long userId = 1L;
         int from = -1;
         int size = 10;
 
-        Mockito
-                .when(userRepository.findById(anyLong()))
-                .thenReturn(Optional.of(user));
-
         RequestValidationException requestValidationException = assertThrows(
-                RequestValidationException.class, () -> requestService.findAll(userId, from, size));
+                RequestValidationException.class, () -> requestService.findAll(user, from, size));
     }
 
     @Test
     void findAll_whenSizeLess0_thenException() throws Exception {
-        Long userId = 1L;
         int from = 0;
         int size = -1;
 
-        Mockito
-                .when(userRepository.findById(anyLong()))
-                .thenReturn(Optional.of(user));
-
         RequestValidationException requestValidationException = assertThrows(
-                RequestValidationException.class, () -> requestService.findAll(userId, from, size));
+                RequestValidationException.class, () -> requestService.findAll(user, from, size));
     }
 
     @Test
     void findAll_whenUserFound_thenReturn() throws Exception {
-        Long userId = 1L;
         int from = 0;
         int size = 10;
         item.setRequest(request);
 
-        Mockito
-                .when(userRepository.findById(anyLong()))
-                .thenReturn(Optional.of(user));
-
         Mockito
                 .when(requestRepository.findAllByRequestorNot(any(), any()))
                 .thenReturn(requestList);
@@ -258,50 +264,81 @@ public class RequestServiceImplTest {
                 .when(itemRepository.findAllByRequestIn(any(), any()))
                 .thenReturn(itemList);
 
-        List<RequestDto> result = requestService.findAll(userId, from, size);
+        List<RequestDto> result = requestService.findAll(user, from, size);
 
         assertEquals(result.size(), requestList.size());
     }
 
     @Test
-    void findById_whenUserNotFound_thenException() throws Exception {
-        Long userId = 1L;
-        Long id = 1L;
+    void findAll_whenCursorAndMorePages_thenNextCursorFromLastRequest() {
+        item.setRequest(request);
+        request.setCreated(LocalDateTime.of(2030, 1, 1, 12, 0));
+        Request older = Request.builder()
+                .id(2L)
+                .description("нужна лопата")
+                .requestor(user)
+                .created(LocalDateTime.of(2029, 1, 1, 12, 0))
+                .build();
 
         Mockito
-                .when(userRepository.findById(anyLong()))
-                .thenReturn(Optional.empty());
+                .when(requestRepository.findAllByRequestorNotAfterCursor(any(), any(), any()))
+                .thenReturn(List.of(request, older));
+        Mockito
+                .when(itemRepository.findAllByRequestIn(any(), any()))
+                .thenReturn(itemList);
 
-        UserNotFoundException userNotFoundException = assertThrows(
-                UserNotFoundException.class, () -> requestService.findById(userId, id));
+        CursorPage<RequestDto> result = requestService.findAll(user, "", 1);
+
+        assertEquals(1, result.getContent().size());
+        assertEquals(request.getId(), result.getContent().get(0).getId());
+        assertEquals(1, result.getContent().get(0).getItems().size());
+        assertEquals(new SeekCursor(request.getCreated(), request.getId()), SeekCursor.decode(result.getNextCursor()));
     }
 
     @Test
-    void findById_whenRequestNotFound_thenException() throws Exception {
-        Long userId = 1L;
-        Long id = 1L;
+    void findAll_whenCursorAndSizeLess0_thenException() {
+        assertThrows(RequestValidationException.class, () -> requestService.findAll(user, "", 0));
+    }
+
+    @Test
+    void findMatches_whenSizeLess0_thenException() {
+        assertThrows(RequestValidationException.class, () -> requestService.findMatches(user, 0, 0));
+    }
 
+    @Test
+    void findMatches_whenFound_thenReturn() {
+        RequestMatchDto match = RequestMatchDto.builder()
+                .requestId(request.getId())
+                .description(request.getDescription())
+                .itemId(item.getId())
+                .itemName(item.getName())
+                .score(1.5)
+                .build();
         Mockito
-                .when(userRepository.findById(anyLong()))
-                .thenReturn(Optional.of(user));
+                .when(requestMatchRepository.findAllByOwner(user, PageRequest.of(1, 5)))
+                .thenReturn(List.of(match));
+
+        List<RequestMatchDto> result = requestService.findMatches(user, 5, 5);
+
+        assertEquals(List.of(match), result);
+    }
+
+    @Test
+    void findById_whenRequestNotFound_thenException() throws Exception {
+        Long id = 1L;
 
         Mockito
                 .when(requestRepository.findById(anyLong()))
                 .thenReturn(Optional.empty());
 
         RequestNotFoundException requestNotFoundException = assertThrows(
-                RequestNotFoundException.class, () -> requestService.findById(userId, id));
+                RequestNotFoundException.class, () -> requestService.findById(user, id));
     }
 
     @Test
     void findById_whenFound_thenReturn() throws Exception {
-        Long userId = 1L;
         Long id = 1L;
 
-        Mockito
-                .when(userRepository.findById(anyLong()))
-                .thenReturn(Optional.of(user));
-
         Mockito
                 .when(requestRepository.findById(anyLong()))
                 .thenReturn(Optional.of(request));
@@ -310,7 +347,7 @@ public class RequestServiceImplTest {
                 .when(itemRepository.findAllByRequest(any(), any()))
                 .thenReturn(itemList);
 
-        RequestDto result = requestService.findById(userId, id);
+        RequestDto result = requestService.findById(user, id);
 
         assertEquals(result.getId(), request.getId());
     }
@@ -0,0 +1,111 @@
+package ru.practicum.shareit.service;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.common.StripedLock;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StripedLockTest {
+    private static final int THREADS = 8;
+    private static final int ROUNDS = 20;
+
+    @Test
+    void get_whenSameKey_thenSameLock() {
+        StripedLock stripedLock = new StripedLock(16);
+
+        assertSame(stripedLock.get(42L), stripedLock.get(42L));
+        assertNotSame(stripedLock.get(1L), stripedLock.get(2L));
+    }
+
+    @Test
+    void constructor_whenStripesNotPositive_thenException() {
+        assertThrows(IllegalArgumentException.class, () -> new StripedLock(0));
+    }
+
+    @Test
+    void lockUntilTransactionCompletes_whenNoTransaction_thenException() {
+        StripedLock stripedLock = new StripedLock(16);
+
+        assertThrows(IllegalStateException.class, () -> stripedLock.lockUntilTransactionCompletes(1L));
+    }
+
+    @Test
+    void get_whenKeysDiffer_thenThreadsRunInParallel() throws Exception {
+        StripedLock stripedLock = new StripedLock(64);
+        CountDownLatch bothInside = new CountDownLatch(2);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            List<Future<Boolean>> futures = new ArrayList<>();
+            for (long key = 1; key <= 2; key++) {
+                Lock lock = stripedLock.get(key);
+                futures.add(executor.submit(() -> {
+                    lock.lock();
+                    try {
+                        bothInside.countDown();
+                        return bothInside.await(30, TimeUnit.SECONDS);
+                    } finally {
+                        lock.unlock();
+                    }
+                }));
+            }
+            for (Future<Boolean> future : futures) {
+                assertTrue(future.get(1, TimeUnit.MINUTES));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void get_whenSameKey_thenNoLostUpdates() throws Exception {
+        StripedLock stripedLock = new StripedLock(64);
+        AtomicInteger maxInside = new AtomicInteger();
+
+        run(stripedLock, thread -> 7L, maxInside);
+
+        assertEquals(1, maxInside.get());
+    }
+
+    private void run(StripedLock stripedLock, KeyByThread keys, AtomicInteger maxInside) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        AtomicInteger inside = new AtomicInteger();
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < THREADS; thread++) {
+                Lock lock = stripedLock.get(keys.key(thread));
+                futures.add(executor.submit(() -> {
+                    for (int round = 0; round < ROUNDS; round++) {
+                        lock.lock();
+                        try {
+                            maxInside.accumulateAndGet(inside.incrementAndGet(), Math::max);
+                            Thread.sleep(2);
+                            inside.decrementAndGet();
+                        } finally {
+                            lock.unlock();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private interface KeyByThread {
+        Long key(int thread);
+    }
+}
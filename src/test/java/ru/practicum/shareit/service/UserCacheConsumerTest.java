@@ -0,0 +1,77 @@
+package ru.practicum.shareit.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.outbox.model.DomainEventType;
+import ru.practicum.shareit.outbox.model.OutboxEvent;
+import ru.practicum.shareit.request.model.Request;
+import ru.practicum.shareit.user.cache.UserCache;
+import ru.practicum.shareit.user.cache.UserCacheConsumer;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.Cache;
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+
+import static org.mockito.Mockito.never;
+
+@ExtendWith(MockitoExtension.class)
+public class UserCacheConsumerTest {
+    @Mock
+    private UserCache userCache;
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+    @Mock
+    private Cache secondLevelCache;
+    @InjectMocks
+    private UserCacheConsumer userCacheConsumer;
+
+    @Test
+    void accept_whenUserUpdated_thenUserEvicted() {
+        Mockito
+                .when(entityManagerFactory.getCache())
+                .thenReturn(secondLevelCache);
+
+        userCacheConsumer.accept(event(DomainEventType.USER_UPDATED));
+
+        Mockito.verify(secondLevelCache).evict(User.class, 1L);
+        Mockito.verify(secondLevelCache, never()).evict(Item.class);
+        Mockito.verify(userCache).evict(1L);
+    }
+
+    @Test
+    void accept_whenUserDeleted_thenCascadedEntitiesEvicted() {
+        Mockito
+                .when(entityManagerFactory.getCache())
+                .thenReturn(secondLevelCache);
+
+        userCacheConsumer.accept(event(DomainEventType.USER_DELETED));
+
+        Mockito.verify(secondLevelCache).evict(User.class, 1L);
+        Mockito.verify(secondLevelCache).evict(Item.class);
+        Mockito.verify(secondLevelCache).evict(Request.class);
+        Mockito.verify(userCache).evict(1L);
+    }
+
+    @Test
+    void accept_whenOtherEvent_thenIgnored() {
+        userCacheConsumer.accept(event(DomainEventType.ITEM_UPDATED));
+
+        Mockito.verifyNoInteractions(userCache, entityManagerFactory);
+    }
+
+    private OutboxEvent event(DomainEventType type) {
+        return OutboxEvent.builder()
+                .id(1L)
+                .type(type)
+                .aggregateId(1L)
+                .payload("{}")
+                .created(LocalDateTime.now())
+                .build();
+    }
+}
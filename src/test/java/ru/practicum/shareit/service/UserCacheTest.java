@@ -0,0 +1,95 @@
+package ru.practicum.shareit.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.user.cache.UserCache;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.times;
+
+@ExtendWith(MockitoExtension.class)
+public class UserCacheTest {
+    @Mock
+    private UserRepository userRepository;
+    private MeterRegistry meterRegistry;
+    private UserCache userCache;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        userCache = new UserCache(userRepository, meterRegistry, 100, Duration.ofMinutes(1));
+        user = User.builder()
+                .id(1L)
+                .name("user")
+                .email("user@user.com")
+                .build();
+    }
+
+    @Test
+    void findById_whenCalledTwice_thenRepositoryCalledOnce() {
+        Mockito
+                .when(userRepository.findById(1L))
+                .thenReturn(Optional.of(user));
+
+        Optional<User> first = userCache.findById(1L);
+        Optional<User> second = userCache.findById(1L);
+
+        assertTrue(first.isPresent());
+        assertTrue(second.isPresent());
+        assertEquals(user.getName(), second.get().getName());
+        Mockito.verify(userRepository, times(1)).findById(1L);
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "users").tag("result", "hit")
+                .functionCounter().count());
+    }
+
+    @Test
+    void findById_whenCachedUserModified_thenCacheNotAffected() {
+        Mockito
+                .when(userRepository.findById(1L))
+                .thenReturn(Optional.of(user));
+
+        userCache.findById(1L).get().setName("changed");
+
+        assertEquals("user", userCache.findById(1L).get().getName());
+    }
+
+    @Test
+    void findById_whenUserNotFound_thenNotCached() {
+        Mockito
+                .when(userRepository.findById(1L))
+                .thenReturn(Optional.empty());
+
+        assertTrue(userCache.findById(1L).isEmpty());
+        assertTrue(userCache.findById(1L).isEmpty());
+        Mockito.verify(userRepository, times(2)).findById(1L);
+    }
+
+    @Test
+    void evict_whenUserEvicted_thenReloaded() {
+        User updated = User.builder()
+                .id(1L)
+                .name("newName")
+                .email("user@user.com")
+                .build();
+        Mockito
+                .when(userRepository.findById(1L))
+                .thenReturn(Optional.of(user), Optional.of(updated));
+
+        userCache.findById(1L);
+        userCache.evict(1L);
+
+        assertEquals("newName", userCache.findById(1L).get().getName());
+    }
+}
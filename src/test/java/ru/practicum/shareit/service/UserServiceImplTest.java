@@ -8,9 +8,20 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.common.ErrorHandler;
+import ru.practicum.shareit.item.cache.ItemCache;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.outbox.model.DomainEventType;
+import ru.practicum.shareit.outbox.service.OutboxWriter;
+import ru.practicum.shareit.request.model.Request;
+import ru.practicum.shareit.user.cache.UserCache;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.exception.UserNotFoundException;
 import ru.practicum.shareit.user.mapper.UserMapper;
@@ -18,13 +29,17 @@ import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 import ru.practicum.shareit.user.service.impl.UserServiceImpl;
 
+import javax.persistence.Cache;
+import javax.persistence.EntityManagerFactory;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.times;
 
 @ExtendWith(MockitoExtension.class)
@@ -32,6 +47,22 @@ public class UserServiceImplTest {
     private final ObjectMapper mapper = new ObjectMapper();
     @Mock
     private UserRepository userRepository;
+    @Mock
+    private UserCache userCache;
+    @Mock
+    private ItemCache itemCache;
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+    @Mock
+    private Cache secondLevelCache;
+    @Mock
+    private OutboxWriter outboxWriter;
+    @Mock
+    private ItemRepository itemRepository;
+    @Mock
+    private CommentRepository commentRepository;
+    @Mock
+    private BookingRepository bookingRepository;
     @InjectMocks
     private UserServiceImpl userService;
     private MockMvc mvc;
@@ -109,6 +140,7 @@ public class UserServiceImplTest {
         assertEquals(userDto.getId(), result.getId());
         assertEquals(userDto.getName(), result.getName());
         assertEquals(userDto.getEmail(), result.getEmail());
+        Mockito.verify(outboxWriter, times(1)).append(DomainEventType.USER_CREATED, result.getId(), result);
     }
 
     @Test
@@ -117,9 +149,38 @@ public class UserServiceImplTest {
         Mockito
                 .when(userRepository.findById(anyLong()))
                 .thenReturn(Optional.of(user));
+        Mockito
+                .when(entityManagerFactory.getCache())
+                .thenReturn(secondLevelCache);
+        Mockito
+                .when(itemRepository.findAllByOwner(user, Pageable.unpaged()))
+                .thenReturn(List.of(Item.builder()
+                        .id(5L)
+                        .name("дрель")
+                        .description("ударная")
+                        .available(true)
+                        .owner(user)
+                        .build()));
+        Mockito
+                .when(commentRepository.findItemIdsByAuthorId(id))
+                .thenReturn(List.of(7L));
+        Mockito
+                .when(bookingRepository.findItemIdsByBookerId(id))
+                .thenReturn(List.of(7L, 8L));
+        Mockito
+                .when(itemRepository.findAllById(Set.of(7L, 8L)))
+                .thenReturn(List.of(item(7L), item(8L)));
 
         userService.remove(id);
         Mockito.verify(userRepository, times(1)).deleteById(id);
+        Mockito.verify(userCache, times(1)).evict(id);
+        Mockito.verify(itemCache, times(1)).evictUser(id);
+        Mockito.verify(secondLevelCache, times(1)).evict(Item.class);
+        Mockito.verify(secondLevelCache, times(1)).evict(Request.class);
+        Mockito.verify(outboxWriter, times(1)).append(eq(DomainEventType.USER_DELETED), eq(id), any(UserDto.class));
+        Mockito.verify(outboxWriter, times(1)).append(eq(DomainEventType.ITEM_DELETED), eq(5L), any(ItemDto.class));
+        Mockito.verify(outboxWriter, times(1)).append(eq(DomainEventType.ITEM_UPDATED), eq(7L), any(ItemDto.class));
+        Mockito.verify(outboxWriter, times(1)).append(eq(DomainEventType.ITEM_UPDATED), eq(8L), any(ItemDto.class));
     }
 
     @Test
@@ -132,6 +193,7 @@ public class UserServiceImplTest {
         UserNotFoundException userNotFoundException = assertThrows(
                 UserNotFoundException.class, () -> userService.findById(id));
         Mockito.verify(userRepository, times(0)).deleteById(anyLong());
+        Mockito.verifyNoInteractions(outboxWriter);
     }
 
     @Test
@@ -165,10 +227,41 @@ public class UserServiceImplTest {
                 .thenReturn(updateUser);
 
         UserDto result = userService.update(id, upadteUserDto);
+        Mockito.verify(userCache, times(1)).evict(id);
+        Mockito.verify(itemCache, times(1)).evictCommentedBy(id);
 
         assertEquals(upadteUserDto.getId(), result.getId());
         assertEquals(upadteUserDto.getName(), result.getName());
         assertEquals(upadteUserDto.getEmail(), result.getEmail());
     }
 
+    @Test
+    void update_whenOnlyEmailChanged_thenItemCacheNotEvicted() throws Exception {
+        Long id = 1L;
+        UserDto emailOnly = UserDto.builder()
+                .email("newemail@mail.ru")
+                .build();
+        Mockito
+                .when(userRepository.findById(anyLong()))
+                .thenReturn(Optional.of(user));
+        Mockito
+                .when(userRepository.save(any()))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        UserDto result = userService.update(id, emailOnly);
+
+        assertEquals("newemail@mail.ru", result.getEmail());
+        Mockito.verify(userCache, times(1)).evict(id);
+        Mockito.verifyNoInteractions(itemCache);
+    }
+
+    private Item item(Long id) {
+        return Item.builder()
+                .id(id)
+                .name("вещь " + id)
+                .description("описание")
+                .available(true)
+                .owner(User.builder().id(3L).name("owner").email("owner@user.com").build())
+                .build();
+    }
 }